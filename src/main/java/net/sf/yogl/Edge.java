@@ -1,6 +1,7 @@
 package net.sf.yogl;
 
 import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.impl.VisitEpoch;
 
 public abstract class Edge<EDGE extends Edge<EDGE, VERTEX>, VERTEX extends Vertex<VERTEX, EDGE>> {
 
@@ -8,6 +9,17 @@ public abstract class Edge<EDGE extends Edge<EDGE, VERTEX>, VERTEX extends Verte
 	
 	private int visitCounts = 0;
 	
+	/** Traversal epoch of the graph holding this edge, and the epoch in
+	 * which visitCounts was last written. A count from an older epoch is 0.
+	 */
+	private VisitEpoch epoch = null;
+	
+	private int epochStamp = 0;
+	
+	/** Dense id given by the graph, -1 while the edge is not in a graph.
+	 */
+	private int id = -1;
+	
 	/** no-param ctor is required for generic util methods
 	 * 
 	 */
@@ -27,21 +39,60 @@ public abstract class Edge<EDGE extends Edge<EDGE, VERTEX>, VERTEX extends Verte
 	}
 	
 	public void incVisitCounts() {
+		if (isStale()) {
+			visitCounts = 0;
+			stamp();
+		}
 		visitCounts++;
 	}
 
 	public int getVisitsCount(){
-        return visitCounts;
+        return isStale() ? 0 : visitCounts;
     }
 	
 	public void setVisitsCount(int count){
 		this.visitCounts = count;
+		stamp();
 	}
 	
 	public void clearVisitsCount(){
     	this.visitCounts = 0;
+    	stamp();
     }
 	
+	/** setter method, used by the graph implementations. The visit count
+	 * is kept.
+	 * @param epoch traversal epoch of the graph, or null
+	 */
+	public void setVisitEpoch(VisitEpoch epoch) {
+		int count = getVisitsCount();
+		this.epoch = epoch;
+		setVisitsCount(count);
+	}
+	
+	private boolean isStale() {
+		return epoch != null && epochStamp != epoch.current();
+	}
+	
+	private void stamp() {
+		if (epoch != null)
+			epochStamp = epoch.current();
+	}
+	
+	/** @return the id of the edge in its graph, in [0 .. graph.maxEdgeId()[,
+	 *         or -1 if the edge is not in a graph. Ids of removed edges are
+	 *         reused.
+	 */
+	public int getId() {
+		return id;
+	}
+	
+	/** setter method, used by the graph implementations
+	 */
+	public void setId(int id) {
+		this.id = id;
+	}
+	
 	/** Edges are duplicated with a clone method
 	 * 
 	 */
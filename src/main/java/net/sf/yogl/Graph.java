@@ -1,12 +1,19 @@
 package net.sf.yogl;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 import net.sf.yogl.exceptions.GraphException;
 import net.sf.yogl.exceptions.NodeNotFoundException;
 import net.sf.yogl.iterators.BreadthFirstIterator;
 import net.sf.yogl.iterators.DepthFirstIterator;
+import net.sf.yogl.iterators.DepthFirstWalker;
+import net.sf.yogl.iterators.GraphVisitor;
+import net.sf.yogl.iterators.VisitResult;
 import net.sf.yogl.types.VertexType;
+import net.sf.yogl.utils.TriConsumer;
 
 public interface Graph<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
 
@@ -28,7 +35,23 @@ public interface Graph<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<ED
 	public int getNodeCount();
 	
 	public int getLinkCount();
-	
+
+	/** @return an exclusive upper bound of the ids of the vertices of this
+	 * graph (see Vertex.getId). An array of that size can hold one entry
+	 * per vertex. The default implementation scans the vertices; the graphs
+	 * of this library keep the bound up to date.
+	 */
+	public default int maxVertexId() {
+		return vertexStream().mapToInt(Vertex::getId).max().orElse(-1) + 1;
+	}
+
+	/** @return an exclusive upper bound of the ids of the edges of this
+	 * graph (see Edge.getId). The default implementation scans the edges.
+	 */
+	public default int maxEdgeId() {
+		return edgeStream().mapToInt(Edge::getId).max().orElse(-1) + 1;
+	}
+
 	/** Check if the graph is empty or not. That is, if the graph contains
 	 * at least one node.
 	 */
@@ -51,8 +74,55 @@ public interface Graph<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<ED
 	 */
 	public Collection<VERTEX> getVertices (VertexType type) throws GraphException;
 	
+	/** Sets the visit counts of all vertices and edges to 0. The graphs of
+	 * this library move to a new traversal epoch (see VisitEpoch) instead of
+	 * walking their elements.
+	 */
 	public void clearAllVisitCounts();
 	
+	/** @return the vertices of the graph. The stream is SIZED and splits
+	 *  evenly, so it can be processed in parallel. The graph must not be
+	 *  modified while the stream is in use.
+	 *  The default implementation walks the vertices reachable from the
+	 *  roots into a list; the graphs of this library stream their own
+	 *  storage.
+	 */
+	public default Stream<VERTEX> vertexStream() {
+		List<VERTEX> vertices = new ArrayList<>();
+		walk(new GraphVisitor<VERTEX, EDGE>() {
+			@Override
+			public VisitResult preVisit(VERTEX vertex) {
+				vertices.add(vertex);
+				return VisitResult.CONTINUE;
+			}
+		});
+		return vertices.stream();
+	}
+	
+	/** @return the edges of the graph. Graphs keeping edge objects stream
+	 *  them like vertexStream does. The default implementation walks the
+	 *  edges of the vertices reachable from the roots into a list.
+	 */
+	public default Stream<EDGE> edgeStream() {
+		List<EDGE> edges = new ArrayList<>();
+		walk(new GraphVisitor<VERTEX, EDGE>() {
+			@Override
+			public VisitResult onEdge(VERTEX from, EDGE edge) {
+				edges.add(edge);
+				return VisitResult.CONTINUE;
+			}
+		});
+		return edges.stream();
+	}
+	
+	/** Calls 'action' with each edge of the graph, its source vertex and
+	 *  its destination vertex. The edges are read in place, without being
+	 *  copied. The graph must not be modified by the action.
+	 */
+	public default void forEachEdge(TriConsumer<VERTEX, EDGE, VERTEX> action) {
+		vertexStream().forEach(vertex -> vertex.forEachEdge(edge -> action.accept(vertex, edge, edge.getToVertex())));
+	}
+	
 	/** Returns the nodes that have a 'predecessor' relationship with nodeTo.
 	 *  A predecessor is a node that is the originator of a link whose
 	 *  destination is indicated by the parameter.
@@ -98,6 +168,15 @@ public interface Graph<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<ED
 	public DepthFirstIterator<VERTEX, EDGE> depthFirstIterator(Collection<VERTEX> startVertex, int maxCycling)
 		throws GraphException;
 	
+	/** Walks the vertices reachable from the roots in depth first order,
+	 *  calling the visitor once per vertex and once per edge of each
+	 *  visited vertex. See DepthFirstWalker.
+	 *  @return TERMINATE if the visitor has stopped the walk
+	 */
+	public default VisitResult walk(GraphVisitor<VERTEX, EDGE> visitor) {
+		return new DepthFirstWalker<VERTEX, EDGE>().walk(getRoots(), visitor);
+	}
+	
 	public VERTEX addRootVertex(VERTEX vertex, boolean isRoot);
 	
 	/** Returns the type associated to the node.
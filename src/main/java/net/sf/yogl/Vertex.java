@@ -1,6 +1,12 @@
 package net.sf.yogl;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+import net.sf.yogl.impl.VisitEpoch;
 
 public abstract class Vertex<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>>{
 
@@ -15,11 +21,22 @@ public abstract class Vertex<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends E
      */
     private int visitCounts = 0;
 
+    /** Traversal epoch of the graph holding this vertex, and the epoch in
+     * which visitCounts was last written. A count from an older epoch is 0.
+     */
+    private VisitEpoch epoch = null;
+
+    private int epochStamp = 0;
+
     /** As edges can be only in one direction, this vertex has no direct tracking information of all incoming edges.
      * To help / optimize some methods, the graph implementation may use the following
      */
     private int incomingEdges = 0;
     
+    /** Dense id given by the graph, -1 while the vertex is not in a graph.
+     */
+    private int id = -1;
+    
     public Vertex() {}
     
     /** setter method
@@ -42,24 +59,64 @@ public abstract class Vertex<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends E
      */
     public void setVisitCounts(int visitCounts){
         this.visitCounts = visitCounts;
+        stamp();
     }
     
     /** getter method
      * @return the number of times the vertex has been visited.
      */
     public int getVisitsCount(){
-        return visitCounts;
+        return isStale() ? 0 : visitCounts;
     }
     
     /** modifier method.
      * postcondition the vertex has been traversed once more.
      */
     public int incVisitCounts(){
+        if (isStale()) {
+            visitCounts = 0;
+            stamp();
+        }
         return ++visitCounts;
     }
     
     public void clearVisitsCount(){
     	this.visitCounts = 0;
+    	stamp();
+    }
+    
+    /** setter method, used by the graph implementations. The visit count
+     * is kept.
+     * @param epoch traversal epoch of the graph, or null
+     */
+    public void setVisitEpoch(VisitEpoch epoch){
+    	int count = getVisitsCount();
+    	this.epoch = epoch;
+    	setVisitCounts(count);
+    }
+    
+    private boolean isStale(){
+    	return epoch != null && epochStamp != epoch.current();
+    }
+    
+    private void stamp(){
+    	if (epoch != null)
+    		epochStamp = epoch.current();
+    }
+    
+    /** getter method
+     * @return the id of the vertex in its graph, in [0 .. graph.maxVertexId()[,
+     *         or -1 if the vertex is not in a graph. Ids of removed vertices
+     *         are reused: they can index arrays holding per-vertex data.
+     */
+    public int getId(){
+        return id;
+    }
+    
+    /** setter method, used by the graph implementations
+     */
+    public void setId(int id){
+        this.id = id;
     }
     
     public int incrementIncomingEdges () {
@@ -78,6 +135,46 @@ public abstract class Vertex<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends E
     
     public abstract void tryAddEdge(EDGE edge);
     
+    /** @return the number of outgoing edges
+     */
+    public int edgeCount(){
+    	return getOutgoingEdges().size();
+    }
+    
+    /** Returns the outgoing edge at the given position, in the order of
+     * getOutgoingEdges. Constant time when the edges are stored in a list,
+     * linear otherwise.
+     * @exception IndexOutOfBoundsException if index is not in [0 .. edgeCount()[
+     */
+    public EDGE edgeAt(int index){
+    	Collection<EDGE> edges = getOutgoingEdges();
+    	if (edges instanceof List) {
+    		return ((List<EDGE>) edges).get(index);
+    	}
+    	if (index < 0 || index >= edges.size()) {
+    		throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + edges.size());
+    	}
+    	Iterator<EDGE> iter = edges.iterator();
+    	for (int i = 0; i < index; i++) {
+    		iter.next();
+    	}
+    	return iter.next();
+    }
+    
+    /** @return true if edgeAt runs in constant time. By default, true when
+     * the outgoing edges are a RandomAccess list.
+     */
+    public boolean hasIndexedEdges(){
+    	return getOutgoingEdges() instanceof RandomAccess;
+    }
+    
+    /** Calls 'action' with each outgoing edge, without copying them.
+     * The edges must not be modified by the action.
+     */
+    public void forEachEdge(Consumer<? super EDGE> action){
+    	getOutgoingEdges().forEach(action);
+    }
+    
     /** Vertices are duplicated with a clone method
      */
     public <D_VERTEX extends Vertex<VERTEX, EDGE>> void cloneTo(D_VERTEX copyToVertex){
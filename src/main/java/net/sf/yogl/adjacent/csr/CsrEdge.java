@@ -0,0 +1,67 @@
+package net.sf.yogl.adjacent.csr;
+
+import net.sf.yogl.Edge;
+
+/**
+ * Edge of a CsrGraph. Edges are not stored as objects in the graph: a CsrEdge
+ * is a light handle on the position of the edge in the graph arrays, created
+ * when the edge is read. Two handles on the same position are equal.
+ * As a consequence, the visit counter of an edge is not kept between two
+ * reads of the outgoing edges of a vertex.
+ */
+public class CsrEdge <VERTEX_KEY extends Comparable<VERTEX_KEY>, VERTEX_VALUE, EDGE_VALUE>
+	extends Edge<CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> {
+
+	private final CsrGraph<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> graph;
+
+	/** position of the edge in the graph arrays
+	 */
+	private final int index;
+
+	CsrEdge(CsrGraph<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> graph, int index) {
+		super();
+		this.graph = graph;
+		this.index = index;
+		setId(index);
+	}
+
+	/** getter method
+	 * @return the position of the edge, in [0 .. graph.getLinkCount()[
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	@Override
+	public CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> getToVertex() {
+		return graph.vertex(graph.target(index));
+	}
+
+	/** A frozen graph cannot be modified.
+	 */
+	@Override
+	public void setToVertex(CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> toVertex) {
+		throw new UnsupportedOperationException("CsrGraph is immutable");
+	}
+
+	public EDGE_VALUE getUserValue() {
+		return graph.edgeValue(index);
+	}
+
+	@Override
+	public boolean equals(Object rhs) {
+		if (!(rhs instanceof CsrEdge<?, ?, ?>))
+			return false;
+		CsrEdge<?, ?, ?> edge = (CsrEdge<?, ?, ?>) rhs;
+		return (edge.graph == this.graph) && (edge.index == this.index);
+	}
+
+	@Override
+	public int hashCode() {
+		return index;
+	}
+
+	public String toString() {
+		return "index(" + index + ")vertex(" + getToVertex() + ")value(" + getUserValue() + ")";
+	}
+}
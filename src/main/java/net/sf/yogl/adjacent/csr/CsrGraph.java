@@ -0,0 +1,567 @@
+package net.sf.yogl.adjacent.csr;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Graph;
+import net.sf.yogl.Vertex;
+import net.sf.yogl.exceptions.GraphCorruptedException;
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.impl.VisitEpoch;
+import net.sf.yogl.iterators.BreadthFirstIterator;
+import net.sf.yogl.iterators.DepthFirstIterator;
+import net.sf.yogl.types.VertexType;
+
+/**
+ * Immutable graph stored in compressed sparse row (CSR) format.
+ * Vertices are identified by a dense index in [0 .. n[, given by the order of
+ * their keys. The outgoing edges of vertex i are stored at the positions
+ * [offsets[i] .. offsets[i+1][ of the 'targets' buffer, which contains the index
+ * of the destination vertex. User values are kept on the side.
+ *
+ * A CsrGraph is not built directly: it is a frozen copy of another graph
+ * (see KeyValueGraph.freeze, UniqueElementsGraph.freeze, copyOf or
+ * offHeapCopyOf). Any attempt to modify the graph throws an
+ * UnsupportedOperationException.
+ *
+ * The topology is held in IntBuffers. They wrap heap arrays for a plain copy,
+ * and direct buffers for an off-heap copy: the garbage collector then only
+ * sees the keys, the user values and the vertices read so far.
+ *
+ * Besides the Graph interface, the index-based methods (outDegree, firstEdge,
+ * target, ...) give allocation-free access to the topology for hot loops.
+ */
+public class CsrGraph <VERTEX_KEY extends Comparable<VERTEX_KEY>, VERTEX_VALUE, EDGE_VALUE>
+	implements Graph<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> {
+
+	/** vertex keys, sorted. keys.get(i) is the key of the vertex at index i.
+	 */
+	private final IndexedValues<VERTEX_KEY> keys;
+
+	private final IndexedValues<VERTEX_VALUE> vertexValues;
+
+	/** offsets[i] is the position in 'targets' of the first outgoing edge of
+	 * vertex i. The buffer contains one extra entry equal to the number of edges.
+	 */
+	private final IntBuffer offsets;
+
+	/** index of the destination vertex of each edge
+	 */
+	private final IntBuffer targets;
+
+	private final IndexedValues<EDGE_VALUE> edgeValues;
+
+	/** indexes of the root vertices, sorted
+	 */
+	private final IntBuffer roots;
+
+	/** number of incoming edges per vertex
+	 */
+	private final IntBuffer inDegrees;
+
+	private final int maxOutDegree;
+
+	private final int maxInDegree;
+
+	/** true if the buffers computed by the graph must be allocated off heap
+	 */
+	private final boolean direct;
+
+	/** one vertex object per index, to keep the visit counters. Vertices are
+	 * created on their first read.
+	 */
+	private final AtomicReferenceArray<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> vertices;
+
+	/** traversal epoch of the vertices: clearAllVisitCounts only moves to
+	 * the next epoch.
+	 */
+	private final VisitEpoch visitEpoch = new VisitEpoch();
+
+	/** Reverse adjacency (incoming edges), built on the first predecessor query.
+	 * inSources contains the index of the source vertex.
+	 */
+	private volatile IntBuffer inOffsets;
+
+	private volatile IntBuffer inSources;
+
+	CsrGraph(IndexedValues<VERTEX_KEY> keys, IndexedValues<VERTEX_VALUE> vertexValues, IntBuffer offsets,
+			IntBuffer targets, IndexedValues<EDGE_VALUE> edgeValues, IntBuffer roots, IntBuffer inDegrees,
+			int maxOutDegree, int maxInDegree, boolean direct) {
+		this.keys = keys;
+		this.vertexValues = vertexValues;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.edgeValues = edgeValues;
+		this.roots = roots;
+		this.inDegrees = inDegrees;
+		this.maxOutDegree = maxOutDegree;
+		this.maxInDegree = maxInDegree;
+		this.direct = direct;
+		this.vertices = new AtomicReferenceArray<>(keys.size());
+	}
+
+	/** Builds a frozen copy of the given vertices and of their outgoing edges.
+	 * User values are not duplicated: the frozen graph refers to the same objects.
+	 * @param source all vertices of the graph to be copied
+	 * @param isRoot tells if a vertex is an entry point of the graph
+	 * @param keyOf returns the key of a vertex. Keys must be unique.
+	 * @param vertexValueOf returns the value to be associated to a vertex
+	 * @param edgeValueOf returns the value to be associated to an edge
+	 * @exception GraphCorruptedException if two vertices have the same key,
+	 *            or if an edge refers to a vertex that is not in 'source'.
+	 */
+	public static <V extends Vertex<V, E>, E extends Edge<E, V>, VK extends Comparable<VK>, VV, EV> CsrGraph<VK, VV, EV> copyOf(
+			Collection<V> source, Predicate<V> isRoot, Function<V, VK> keyOf,
+			Function<V, VV> vertexValueOf, Function<E, EV> edgeValueOf) throws GraphCorruptedException {
+		return copyOf(source, isRoot, keyOf, vertexValueOf, edgeValueOf, false);
+	}
+
+	/** Builds a frozen copy of any graph.
+	 * @see #copyOf(Collection, Predicate, Function, Function, Function)
+	 */
+	public static <V extends Vertex<V, E>, E extends Edge<E, V>, VK extends Comparable<VK>, VV, EV> CsrGraph<VK, VV, EV> copyOf(
+			Graph<V, E> graph, Function<V, VK> keyOf, Function<V, VV> vertexValueOf, Function<E, EV> edgeValueOf)
+			throws GraphException {
+		return copyOf(graph.getVertices(VertexType.ANY), graph::isRootVertex, keyOf, vertexValueOf, edgeValueOf, false);
+	}
+
+	/** Builds a frozen copy of any graph, with its topology stored in direct
+	 * buffers, outside of the java heap. Keys stay on the heap. User values
+	 * are only kept if the corresponding function is not null.
+	 * @see #copyOf(Collection, Predicate, Function, Function, Function)
+	 */
+	public static <V extends Vertex<V, E>, E extends Edge<E, V>, VK extends Comparable<VK>, VV, EV> CsrGraph<VK, VV, EV> offHeapCopyOf(
+			Graph<V, E> graph, Function<V, VK> keyOf, Function<V, VV> vertexValueOf, Function<E, EV> edgeValueOf)
+			throws GraphException {
+		return copyOf(graph.getVertices(VertexType.ANY), graph::isRootVertex, keyOf, vertexValueOf, edgeValueOf, true);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V extends Vertex<V, E>, E extends Edge<E, V>, VK extends Comparable<VK>, VV, EV> CsrGraph<VK, VV, EV> copyOf(
+			Collection<V> source, Predicate<V> isRoot, Function<V, VK> keyOf,
+			Function<V, VV> vertexValueOf, Function<E, EV> edgeValueOf, boolean direct) throws GraphCorruptedException {
+
+		int n = source.size();
+		Object[] sorted = source.toArray();
+		Arrays.sort(sorted, Comparator.comparing(v -> keyOf.apply((V) v)));
+		VK[] keys = (VK[]) new Comparable<?>[n];
+		VV[] vertexValues = (vertexValueOf == null) ? null : (VV[]) new Object[n];
+		IntBuffer offsets = allocate(n + 1, direct);
+		int edgeCount = 0;
+		int maxOut = 0;
+		int rootCount = 0;
+		for (int i = 0; i < n; i++) {
+			V vertex = (V) sorted[i];
+			keys[i] = keyOf.apply(vertex);
+			if (i > 0 && keys[i - 1].compareTo(keys[i]) == 0)
+				throw new GraphCorruptedException("Duplicate vertex key:" + keys[i]);
+			if (vertexValues != null)
+				vertexValues[i] = vertexValueOf.apply(vertex);
+			offsets.put(i, edgeCount);
+			edgeCount += vertex.edgeCount();
+			maxOut = Math.max(maxOut, vertex.edgeCount());
+			if (isRoot.test(vertex))
+				rootCount++;
+		}
+		offsets.put(n, edgeCount);
+		IntBuffer targets = allocate(edgeCount, direct);
+		EV[] edgeValues = (edgeValueOf == null) ? null : (EV[]) new Object[edgeCount];
+		IntBuffer roots = allocate(rootCount, direct);
+		IntBuffer inDegrees = allocate(n, direct);
+		int maxIn = 0;
+		int rootPos = 0;
+		for (int i = 0; i < n; i++) {
+			V vertex = (V) sorted[i];
+			if (isRoot.test(vertex))
+				roots.put(rootPos++, i);
+			int pos = offsets.get(i);
+			Iterator<E> edgesIter = vertex.getOutgoingEdges().iterator();
+			while (edgesIter.hasNext()) {
+				E edge = edgesIter.next();
+				V toVertex = edge.getToVertex();
+				int target = (toVertex == null) ? -1 : Arrays.binarySearch(keys, keyOf.apply(toVertex));
+				if (target < 0)
+					throw new GraphCorruptedException("Edge from " + keys[i] + " refers to a vertex outside the graph");
+				int inDegree = inDegrees.get(target) + 1;
+				inDegrees.put(target, inDegree);
+				maxIn = Math.max(maxIn, inDegree);
+				targets.put(pos, target);
+				if (edgeValues != null)
+					edgeValues[pos] = edgeValueOf.apply(edge);
+				pos++;
+			}
+		}
+		return new CsrGraph<>(IndexedValues.of(keys),
+				(vertexValues == null) ? IndexedValues.empty(n) : IndexedValues.of(vertexValues),
+				offsets, targets,
+				(edgeValues == null) ? IndexedValues.empty(edgeCount) : IndexedValues.of(edgeValues),
+				roots, inDegrees, maxOut, maxIn, direct);
+	}
+
+	/** @return a buffer of 'size' ints, all 0, in native byte order if direct
+	 */
+	static IntBuffer allocate(int size, boolean direct) {
+		if (!direct)
+			return IntBuffer.allocate(size);
+		return ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+
+	/** @return true if the topology is stored outside of the java heap
+	 */
+	public boolean isOffHeap() {
+		return offsets.isDirect();
+	}
+
+	/** Returns the dense index of the vertex identified by the key, or a
+	 * negative value if the key does not exist. The cost is O(log n).
+	 */
+	public int indexOf(VERTEX_KEY key) {
+		int low = 0;
+		int high = keys.size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = keys.get(mid).compareTo(key);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/** @see KeyValueGraph#existsNode
+	 */
+	public boolean existsNode(VERTEX_KEY key) {
+		return indexOf(key) >= 0;
+	}
+
+	public CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> getVertex(VERTEX_KEY key) {
+		int index = indexOf(key);
+		return (index < 0) ? null : vertex(index);
+	}
+
+	/** Finds the vertex by its key.
+	 * @exception NodeNotFoundException if the key does not exist
+	 */
+	public CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> findVertexByKey(VERTEX_KEY key) throws NodeNotFoundException {
+		int index = indexOf(key);
+		if (index < 0)
+			throw new NodeNotFoundException(key.toString());
+		return vertex(index);
+	}
+
+	/** @return the vertex at 'index'. The same object is returned at each call.
+	 */
+	public CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex(int index) {
+		CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex = vertices.get(index);
+		if (vertex == null) {
+			vertices.compareAndSet(index, null, new CsrVertex<>(this, index));
+			vertex = vertices.get(index);
+		}
+		return vertex;
+	}
+
+	VisitEpoch visitEpoch() {
+		return visitEpoch;
+	}
+
+	public VERTEX_KEY key(int index) {
+		return keys.get(index);
+	}
+
+	public VERTEX_VALUE vertexValue(int index) {
+		return vertexValues.get(index);
+	}
+
+	/** @return the number of edges going out of the vertex at 'index'
+	 */
+	public int outDegree(int index) {
+		return offsets.get(index + 1) - offsets.get(index);
+	}
+
+	/** @return the number of edges arriving to the vertex at 'index'
+	 */
+	public int inDegree(int index) {
+		return inDegrees.get(index);
+	}
+
+	/** @return the position of the first outgoing edge of the vertex at 'index'.
+	 * The outgoing edges are at [firstEdge(index) .. firstEdge(index + 1)[
+	 */
+	public int firstEdge(int index) {
+		return offsets.get(index);
+	}
+
+	/** @return the index of the destination vertex of the edge at 'edgeIndex'
+	 */
+	public int target(int edgeIndex) {
+		return targets.get(edgeIndex);
+	}
+
+	/** @return the index of the originating vertex of the edge at 'edgeIndex'.
+	 * The cost is O(log n).
+	 */
+	public int source(int edgeIndex) {
+		int low = 0;
+		int high = keys.size() - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (offsets.get(mid) <= edgeIndex) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	public EDGE_VALUE edgeValue(int edgeIndex) {
+		return edgeValues.get(edgeIndex);
+	}
+
+	public CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge(int edgeIndex) {
+		return new CsrEdge<>(this, edgeIndex);
+	}
+
+	@Override
+	public int getMaxOutDegree() {
+		return maxOutDegree;
+	}
+
+	@Override
+	public int getMaxInDegree() {
+		return maxInDegree;
+	}
+
+	@Override
+	public int getNodeCount() {
+		return keys.size();
+	}
+
+	@Override
+	public int getLinkCount() {
+		return targets.limit();
+	}
+
+	/** Vertices are read by index, so the stream splits like an index range.
+	 */
+	@Override
+	public Stream<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> vertexStream() {
+		return IntStream.range(0, getNodeCount()).mapToObj(this::vertex);
+	}
+
+	@Override
+	public Stream<CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> edgeStream() {
+		return IntStream.range(0, getLinkCount()).mapToObj(this::edge);
+	}
+
+	/** Vertex ids are the dense indexes.
+	 */
+	@Override
+	public int maxVertexId() {
+		return keys.size();
+	}
+
+	/** Edge ids are the positions in the 'targets' buffer.
+	 */
+	@Override
+	public int maxEdgeId() {
+		return targets.limit();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return keys.size() == 0;
+	}
+
+	@Override
+	public boolean isRootVertex(CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex) {
+		return isRoot(vertex.getIndex());
+	}
+
+	/** @return true if the vertex at 'index' is an entry point of the graph.
+	 * The cost is O(log r), r being the number of roots.
+	 */
+	public boolean isRoot(int index) {
+		int low = 0;
+		int high = roots.limit() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int root = roots.get(mid);
+			if (root < index) {
+				low = mid + 1;
+			} else if (root > index) {
+				high = mid - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Collection<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> getRoots() {
+		List<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> result = new ArrayList<>(roots.limit());
+		for (int i = 0; i < roots.limit(); i++) {
+			result.add(vertex(roots.get(i)));
+		}
+		return result;
+	}
+
+	/** For VertexType.ANY, the result is a read-only view: vertices are only
+	 * created when they are read.
+	 */
+	@Override
+	public Collection<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> getVertices(VertexType type) {
+		if (type == VertexType.ANY)
+			return new AllVertices();
+		List<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> result = new ArrayList<>();
+		for (int i = 0; i < keys.size(); i++) {
+			CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex = vertex(i);
+			if (type == getVertexType(vertex))
+				result.add(vertex);
+		}
+		return result;
+	}
+
+	/** Only the vertices read so far can have been visited.
+	 */
+	@Override
+	public void clearAllVisitCounts() {
+		if (visitEpoch.advance())
+			return;
+		for (int i = 0; i < vertices.length(); i++) {
+			CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex = vertices.get(i);
+			if (vertex != null)
+				vertex.clearVisitsCount();
+		}
+	}
+
+	@Override
+	public Collection<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> getPredecessorVertices(
+			CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex) {
+		buildReverseAdjacency();
+		IntBuffer inOffsets = this.inOffsets;
+		IntBuffer inSources = this.inSources;
+		int index = vertex.getIndex();
+		List<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> result = new ArrayList<>(inDegree(index));
+		for (int pos = inOffsets.get(index); pos < inOffsets.get(index + 1); pos++) {
+			result.add(vertex(inSources.get(pos)));
+		}
+		return result;
+	}
+
+	@Override
+	public CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> getPredecessorVertex(
+			CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> destVertex, CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge) {
+		if (edge.getIndex() >= getLinkCount() || target(edge.getIndex()) != destVertex.getIndex())
+			return null;
+		return vertex(source(edge.getIndex()));
+	}
+
+	@Override
+	public Collection<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> getSuccessorVertices(
+			CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex) {
+		int index = vertex.getIndex();
+		List<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> result = new ArrayList<>(outDegree(index));
+		for (int pos = firstEdge(index); pos < firstEdge(index + 1); pos++) {
+			result.add(vertex(target(pos)));
+		}
+		return result;
+	}
+
+	@Override
+	public BreadthFirstIterator<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> breadthFirstIterator(
+			int maxCycle) throws NodeNotFoundException {
+		return new BreadthFirstIterator<>(this, maxCycle);
+	}
+
+	@Override
+	public DepthFirstIterator<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> depthFirstIterator(
+			Collection<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> startVertices, int maxCycling) throws GraphException {
+		return new DepthFirstIterator<>(startVertices, maxCycling);
+	}
+
+	/** A frozen graph cannot be modified.
+	 */
+	@Override
+	public CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> addRootVertex(CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex,
+			boolean isRoot) {
+		throw new UnsupportedOperationException("CsrGraph is immutable");
+	}
+
+	@Override
+	public VertexType getVertexType(CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex) {
+		boolean isEnd = outDegree(vertex.getIndex()) == 0;
+		if (isRoot(vertex.getIndex())) {
+			return isEnd ? VertexType.STARTEND : VertexType.START;
+		} else {
+			return isEnd ? VertexType.END : VertexType.NONE;
+		}
+	}
+
+	/** Counting sort of the edges by destination vertex. The reverse adjacency
+	 * is stored the same way as the forward one, on or off heap.
+	 */
+	private void buildReverseAdjacency() {
+		if (inSources != null)
+			return;
+		synchronized (this) {
+			if (inSources != null)
+				return;
+			int n = keys.size();
+			IntBuffer rOffsets = allocate(n + 1, direct);
+			for (int i = 0; i < n; i++) {
+				rOffsets.put(i + 1, rOffsets.get(i) + inDegrees.get(i));
+			}
+			int[] fill = new int[n];
+			for (int i = 0; i < n; i++) {
+				fill[i] = rOffsets.get(i);
+			}
+			IntBuffer rSources = allocate(getLinkCount(), direct);
+			for (int i = 0; i < n; i++) {
+				for (int pos = offsets.get(i); pos < offsets.get(i + 1); pos++) {
+					rSources.put(fill[targets.get(pos)]++, i);
+				}
+			}
+			inOffsets = rOffsets;
+			inSources = rSources;
+		}
+	}
+
+	/** All the vertices, in index order.
+	 */
+	private class AllVertices extends AbstractList<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> implements RandomAccess {
+
+		@Override
+		public CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> get(int index) {
+			if (index < 0 || index >= keys.size())
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + keys.size());
+			return vertex(index);
+		}
+
+		@Override
+		public int size() {
+			return keys.size();
+		}
+	}
+}
@@ -0,0 +1,304 @@
+package net.sf.yogl.adjacent.csr;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntFunction;
+
+import net.sf.yogl.exceptions.GraphCorruptedException;
+import net.sf.yogl.impl.ValueCodec;
+
+/**
+ * Stores a CsrGraph in a file that can be opened again without parsing it:
+ * open maps the file in memory and the graph reads its topology, keys and
+ * values directly from the mapped pages, loaded by the system on first use.
+ *
+ * Layout of the file, all integers in little-endian order:
+ * <pre>
+ * header           magic, version, n, m, root count, max out degree,
+ *                  max in degree, flags (int), then the byte length of
+ *                  the key, vertex value and edge value data (long)
+ * offsets          n + 1 int
+ * targets          m int
+ * in degrees       n int
+ * roots            root count int, sorted
+ * keys             data bytes padded to 4, then n int end positions
+ * vertex values    same as keys, if flags contains VERTEX_VALUES
+ * edge values      m entries, same as keys, if flags contains EDGE_VALUES
+ * </pre>
+ * A negative end position -(end + 1) marks a null value.
+ */
+public class CsrGraphFile {
+
+	private static final int MAGIC = 0x4C474F59;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 8 * Integer.BYTES + 3 * Long.BYTES;
+
+	private static final int VERTEX_VALUES = 1;
+
+	private static final int EDGE_VALUES = 2;
+
+	private CsrGraphFile() {
+	}
+
+	/** Writes the graph to 'path', replacing any existing file.
+	 * @param vertexValueCodec null if vertex values must not be stored
+	 * @param edgeValueCodec null if edge values must not be stored
+	 */
+	public static <K extends Comparable<K>, VV, EV> void write(CsrGraph<K, VV, EV> graph, Path path,
+			ValueCodec<K> keyCodec, ValueCodec<VV> vertexValueCodec, ValueCodec<EV> edgeValueCodec) throws IOException {
+		int n = graph.getNodeCount();
+		int m = graph.getLinkCount();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			Output out = new Output(channel, HEADER_SIZE);
+			for (int i = 0; i <= n; i++) {
+				out.putInt(graph.firstEdge(i));
+			}
+			for (int pos = 0; pos < m; pos++) {
+				out.putInt(graph.target(pos));
+			}
+			int rootCount = 0;
+			for (int i = 0; i < n; i++) {
+				out.putInt(graph.inDegree(i));
+				if (graph.isRoot(i))
+					rootCount++;
+			}
+			for (int i = 0; i < n; i++) {
+				if (graph.isRoot(i))
+					out.putInt(i);
+			}
+			long keyLength = out.putValues(n, graph::key, keyCodec);
+			long vertexValueLength = 0;
+			long edgeValueLength = 0;
+			int flags = 0;
+			if (vertexValueCodec != null) {
+				vertexValueLength = out.putValues(n, graph::vertexValue, vertexValueCodec);
+				flags |= VERTEX_VALUES;
+			}
+			if (edgeValueCodec != null) {
+				edgeValueLength = out.putValues(m, graph::edgeValue, edgeValueCodec);
+				flags |= EDGE_VALUES;
+			}
+			out.flush();
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m).putInt(rootCount)
+				.putInt(graph.getMaxOutDegree()).putInt(graph.getMaxInDegree()).putInt(flags)
+				.putLong(keyLength).putLong(vertexValueLength).putLong(edgeValueLength);
+			header.flip();
+			while (header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+		}
+	}
+
+	/** Maps the file in memory. The cost does not depend on the size of the
+	 * graph. The file must not be modified while the graph is in use.
+	 * @param vertexValueCodec null if vertex values must not be read
+	 * @param edgeValueCodec null if edge values must not be read
+	 * @exception GraphCorruptedException if the file is not a graph file
+	 *            or is truncated
+	 */
+	public static <K extends Comparable<K>, VV, EV> CsrGraph<K, VV, EV> open(Path path, ValueCodec<K> keyCodec,
+			ValueCodec<VV> vertexValueCodec, ValueCodec<EV> edgeValueCodec) throws IOException, GraphCorruptedException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_SIZE)
+				throw new GraphCorruptedException(path + " is not a graph file");
+			ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			if (header.getInt() != MAGIC)
+				throw new GraphCorruptedException(path + " is not a graph file");
+			int version = header.getInt();
+			if (version != VERSION)
+				throw new GraphCorruptedException("Unsupported graph file version:" + version);
+			int n = header.getInt();
+			int m = header.getInt();
+			int rootCount = header.getInt();
+			int maxOut = header.getInt();
+			int maxIn = header.getInt();
+			int flags = header.getInt();
+			long keyLength = header.getLong();
+			long vertexValueLength = header.getLong();
+			long edgeValueLength = header.getLong();
+
+			long expected = HEADER_SIZE + 4L * (n + 1 + m + n + rootCount) + valuesSize(n, keyLength)
+				+ (((flags & VERTEX_VALUES) != 0) ? valuesSize(n, vertexValueLength) : 0)
+				+ (((flags & EDGE_VALUES) != 0) ? valuesSize(m, edgeValueLength) : 0);
+			if (channel.size() != expected)
+				throw new GraphCorruptedException(path + " is truncated or corrupted");
+
+			Input in = new Input(channel, HEADER_SIZE);
+			IntBuffer offsets = in.ints(n + 1);
+			IntBuffer targets = in.ints(m);
+			IntBuffer inDegrees = in.ints(n);
+			IntBuffer roots = in.ints(rootCount);
+			IndexedValues<K> keys = in.values(n, keyLength, keyCodec);
+			IndexedValues<VV> vertexValues = IndexedValues.empty(n);
+			if ((flags & VERTEX_VALUES) != 0) {
+				IndexedValues<VV> values = in.values(n, vertexValueLength, vertexValueCodec);
+				if (vertexValueCodec != null)
+					vertexValues = values;
+			}
+			IndexedValues<EV> edgeValues = IndexedValues.empty(m);
+			if ((flags & EDGE_VALUES) != 0) {
+				IndexedValues<EV> values = in.values(m, edgeValueLength, edgeValueCodec);
+				if (edgeValueCodec != null)
+					edgeValues = values;
+			}
+			return new CsrGraph<>(keys, vertexValues, offsets, targets, edgeValues, roots, inDegrees,
+					maxOut, maxIn, true);
+		}
+	}
+
+	/** @return the size in the file of 'count' values holding 'length' bytes
+	 */
+	private static long valuesSize(int count, long length) {
+		return padded(length) + 4L * count;
+	}
+
+	private static long padded(long length) {
+		return (length + 3) & ~3L;
+	}
+
+	/** Buffered sequential writes to the file, starting at a given position.
+	 */
+	private static class Output {
+
+		private final FileChannel channel;
+
+		private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+		private long position;
+
+		Output(FileChannel channel, long position) {
+			this.channel = channel;
+			this.position = position;
+		}
+
+		void putInt(int value) throws IOException {
+			if (buffer.remaining() < Integer.BYTES)
+				flush();
+			buffer.putInt(value);
+		}
+
+		void putBytes(byte[] bytes) throws IOException {
+			int done = 0;
+			while (done < bytes.length) {
+				if (!buffer.hasRemaining())
+					flush();
+				int length = Math.min(buffer.remaining(), bytes.length - done);
+				buffer.put(bytes, done, length);
+				done += length;
+			}
+		}
+
+		/** Writes the values, then their end positions.
+		 * @return the number of data bytes, padding excluded
+		 */
+		<T> long putValues(int count, IntFunction<T> valueAt, ValueCodec<T> codec) throws IOException {
+			int[] ends = new int[count];
+			long length = 0;
+			for (int i = 0; i < count; i++) {
+				T value = valueAt.apply(i);
+				if (value == null) {
+					ends[i] = (int) -(length + 1);
+					continue;
+				}
+				byte[] bytes = codec.encode(value);
+				putBytes(bytes);
+				length += bytes.length;
+				if (length > Integer.MAX_VALUE)
+					throw new IOException("Values exceed " + Integer.MAX_VALUE + " bytes");
+				ends[i] = (int) length;
+			}
+			for (long pad = length; pad < padded(length); pad++) {
+				putBytes(new byte[1]);
+			}
+			for (int end : ends) {
+				putInt(end);
+			}
+			return length;
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				position += channel.write(buffer, position);
+			}
+			buffer.clear();
+		}
+	}
+
+	/** Maps the consecutive sections of the file.
+	 */
+	private static class Input {
+
+		private final FileChannel channel;
+
+		private long position;
+
+		Input(FileChannel channel, long position) {
+			this.channel = channel;
+			this.position = position;
+		}
+
+		IntBuffer ints(int count) throws IOException {
+			return map(4L * count).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		}
+
+		<T> IndexedValues<T> values(int count, long length, ValueCodec<T> codec) throws IOException {
+			ByteBuffer data = map(padded(length));
+			IntBuffer ends = ints(count);
+			return new MappedValues<>(data, ends, codec);
+		}
+
+		private ByteBuffer map(long size) throws IOException {
+			ByteBuffer section = channel.map(MapMode.READ_ONLY, position, size);
+			position += size;
+			return section;
+		}
+	}
+
+	/** Values decoded at each read from a mapped section.
+	 */
+	private static class MappedValues<T> implements IndexedValues<T> {
+
+		private final ByteBuffer data;
+
+		private final IntBuffer ends;
+
+		private final ValueCodec<T> codec;
+
+		MappedValues(ByteBuffer data, IntBuffer ends, ValueCodec<T> codec) {
+			this.data = data;
+			this.ends = ends;
+			this.codec = codec;
+		}
+
+		@Override
+		public T get(int index) {
+			int end = ends.get(index);
+			if (end < 0)
+				return null;
+			int start = (index == 0) ? 0 : ends.get(index - 1);
+			if (start < 0)
+				start = -(start + 1);
+			ByteBuffer value = data.duplicate();
+			value.limit(end);
+			value.position(start);
+			return codec.decode(value);
+		}
+
+		@Override
+		public int size() {
+			return ends.limit();
+		}
+	}
+}
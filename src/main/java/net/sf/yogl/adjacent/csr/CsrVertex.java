@@ -0,0 +1,111 @@
+package net.sf.yogl.adjacent.csr;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import net.sf.yogl.Vertex;
+
+/**
+ * Vertex of a CsrGraph. The vertex does not hold any adjacency data: it only
+ * knows its dense index in the owning graph. Outgoing edges are read from the
+ * graph arrays each time they are requested.
+ * There is exactly one CsrVertex object per vertex of the graph, so the visit
+ * counters used by the iterators are preserved between calls.
+ */
+public class CsrVertex <VERTEX_KEY extends Comparable<VERTEX_KEY>, VERTEX_VALUE, EDGE_VALUE>
+	extends Vertex<CsrVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> {
+
+	private final CsrGraph<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> graph;
+
+	/** dense index of the vertex in the graph arrays
+	 */
+	private final int index;
+
+	CsrVertex(CsrGraph<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> graph, int index) {
+		super();
+		this.graph = graph;
+		this.index = index;
+		setId(index);
+		setVisitEpoch(graph.visitEpoch());
+	}
+
+	/** getter method
+	 * @return the dense index of this vertex, in [0 .. graph.getNodeCount()[
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	public VERTEX_KEY getKey() {
+		return graph.key(index);
+	}
+
+	public VERTEX_VALUE getUserValue() {
+		return graph.vertexValue(index);
+	}
+
+	/** returns the number of edges going out from 'this'
+	 */
+	public int getCountEdges() {
+		return graph.outDegree(index);
+	}
+
+	/** The returned list is a read-only view on the graph arrays. Edges are
+	 * created when they are read from the list.
+	 */
+	@Override
+	public List<CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> getOutgoingEdges() {
+		return new OutgoingEdges();
+	}
+
+	@Override
+	public int edgeCount() {
+		return graph.outDegree(index);
+	}
+
+	/** Reads the edge without creating the list view.
+	 */
+	@Override
+	public CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edgeAt(int i) {
+		int size = graph.outDegree(index);
+		if (i < 0 || i >= size)
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+		return graph.edge(graph.firstEdge(index) + i);
+	}
+
+	@Override
+	public boolean hasIndexedEdges() {
+		return true;
+	}
+
+	/** A frozen graph cannot be modified.
+	 */
+	@Override
+	public void tryAddEdge(CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge) {
+		throw new UnsupportedOperationException("CsrGraph is immutable");
+	}
+
+	public String toString() {
+		return "index(" + index + ")key(" + getKey() + ")";
+	}
+
+	private class OutgoingEdges extends AbstractList<CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> implements RandomAccess {
+
+		private final int first = graph.firstEdge(index);
+
+		private final int size = graph.outDegree(index);
+
+		@Override
+		public CsrEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> get(int i) {
+			if (i < 0 || i >= size)
+				throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+			return graph.edge(first + i);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
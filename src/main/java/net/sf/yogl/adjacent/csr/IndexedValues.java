@@ -0,0 +1,49 @@
+package net.sf.yogl.adjacent.csr;
+
+/**
+ * Read-only sequence of values accessed by their dense index. CsrGraph reads
+ * its keys and user values through this interface, so that they can be held
+ * in a plain array or decoded on demand from a buffer.
+ */
+interface IndexedValues<T> {
+
+	public T get(int index);
+
+	public int size();
+
+	/** Values kept in a heap array.
+	 */
+	public static <T> IndexedValues<T> of(T[] values) {
+		return new IndexedValues<T>() {
+
+			@Override
+			public T get(int index) {
+				return values[index];
+			}
+
+			@Override
+			public int size() {
+				return values.length;
+			}
+		};
+	}
+
+	/** 'size' values, all null. Used when a graph has no user values.
+	 */
+	public static <T> IndexedValues<T> empty(int size) {
+		return new IndexedValues<T>() {
+
+			@Override
+			public T get(int index) {
+				if (index < 0 || index >= size)
+					throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+				return null;
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+}
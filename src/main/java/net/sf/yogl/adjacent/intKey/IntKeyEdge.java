@@ -0,0 +1,53 @@
+package net.sf.yogl.adjacent.intKey;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.exceptions.NodeNotFoundException;
+
+/**
+ * Edge of an IntKeyGraph. The graph stores edges as primitive arrays: an
+ * IntKeyEdge is only a handle on a (from, to) pair. Two edges connecting the
+ * same vertices are equal.
+ */
+public class IntKeyEdge extends Edge<IntKeyEdge, IntKeyVertex> {
+
+	/** originating vertex. Is null for an edge that has not been read from
+	 * the graph.
+	 */
+	private final IntKeyVertex fromVertex;
+
+	/** Creates an edge to be inserted in the graph with IntKeyVertex.tryAddEdge
+	 * @param toVertex destination of the edge
+	 */
+	public IntKeyEdge(IntKeyVertex toVertex) throws NodeNotFoundException {
+		super(toVertex);
+		this.fromVertex = null;
+	}
+
+	IntKeyEdge(IntKeyVertex fromVertex, IntKeyVertex toVertex) {
+		super();
+		super.setToVertex(toVertex);
+		this.fromVertex = fromVertex;
+	}
+
+	public IntKeyVertex getFromVertex() {
+		return fromVertex;
+	}
+
+	@Override
+	public boolean equals(Object anotherObject) {
+		if (!(anotherObject instanceof IntKeyEdge))
+			return false;
+		IntKeyEdge edge = (IntKeyEdge) anotherObject;
+		return (fromVertex == null ? edge.fromVertex == null : fromVertex.equals(edge.fromVertex))
+				&& getToVertex().equals(edge.getToVertex());
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * ((fromVertex == null) ? 0 : fromVertex.hashCode()) + getToVertex().hashCode();
+	}
+
+	public String toString() {
+		return "from(" + fromVertex + ")to(" + getToVertex() + ")";
+	}
+}
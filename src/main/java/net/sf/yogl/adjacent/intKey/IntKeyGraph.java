@@ -0,0 +1,587 @@
+package net.sf.yogl.adjacent.intKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import net.sf.yogl.Graph;
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.impl.DenseElements;
+import net.sf.yogl.impl.IdPool;
+import net.sf.yogl.impl.VisitEpoch;
+import net.sf.yogl.iterators.BreadthFirstIterator;
+import net.sf.yogl.iterators.DepthFirstIterator;
+import net.sf.yogl.types.VertexType;
+
+/**
+ * Graph whose vertices are identified by a primitive int key.
+ * Keys are mapped to a 'slot' by an open-addressing hash table (linear probing),
+ * and all per-vertex data is stored in arrays indexed by the slot: the
+ * successors and the predecessors of a vertex are int arrays of slots.
+ * Slots of removed vertices are recycled. The slot is also the id of the
+ * vertex.
+ *
+ * Two vertices can be linked by maximum one edge in each direction.
+ * The methods forEachSuccessor and forEachPredecessor browse the adjacency
+ * without any allocation nor boxing.
+ */
+public class IntKeyGraph implements Graph<IntKeyVertex, IntKeyEdge> {
+
+	private static final int FREE = -1;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** hash table: key -> slot. tableSlots[i] == FREE means an empty entry.
+	 */
+	private int[] tableKeys;
+
+	private int[] tableSlots;
+
+	private int[] keys = new int[INITIAL_CAPACITY];
+
+	private IntKeyVertex[] vertices = new IntKeyVertex[INITIAL_CAPACITY];
+
+	private int[][] successors = new int[INITIAL_CAPACITY][];
+
+	private int[] outDegrees = new int[INITIAL_CAPACITY];
+
+	/** successorEdges[slot][i] is the id of the edge stored at successors[slot][i]
+	 */
+	private int[][] successorEdges = new int[INITIAL_CAPACITY][];
+
+	private final IdPool edgeIds = new IdPool();
+
+	/** traversal epoch of the vertices: clearAllVisitCounts only moves to
+	 * the next epoch.
+	 */
+	private final VisitEpoch visitEpoch = new VisitEpoch();
+
+	/** vertices packed in an array, for vertexStream
+	 */
+	private final DenseElements<IntKeyVertex> vertexElements = new DenseElements<>();
+
+	private int[][] predecessors = new int[INITIAL_CAPACITY][];
+
+	private int[] inDegrees = new int[INITIAL_CAPACITY];
+
+	private BitSet roots = new BitSet();
+
+	/** slots released by removed vertices
+	 */
+	private int[] freeSlots = new int[INITIAL_CAPACITY];
+
+	private int freeSlotCount = 0;
+
+	/** number of slots used so far, including the released ones
+	 */
+	private int slotCount = 0;
+
+	private int numberOfVertices = 0;
+
+	private int numberOfEdges = 0;
+
+	/** basic ctor, no default value
+	 */
+	public IntKeyGraph() {
+		allocateTable(INITIAL_CAPACITY * 2);
+	}
+
+	/** Inserts a new vertex. If a vertex with the same key already exists,
+	 * the graph is not modified.
+	 * @return the vertex identified by the key
+	 */
+	public IntKeyVertex addVertex(int key, boolean isRoot) {
+		int slot = slotOf(key);
+		if (slot != FREE)
+			return vertices[slot];
+		slot = allocateSlot();
+		keys[slot] = key;
+		vertices[slot] = new IntKeyVertex(this, key);
+		vertices[slot].setId(slot);
+		vertices[slot].setVisitEpoch(visitEpoch);
+		vertexElements.add(vertices[slot], slot);
+		successors[slot] = new int[0];
+		successorEdges[slot] = new int[0];
+		predecessors[slot] = new int[0];
+		outDegrees[slot] = 0;
+		inDegrees[slot] = 0;
+		roots.set(slot, isRoot);
+		putInTable(key, slot);
+		numberOfVertices++;
+		return vertices[slot];
+	}
+
+	@Override
+	public IntKeyVertex addRootVertex(IntKeyVertex vertex, boolean isRoot) {
+		return addVertex(vertex.getKey(), isRoot);
+	}
+
+	/** Removes the vertex and all edges arriving to or leaving the vertex.
+	 * @exception NodeNotFoundException if the key does not exist
+	 */
+	public void removeVertex(int key) throws NodeNotFoundException {
+		int slot = findSlot(key);
+		for (int i = outDegrees[slot] - 1; i >= 0; i--) {
+			int target = successors[slot][i];
+			inDegrees[target] = removeValue(predecessors[target], inDegrees[target], slot);
+			edgeIds.release(successorEdges[slot][i]);
+		}
+		for (int i = inDegrees[slot] - 1; i >= 0; i--) {
+			removeSuccessor(predecessors[slot][i], slot);
+		}
+		// a loop on the vertex is still counted in outDegrees but not in inDegrees
+		numberOfEdges -= outDegrees[slot] + inDegrees[slot];
+		vertexElements.remove(slot);
+		vertices[slot].setId(-1);
+		vertices[slot] = null;
+		successors[slot] = null;
+		successorEdges[slot] = null;
+		predecessors[slot] = null;
+		// free slots are scanned by getMaxOutDegree and getMaxInDegree
+		outDegrees[slot] = 0;
+		inDegrees[slot] = 0;
+		roots.clear(slot);
+		removeFromTable(key);
+		releaseSlot(slot);
+		numberOfVertices--;
+	}
+
+	/** Inserts a new edge between the two vertices.
+	 * @return false if the edge already exists
+	 * @exception NodeNotFoundException if one of the vertices does not exist
+	 */
+	public boolean addEdge(int fromKey, int toKey) throws NodeNotFoundException {
+		return insertEdge(findSlot(fromKey), findSlot(toKey));
+	}
+
+	/** Removes the edge between the two vertices.
+	 * @return false if there was no such edge
+	 * @exception NodeNotFoundException if one of the vertices does not exist
+	 */
+	public boolean removeEdge(int fromKey, int toKey) throws NodeNotFoundException {
+		int from = findSlot(fromKey);
+		int to = findSlot(toKey);
+		if (!containsValue(successors[from], outDegrees[from], to))
+			return false;
+		removeSuccessor(from, to);
+		inDegrees[to] = removeValue(predecessors[to], inDegrees[to], from);
+		numberOfEdges--;
+		return true;
+	}
+
+	public boolean existsNode(int key) {
+		return slotOf(key) != FREE;
+	}
+
+	public boolean existsEdge(int fromKey, int toKey) {
+		int from = slotOf(fromKey);
+		int to = slotOf(toKey);
+		return from != FREE && to != FREE && containsValue(successors[from], outDegrees[from], to);
+	}
+
+	/** @return the vertex identified by the key, or null if the key does not exist
+	 */
+	public IntKeyVertex getVertex(int key) {
+		int slot = slotOf(key);
+		return (slot == FREE) ? null : vertices[slot];
+	}
+
+	/** @return the number of edges going out of the vertex
+	 * @exception NodeNotFoundException if the key does not exist
+	 */
+	public int outDegree(int key) throws NodeNotFoundException {
+		return outDegrees[findSlot(key)];
+	}
+
+	/** @return the number of edges arriving to the vertex
+	 * @exception NodeNotFoundException if the key does not exist
+	 */
+	public int inDegree(int key) throws NodeNotFoundException {
+		return inDegrees[findSlot(key)];
+	}
+
+	/** Calls 'action' with the key of each successor of the vertex.
+	 * The graph must not be modified by the action.
+	 * @exception NodeNotFoundException if the key does not exist
+	 */
+	public void forEachSuccessor(int key, IntConsumer action) throws NodeNotFoundException {
+		int slot = findSlot(key);
+		int[] targets = successors[slot];
+		for (int i = 0, n = outDegrees[slot]; i < n; i++) {
+			action.accept(keys[targets[i]]);
+		}
+	}
+
+	/** Calls 'action' with the key of each predecessor of the vertex.
+	 * The graph must not be modified by the action.
+	 * @exception NodeNotFoundException if the key does not exist
+	 */
+	public void forEachPredecessor(int key, IntConsumer action) throws NodeNotFoundException {
+		int slot = findSlot(key);
+		int[] sources = predecessors[slot];
+		for (int i = 0, n = inDegrees[slot]; i < n; i++) {
+			action.accept(keys[sources[i]]);
+		}
+	}
+
+	/** @return a copy of the keys of all successors of the vertex
+	 * @exception NodeNotFoundException if the key does not exist
+	 */
+	public int[] successorKeys(int key) throws NodeNotFoundException {
+		int slot = findSlot(key);
+		int[] result = new int[outDegrees[slot]];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = keys[successors[slot][i]];
+		}
+		return result;
+	}
+
+	/** @return a copy of the keys of all predecessors of the vertex
+	 * @exception NodeNotFoundException if the key does not exist
+	 */
+	public int[] predecessorKeys(int key) throws NodeNotFoundException {
+		int slot = findSlot(key);
+		int[] result = new int[inDegrees[slot]];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = keys[predecessors[slot][i]];
+		}
+		return result;
+	}
+
+	@Override
+	public int getMaxOutDegree() {
+		int max = 0;
+		for (int slot = 0; slot < slotCount; slot++) {
+			max = Math.max(max, outDegrees[slot]);
+		}
+		return max;
+	}
+
+	@Override
+	public int getMaxInDegree() {
+		int max = 0;
+		for (int slot = 0; slot < slotCount; slot++) {
+			max = Math.max(max, inDegrees[slot]);
+		}
+		return max;
+	}
+
+	@Override
+	public int getNodeCount() {
+		return numberOfVertices;
+	}
+
+	@Override
+	public int getLinkCount() {
+		return numberOfEdges;
+	}
+
+	@Override
+	public int maxVertexId() {
+		return slotCount;
+	}
+
+	@Override
+	public int maxEdgeId() {
+		return edgeIds.maxId();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return numberOfVertices == 0;
+	}
+
+	@Override
+	public boolean isRootVertex(IntKeyVertex vertex) {
+		int slot = slotOf(vertex.getKey());
+		return slot != FREE && roots.get(slot);
+	}
+
+	@Override
+	public Collection<IntKeyVertex> getRoots() {
+		List<IntKeyVertex> result = new ArrayList<>();
+		for (int slot = roots.nextSetBit(0); slot >= 0; slot = roots.nextSetBit(slot + 1)) {
+			result.add(vertices[slot]);
+		}
+		return result;
+	}
+
+	@Override
+	public Collection<IntKeyVertex> getVertices(VertexType type) {
+		List<IntKeyVertex> result = new ArrayList<>(numberOfVertices);
+		for (int slot = 0; slot < slotCount; slot++) {
+			IntKeyVertex vertex = vertices[slot];
+			if (vertex != null && (type == VertexType.ANY || type == getVertexType(vertex))) {
+				result.add(vertex);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void clearAllVisitCounts() {
+		if (visitEpoch.advance())
+			return;
+		for (int slot = 0; slot < slotCount; slot++) {
+			if (vertices[slot] != null)
+				vertices[slot].clearVisitsCount();
+		}
+	}
+
+	@Override
+	public Stream<IntKeyVertex> vertexStream() {
+		return StreamSupport.stream(vertexElements.spliterator(), false);
+	}
+
+	/** Edges are created when they are read, from the vertex stream: the
+	 * stream is not SIZED.
+	 */
+	@Override
+	public Stream<IntKeyEdge> edgeStream() {
+		return vertexStream().flatMap(vertex -> vertex.getOutgoingEdges().stream());
+	}
+
+	@Override
+	public Collection<IntKeyVertex> getPredecessorVertices(IntKeyVertex vertex) {
+		int slot = slotOf(vertex.getKey());
+		List<IntKeyVertex> result = new ArrayList<>();
+		if (slot != FREE) {
+			for (int i = 0; i < inDegrees[slot]; i++) {
+				result.add(vertices[predecessors[slot][i]]);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public IntKeyVertex getPredecessorVertex(IntKeyVertex destVertex, IntKeyEdge edge) {
+		IntKeyVertex fromVertex = edge.getFromVertex();
+		if (fromVertex == null || !destVertex.equals(edge.getToVertex())
+				|| !existsEdge(fromVertex.getKey(), destVertex.getKey()))
+			return null;
+		return getVertex(fromVertex.getKey());
+	}
+
+	@Override
+	public Collection<IntKeyVertex> getSuccessorVertices(IntKeyVertex vertex) {
+		int slot = slotOf(vertex.getKey());
+		List<IntKeyVertex> result = new ArrayList<>();
+		if (slot != FREE) {
+			for (int i = 0; i < outDegrees[slot]; i++) {
+				result.add(vertices[successors[slot][i]]);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public BreadthFirstIterator<IntKeyVertex, IntKeyEdge> breadthFirstIterator(int maxCycle) throws NodeNotFoundException {
+		return new BreadthFirstIterator<>(this, maxCycle);
+	}
+
+	@Override
+	public DepthFirstIterator<IntKeyVertex, IntKeyEdge> depthFirstIterator(Collection<IntKeyVertex> startVertices,
+			int maxCycling) throws GraphException {
+		return new DepthFirstIterator<>(startVertices, maxCycling);
+	}
+
+	@Override
+	public VertexType getVertexType(IntKeyVertex vertex) {
+		int slot = slotOf(vertex.getKey());
+		boolean isEnd = (slot == FREE) || outDegrees[slot] == 0;
+		if (slot != FREE && roots.get(slot)) {
+			return isEnd ? VertexType.STARTEND : VertexType.START;
+		} else {
+			return isEnd ? VertexType.END : VertexType.NONE;
+		}
+	}
+
+	/** Used by IntKeyVertex.tryAddEdge: the edge is silently ignored if one
+	 * of the vertices is not in the graph.
+	 */
+	boolean tryAddEdge(int fromKey, int toKey) {
+		int from = slotOf(fromKey);
+		int to = slotOf(toKey);
+		return from != FREE && to != FREE && insertEdge(from, to);
+	}
+
+	/** Used by the vertex views. The key must exist.
+	 */
+	int successorKey(int key, int position) {
+		int slot = slotOf(key);
+		return keys[successors[slot][position]];
+	}
+
+	/** Used by the vertex views. The key must exist.
+	 */
+	int successorEdgeId(int key, int position) {
+		int slot = slotOf(key);
+		return successorEdges[slot][position];
+	}
+
+	/** Same as outDegree, for the vertex views: returns 0 for a removed vertex.
+	 */
+	int countEdges(int key) {
+		int slot = slotOf(key);
+		return (slot == FREE) ? 0 : outDegrees[slot];
+	}
+
+	private boolean insertEdge(int from, int to) {
+		if (containsValue(successors[from], outDegrees[from], to))
+			return false;
+		int position = outDegrees[from]++;
+		successors[from] = appendValue(successors[from], position, to);
+		successorEdges[from] = appendValue(successorEdges[from], position, edgeIds.acquire());
+		predecessors[to] = appendValue(predecessors[to], inDegrees[to]++, from);
+		numberOfEdges++;
+		return true;
+	}
+
+	/** Removes the edge from 'from' to 'to' of the successors of 'from' and
+	 * releases its id. The predecessors of 'to' are not updated.
+	 */
+	private void removeSuccessor(int from, int to) {
+		int[] targets = successors[from];
+		for (int i = 0; i < outDegrees[from]; i++) {
+			if (targets[i] == to) {
+				edgeIds.release(successorEdges[from][i]);
+				int moved = outDegrees[from] - i - 1;
+				System.arraycopy(targets, i + 1, targets, i, moved);
+				System.arraycopy(successorEdges[from], i + 1, successorEdges[from], i, moved);
+				outDegrees[from]--;
+				return;
+			}
+		}
+	}
+
+	private int findSlot(int key) throws NodeNotFoundException {
+		int slot = slotOf(key);
+		if (slot == FREE)
+			throw new NodeNotFoundException(Integer.toString(key));
+		return slot;
+	}
+
+	private int allocateSlot() {
+		if (freeSlotCount > 0)
+			return freeSlots[--freeSlotCount];
+		if (slotCount == keys.length) {
+			int capacity = keys.length * 2;
+			keys = Arrays.copyOf(keys, capacity);
+			vertices = Arrays.copyOf(vertices, capacity);
+			successors = Arrays.copyOf(successors, capacity);
+			successorEdges = Arrays.copyOf(successorEdges, capacity);
+			outDegrees = Arrays.copyOf(outDegrees, capacity);
+			predecessors = Arrays.copyOf(predecessors, capacity);
+			inDegrees = Arrays.copyOf(inDegrees, capacity);
+		}
+		return slotCount++;
+	}
+
+	private void releaseSlot(int slot) {
+		if (freeSlotCount == freeSlots.length)
+			freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+		freeSlots[freeSlotCount++] = slot;
+	}
+
+	/* --- adjacency arrays --- */
+
+	private static boolean containsValue(int[] array, int size, int value) {
+		for (int i = 0; i < size; i++) {
+			if (array[i] == value)
+				return true;
+		}
+		return false;
+	}
+
+	private static int[] appendValue(int[] array, int size, int value) {
+		if (size == array.length)
+			array = Arrays.copyOf(array, Math.max(4, size * 2));
+		array[size] = value;
+		return array;
+	}
+
+	/** Removes the first occurrence of value, keeping the order of the others.
+	 * @return the new size
+	 */
+	private static int removeValue(int[] array, int size, int value) {
+		for (int i = 0; i < size; i++) {
+			if (array[i] == value) {
+				System.arraycopy(array, i + 1, array, i, size - i - 1);
+				return size - 1;
+			}
+		}
+		return size;
+	}
+
+	/* --- open addressing table --- */
+
+	private void allocateTable(int capacity) {
+		tableKeys = new int[capacity];
+		tableSlots = new int[capacity];
+		Arrays.fill(tableSlots, FREE);
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private int slotOf(int key) {
+		int mask = tableKeys.length - 1;
+		for (int i = hash(key) & mask; tableSlots[i] != FREE; i = (i + 1) & mask) {
+			if (tableKeys[i] == key)
+				return tableSlots[i];
+		}
+		return FREE;
+	}
+
+	private void putInTable(int key, int slot) {
+		if ((numberOfVertices + 1) * 2 > tableKeys.length) {
+			int[] oldKeys = tableKeys;
+			int[] oldSlots = tableSlots;
+			allocateTable(tableKeys.length * 2);
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldSlots[i] != FREE)
+					insertInTable(oldKeys[i], oldSlots[i]);
+			}
+		}
+		insertInTable(key, slot);
+	}
+
+	private void insertInTable(int key, int slot) {
+		int mask = tableKeys.length - 1;
+		int i = hash(key) & mask;
+		while (tableSlots[i] != FREE) {
+			i = (i + 1) & mask;
+		}
+		tableKeys[i] = key;
+		tableSlots[i] = slot;
+	}
+
+	/** Backward shift deletion: entries following the removed one are moved
+	 * back so that no probe sequence is broken.
+	 */
+	private void removeFromTable(int key) {
+		int mask = tableKeys.length - 1;
+		int i = hash(key) & mask;
+		while (tableKeys[i] != key || tableSlots[i] == FREE) {
+			i = (i + 1) & mask;
+		}
+		int hole = i;
+		for (int j = (hole + 1) & mask; tableSlots[j] != FREE; j = (j + 1) & mask) {
+			int home = hash(tableKeys[j]) & mask;
+			if (((j - home) & mask) >= ((j - hole) & mask)) {
+				tableKeys[hole] = tableKeys[j];
+				tableSlots[hole] = tableSlots[j];
+				hole = j;
+			}
+		}
+		tableSlots[hole] = FREE;
+	}
+}
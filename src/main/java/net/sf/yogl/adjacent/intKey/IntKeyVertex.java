@@ -0,0 +1,109 @@
+package net.sf.yogl.adjacent.intKey;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import net.sf.yogl.Vertex;
+
+/**
+ * Vertex of an IntKeyGraph. The vertex only knows its key and the graph it
+ * belongs to; the adjacency is stored in the graph as primitive arrays.
+ * Vertices are created by IntKeyGraph.addVertex.
+ */
+public class IntKeyVertex extends Vertex<IntKeyVertex, IntKeyEdge> {
+
+	private final IntKeyGraph graph;
+
+	private final int key;
+
+	IntKeyVertex(IntKeyGraph graph, int key) {
+		super();
+		this.graph = graph;
+		this.key = key;
+	}
+
+	public int getKey() {
+		return key;
+	}
+
+	/** returns the number of edges going out from 'this'
+	 */
+	public int getCountEdges() {
+		return graph.countEdges(key);
+	}
+
+	/** The returned list is a read-only view on the adjacency of the vertex.
+	 * Edges are created when they are read from the list.
+	 */
+	@Override
+	public List<IntKeyEdge> getOutgoingEdges() {
+		return new OutgoingEdges();
+	}
+
+	@Override
+	public int edgeCount() {
+		return graph.countEdges(key);
+	}
+
+	/** Reads the edge without creating the list view.
+	 */
+	@Override
+	public IntKeyEdge edgeAt(int index) {
+		int size = graph.countEdges(key);
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return createEdge(index);
+	}
+
+	@Override
+	public boolean hasIndexedEdges() {
+		return true;
+	}
+
+	/** Insert a new edge between 'this' vertex and the vertex pointed to by
+	 * the edge. The edge object itself is not kept by the graph.
+	 */
+	@Override
+	public void tryAddEdge(IntKeyEdge edge) {
+		if (edge != null && edge.getToVertex() != null && edge.getToVertex().graph == graph) {
+			graph.tryAddEdge(key, edge.getToVertex().getKey());
+		}
+	}
+
+	@Override
+	public boolean equals(Object anotherObject) {
+		if (!(anotherObject instanceof IntKeyVertex))
+			return false;
+		IntKeyVertex vertex = (IntKeyVertex) anotherObject;
+		return (vertex.graph == this.graph) && (vertex.key == this.key);
+	}
+
+	@Override
+	public int hashCode() {
+		return key;
+	}
+
+	public String toString() {
+		return "key(" + key + ")";
+	}
+
+	private IntKeyEdge createEdge(int position) {
+		IntKeyEdge edge = new IntKeyEdge(this, graph.getVertex(graph.successorKey(key, position)));
+		edge.setId(graph.successorEdgeId(key, position));
+		return edge;
+	}
+
+	private class OutgoingEdges extends AbstractList<IntKeyEdge> implements RandomAccess {
+
+		@Override
+		public IntKeyEdge get(int i) {
+			return createEdge(i);
+		}
+
+		@Override
+		public int size() {
+			return graph.countEdges(key);
+		}
+	}
+}
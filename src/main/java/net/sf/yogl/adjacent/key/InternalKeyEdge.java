@@ -7,6 +7,11 @@ public abstract class InternalKeyEdge<EDGE extends InternalKeyEdge<EDGE, VERTEX,
 		extends Edge<EDGE, VERTEX>{
 	
 	private EDGE_KEY key;
+
+	/** vertex holding this edge while it is in a graph. The graph is told
+	 * when the edge is redirected.
+	 */
+	VERTEX fromVertex = null;
 	
 	public InternalKeyEdge(){
 		super();
@@ -20,6 +25,18 @@ public abstract class InternalKeyEdge<EDGE extends InternalKeyEdge<EDGE, VERTEX,
 	public EDGE_KEY getKey() {
 		return key;
 	}
+
+	/** Points the edge to another vertex. The graph holding the edge, if
+	 * any, updates its incoming edges.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void setToVertex(VERTEX toVertex) {
+		VERTEX oldTarget = getToVertex();
+		super.setToVertex(toVertex);
+		if (fromVertex != null && fromVertex.graph != null && oldTarget != toVertex)
+			fromVertex.graph.edgeRedirected(fromVertex, (EDGE) this, oldTarget);
+	}
 	
 	public void cloneTo(InternalKeyEdge<EDGE, VERTEX, EDGE_KEY, VERTEX_KEY> copyToEdge){
 		super.cloneTo(copyToEdge);
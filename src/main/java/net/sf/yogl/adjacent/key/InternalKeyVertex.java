@@ -12,6 +12,11 @@ public abstract class InternalKeyVertex<VERTEX extends InternalKeyVertex<VERTEX,
 	
 	private HashMap<EDGE_KEY, EDGE> edges= new HashMap<>();
 
+	/** Graph the vertex has been inserted into. The graph is told about
+	 * each edge added to or removed from this vertex.
+	 */
+	UniqueElementsGraph<VERTEX, EDGE, VERTEX_KEY, EDGE_KEY> graph = null;
+
 	public InternalKeyVertex(){
 		super();
 	}
@@ -34,11 +39,22 @@ public abstract class InternalKeyVertex<VERTEX extends InternalKeyVertex<VERTEX,
 	public void tryAddEdge(EDGE edge) {
 		if (!edges.containsKey(edge.getKey())) {
 			edges.put(edge.getKey(), edge);
+			if (graph != null) {
+				graph.edgeAdded(self(), edge);
+			}
 		}
 	}
 	
 	public void removeEdge(EDGE edge){
-		edges.remove(edge.getKey());
+		EDGE removed = edges.remove(edge.getKey());
+		if (removed != null && graph != null) {
+			graph.edgeRemoved(self(), removed);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private VERTEX self() {
+		return (VERTEX) this;
 	}
 	
 	public VERTEX_KEY getKey() {
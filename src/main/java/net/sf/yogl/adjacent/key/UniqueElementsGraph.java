@@ -5,16 +5,23 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import net.sf.yogl.Graph;
+import net.sf.yogl.adjacent.csr.CsrGraph;
 import net.sf.yogl.exceptions.GraphCorruptedException;
 import net.sf.yogl.exceptions.GraphException;
 import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.impl.DegreeStatistics;
+import net.sf.yogl.impl.DenseElements;
+import net.sf.yogl.impl.IdPool;
+import net.sf.yogl.impl.IncomingEdgesIndex;
+import net.sf.yogl.impl.VisitEpoch;
 import net.sf.yogl.iterators.BreadthFirstIterator;
 import net.sf.yogl.iterators.DepthFirstIterator;
 import net.sf.yogl.iterators.LinksIterator;
@@ -37,9 +44,45 @@ public class UniqueElementsGraph<VERTEX extends InternalKeyVertex<VERTEX, EDGE,
 	 */
 	private HashSet<VK> allStartNodeKeys = new HashSet<VK>();
 
-	/** basic ctor, no default value
+	/** Reverse adjacency, used to answer predecessor queries without
+	 * scanning the whole graph. Null if the graph has been created without it.
 	 */
-	public UniqueElementsGraph(){}
+	private final IncomingEdgesIndex<VK, VERTEX, EDGE> incomingEdges;
+
+	/** Dense ids of the vertices and of the edges, recycled on removal.
+	 */
+	private final IdPool vertexIds = new IdPool();
+
+	private final IdPool edgeIds = new IdPool();
+
+	/** traversal epoch of the vertices and edges: clearAllVisitCounts only
+	 * moves to the next epoch.
+	 */
+	private final VisitEpoch visitEpoch = new VisitEpoch();
+
+	/** vertices and edges packed in arrays, for the streams
+	 */
+	private final DenseElements<VERTEX> vertexElements = new DenseElements<>();
+
+	private final DenseElements<EDGE> edgeElements = new DenseElements<>();
+
+	/** In and out degrees of all vertices, updated with each edge.
+	 */
+	private final DegreeStatistics<VK> degrees = new DegreeStatistics<>();
+
+	/** basic ctor, no default value. Incoming edges are indexed.
+	 */
+	public UniqueElementsGraph(){
+		this(true);
+	}
+
+	/** @param indexIncomingEdges if false, the graph does not maintain the
+	 *        incoming edges of each vertex: adding and removing edges is a
+	 *        bit cheaper, but predecessor queries scan the whole graph.
+	 */
+	public UniqueElementsGraph(boolean indexIncomingEdges){
+		this.incomingEdges = indexIncomingEdges ? new IncomingEdgesIndex<>() : null;
+	}
 
 	/** Will duplicate the content of the vertex and insert it into this graph.
 	 * Method is used to copy vertices from graph to graph
@@ -50,9 +93,66 @@ public class UniqueElementsGraph<VERTEX extends InternalKeyVertex<VERTEX, EDGE,
 			this.vertices.put(vertex.getKey(), vertex);
 			if (isRoot)
 				this.allStartNodeKeys.add(vertex.getKey());
+			vertex.graph = this;
+			vertex.setId(vertexIds.acquire());
+			vertex.setVisitEpoch(visitEpoch);
+			vertexElements.add(vertex, vertex.getId());
+			degrees.vertexAdded(vertex.getKey());
+			for (EDGE edge : vertex.getOutgoingEdges()) {
+				edgeAdded(vertex, edge);
+			}
 		}
 		return result;
 	}
+
+	/** Called by the vertices of this graph each time an edge is added.
+	 */
+	void edgeAdded(VERTEX fromVertex, EDGE edge) {
+		numberOfEdges++;
+		edge.setId(edgeIds.acquire());
+		edge.setVisitEpoch(visitEpoch);
+		edgeElements.add(edge, edge.getId());
+		edge.fromVertex = fromVertex;
+		degrees.edgeAdded(fromVertex.getKey(), edge.getToVertex().getKey());
+		if (incomingEdges != null) {
+			incomingEdges.add(edge.getToVertex().getKey(), fromVertex, edge);
+		}
+	}
+
+	/** Called by the vertices of this graph each time an edge is removed.
+	 */
+	void edgeRemoved(VERTEX fromVertex, EDGE edge) {
+		numberOfEdges--;
+		edgeElements.remove(edge.getId());
+		edgeIds.release(edge.getId());
+		edge.setId(-1);
+		edge.fromVertex = null;
+		degrees.edgeRemoved(fromVertex.getKey(), edge.getToVertex().getKey());
+		if (incomingEdges != null) {
+			incomingEdges.remove(edge.getToVertex().getKey(), edge);
+		}
+	}
+
+	/** Called by the edges of this graph when they point to another vertex.
+	 */
+	void edgeRedirected(VERTEX fromVertex, EDGE edge, VERTEX oldTarget) {
+		VK oldKey = oldTarget == null ? null : oldTarget.getKey();
+		VK newKey = edge.getToVertex() == null ? null : edge.getToVertex().getKey();
+		degrees.edgeRemoved(fromVertex.getKey(), oldKey);
+		degrees.edgeAdded(fromVertex.getKey(), newKey);
+		if (incomingEdges != null) {
+			if (oldTarget != null)
+				incomingEdges.remove(oldKey, edge);
+			if (newKey != null)
+				incomingEdges.add(newKey, fromVertex, edge);
+		}
+	}
+
+	/** @return true if the graph maintains the incoming edges of each vertex.
+	 */
+	public boolean isIndexingIncomingEdges() {
+		return incomingEdges != null;
+	}
 	
 	/**
 	 * @param maxCycles fixes the number of times each node can be
@@ -83,6 +183,17 @@ public class UniqueElementsGraph<VERTEX extends InternalKeyVertex<VERTEX, EDGE,
 		return new DepthFirstIterator<VERTEX, EDGE>(startVertices, maxCycling);
 	}
 
+	/** Returns an immutable copy of this graph, stored in compressed sparse
+	 * row format. The vertices and edges of this graph are the user values
+	 * of the copy. The copy does not follow later modifications of this graph.
+	 * @exception GraphCorruptedException if an edge refers to a vertex that
+	 *            is not part of this graph.
+	 */
+	public CsrGraph<VK, VERTEX, EDGE> freeze() throws GraphCorruptedException {
+		return CsrGraph.copyOf(vertices.values(), this::isRootVertex, InternalKeyVertex::getKey,
+				vertex -> vertex, edge -> edge);
+	}
+
 	/** @see ComparableKeysGraph#existsNode
 	 */
 	public boolean existsNode(VK nodeKey) {
@@ -181,6 +292,16 @@ public class UniqueElementsGraph<VERTEX extends InternalKeyVertex<VERTEX, EDGE,
 		return numberOfEdges;
 	}
 
+	@Override
+	public int maxVertexId() {
+		return vertexIds.maxId();
+	}
+
+	@Override
+	public int maxEdgeId() {
+		return edgeIds.maxId();
+	}
+
 	/** Getter method
 	 * @return the total number of vertices contained in the graph
 	 */
@@ -242,14 +363,18 @@ public class UniqueElementsGraph<VERTEX extends InternalKeyVertex<VERTEX, EDGE,
 	 */
 	public Collection<VERTEX> getPredecessorVertices(VERTEX toVertex) {
 
+		if (incomingEdges != null) {
+			return incomingEdges.predecessors(toVertex.getKey());
+		}
 		Map<VK, VERTEX> result = new HashMap<>();
 		Iterator<VERTEX> allVerticesIter = vertices.values().iterator();
 		while (allVerticesIter.hasNext()) {
-			Iterator<EDGE> edgeIter = allVerticesIter.next().getOutgoingEdges().iterator();
+			VERTEX vertex = allVerticesIter.next();
+			Iterator<EDGE> edgeIter = vertex.getOutgoingEdges().iterator();
 			while (edgeIter.hasNext()) {
 				VERTEX vertexCandidate = edgeIter.next().getToVertex();
 				if (toVertex.getKey().equals(vertexCandidate.getKey())) {
-					result.put(vertexCandidate.getKey(), vertexCandidate);
+					result.put(vertex.getKey(), vertex);
 				}
 			}
 		}
@@ -259,6 +384,9 @@ public class UniqueElementsGraph<VERTEX extends InternalKeyVertex<VERTEX, EDGE,
 	/** Return all predecessor nodes for a given node and link
 	 */
 	public VERTEX getPredecessorVertex(VERTEX destVertex, EDGE edge) {
+		if (incomingEdges != null) {
+			return incomingEdges.predecessor(destVertex.getKey(), edge);
+		}
 		VERTEX sourceVertex = null;
 		Iterator<Map.Entry<VK, VERTEX>> iter = vertices.entrySet().iterator();
 		while (iter.hasNext()) {
@@ -321,28 +449,22 @@ public class UniqueElementsGraph<VERTEX extends InternalKeyVertex<VERTEX, EDGE,
 	/** Method to retrieve all nodes, via an iterator. Return the 'user value'
 	 */
 	public Collection<VK> nodesKeySet() {
-
-		LinkedList<VK> nodes = new LinkedList<>();
-		Iterator<VK> vertexIter = vertices.keySet().iterator();
-		while (vertexIter.hasNext()) {
-			VK key = vertexIter.next();
-			nodes.addLast(key);
-		}
-		return nodes;
+		return vertexStream().map(vertex -> vertex.getKey()).collect(Collectors.toCollection(() -> new ArrayList<>(vertexElements.size())));
 	}
 
 	/** Removes all links between the given nodes.
 	 */
 	public void removeAllEdgesBetween(VERTEX vertexFrom, VERTEX vertexTo)
 		throws GraphException {
+		List<EDGE> edgesToBeRemoved = new ArrayList<>();
 		Iterator<EDGE> edgesIter = vertexFrom.getOutgoingEdges().iterator();
 		while (edgesIter.hasNext()) {
 			EDGE edgeCandidate = edgesIter.next();
 			if (edgeCandidate.getToVertex().equals(vertexTo)) {
-				vertexFrom.removeEdge(edgeCandidate);
+				edgesToBeRemoved.add(edgeCandidate);
 			}
-			numberOfEdges--;
 		}
+		edgesToBeRemoved.forEach(vertexFrom::removeEdge);
 		buildAllStartNodeKeys();
 	}
 
@@ -353,31 +475,35 @@ public class UniqueElementsGraph<VERTEX extends InternalKeyVertex<VERTEX, EDGE,
 	 * removed vertex are removed.
 	 * @param node user-defined to be removed
 	 */
-	//Refactor: This method should be recursive, as removing 1 vertex may leave other nodes inaccessibles, which in turn should be removed as well.
+	/** Removes a vertex with its incoming and outgoing edges. The removal
+	 * does not cascade: vertices only reachable through the removed one
+	 * stay in the graph.
+	 */
 	public void removeVertex(VERTEX vertexToBeRemoved) throws NodeNotFoundException {
 
-		Iterator<VERTEX> vertexIter = vertices.values().iterator();
-		while (vertexIter.hasNext()) {
-			VERTEX vertex = vertexIter.next();
-			List<EDGE> edgesToBeRemoved = new ArrayList<>();
-			Iterator<EDGE> edgesIter = vertex.getOutgoingEdges().iterator();
-			while (edgesIter.hasNext()) {
-				EDGE edge = edgesIter.next();
-				if (edge.getToVertex().equals(vertexToBeRemoved)) {
-					edgesToBeRemoved.add(edge);
-				}
-				Iterator<EDGE>tbrIter = edgesToBeRemoved.iterator();
-				while (tbrIter.hasNext()) {
-					EDGE tbr = tbrIter.next();
-					VERTEX v2 = tbr.getToVertex();
-					int incEdges = v2.decrementIncomingEdges();
-					vertex.removeEdge(tbr);
-					if (incEdges == 0) {
-						removeVertex(v2);
+		if (incomingEdges != null) {
+			incomingEdges.forEachIncoming(vertexToBeRemoved.getKey(), (vertex, edge) -> vertex.removeEdge(edge));
+		} else {
+			Iterator<VERTEX> vertexIter = vertices.values().iterator();
+			while (vertexIter.hasNext()) {
+				VERTEX vertex = vertexIter.next();
+				List<EDGE> edgesToBeRemoved = new ArrayList<>();
+				Iterator<EDGE> edgesIter = vertex.getOutgoingEdges().iterator();
+				while (edgesIter.hasNext()) {
+					EDGE edge = edgesIter.next();
+					if (edge.getToVertex().equals(vertexToBeRemoved)) {
+						edgesToBeRemoved.add(edge);
 					}
 				}
+				edgesToBeRemoved.forEach(vertex::removeEdge);
 			}
 		}
+		new ArrayList<>(vertexToBeRemoved.getOutgoingEdges()).forEach(vertexToBeRemoved::removeEdge);
+		vertexToBeRemoved.graph = null;
+		vertexElements.remove(vertexToBeRemoved.getId());
+		vertexIds.release(vertexToBeRemoved.getId());
+		vertexToBeRemoved.setId(-1);
+		degrees.vertexRemoved(vertexToBeRemoved.getKey());
 		this.vertices.remove(vertexToBeRemoved.getKey());
 		buildAllStartNodeKeys();
 	}
@@ -401,36 +527,18 @@ public class UniqueElementsGraph<VERTEX extends InternalKeyVertex<VERTEX, EDGE,
 	}
 
 	public int getMaxInDegree() {
-		int max = 0;
-		HashMap<VK, Integer> counts = new HashMap<>();
-		Iterator<VERTEX> verticesIter = vertices.values().iterator();
-		while(verticesIter.hasNext()){
-			VERTEX vertex = verticesIter.next();
-			Iterator<EDGE>edgesIter = vertex.getOutgoingEdges().iterator();
-			while(edgesIter.hasNext()){
-				VK vertexKey = edgesIter.next().getToVertex().getKey();
-				if(!counts.containsKey(vertexKey)){
-					counts.put(vertexKey, new Integer(1));
-					max = Math.max(max, 1);
-				}else{
-					Integer val = (Integer)counts.get(vertexKey);
-					int temp = val.intValue() + 1;
-					max = Math.max(max, temp);
-					counts.put(vertexKey, new Integer(temp));
-				}
-			}
-		}
-		return max;
+		return degrees.getMaxInDegree();
 	}
 
 	public int getMaxOutDegree() {
-		int max = 0;
-		Iterator<VERTEX> verticesIter = vertices.values().iterator();
-		while(verticesIter.hasNext()){
-			VERTEX vertex = verticesIter.next();
-			max = Math.max(max, vertex.getOutgoingEdges().size());
-		}
-		return max;
+		return degrees.getMaxOutDegree();
+	}
+
+	/** @return the degrees of the vertices of this graph. The statistics are
+	 * maintained while edges are added and removed, reading them is cheap.
+	 */
+	public DegreeStatistics<VK> getDegreeStatistics() {
+		return degrees;
 	}
 
 	@Override
@@ -440,7 +548,23 @@ public class UniqueElementsGraph<VERTEX extends InternalKeyVertex<VERTEX, EDGE,
 
 	@Override
 	public void clearAllVisitCounts() {
-		vertices.values().stream().forEach(vertex -> vertex.clearVisitsCount());
-		
+		if (visitEpoch.advance())
+			return;
+		for (VERTEX vertex : vertices.values()) {
+			vertex.clearVisitsCount();
+			for (EDGE edge : vertex.getOutgoingEdges()) {
+				edge.clearVisitsCount();
+			}
+		}
+	}
+
+	@Override
+	public Stream<VERTEX> vertexStream() {
+		return StreamSupport.stream(vertexElements.spliterator(), false);
+	}
+
+	@Override
+	public Stream<EDGE> edgeStream() {
+		return StreamSupport.stream(edgeElements.spliterator(), false);
 	}
 }
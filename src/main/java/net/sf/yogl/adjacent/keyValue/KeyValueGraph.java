@@ -6,15 +6,23 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import net.sf.yogl.Graph;
+import net.sf.yogl.adjacent.csr.CsrGraph;
 import net.sf.yogl.exceptions.GraphCorruptedException;
 import net.sf.yogl.exceptions.GraphException;
 import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.impl.DegreeStatistics;
+import net.sf.yogl.impl.DenseElements;
+import net.sf.yogl.impl.IdPool;
+import net.sf.yogl.impl.IncomingEdgesIndex;
+import net.sf.yogl.impl.VisitEpoch;
 import net.sf.yogl.iterators.BreadthFirstIterator;
 import net.sf.yogl.iterators.DepthFirstIterator;
 import net.sf.yogl.iterators.LinksIterator;
@@ -58,9 +66,45 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 	 */
 	private HashSet<VERTEX_KEY> allStartNodeKeys = new HashSet<VERTEX_KEY>();
 
-	/** basic ctor, no default value
+	/** Reverse adjacency, used to answer predecessor queries without
+	 * scanning the whole graph. Null if the graph has been created without it.
 	 */
-	public KeyValueGraph(){}
+	private final IncomingEdgesIndex<VERTEX_KEY, KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> incomingEdges;
+
+	/** Dense ids of the vertices and of the edges, recycled on removal.
+	 */
+	private final IdPool vertexIds = new IdPool();
+
+	private final IdPool edgeIds = new IdPool();
+
+	/** traversal epoch of the vertices and edges: clearAllVisitCounts only
+	 * moves to the next epoch.
+	 */
+	private final VisitEpoch visitEpoch = new VisitEpoch();
+
+	/** vertices and edges packed in arrays, for the streams
+	 */
+	private final DenseElements<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> vertexElements = new DenseElements<>();
+
+	private final DenseElements<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> edgeElements = new DenseElements<>();
+
+	/** In and out degrees of all vertices, updated with each edge.
+	 */
+	private final DegreeStatistics<VERTEX_KEY> degrees = new DegreeStatistics<>();
+
+	/** basic ctor, no default value. Incoming edges are indexed.
+	 */
+	public KeyValueGraph(){
+		this(true);
+	}
+
+	/** @param indexIncomingEdges if false, the graph does not maintain the
+	 *        incoming edges of each vertex: adding and removing edges is a
+	 *        bit cheaper, but predecessor queries scan the whole graph.
+	 */
+	public KeyValueGraph(boolean indexIncomingEdges){
+		this.incomingEdges = indexIncomingEdges ? new IncomingEdgesIndex<>() : null;
+	}
 
 	/** Will duplicate the content of the vertex and insert it into this graph.
 	 * Method is used to copy vertices from graph to graph
@@ -71,9 +115,67 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 			this.vertices.put(vertex.getKey(), vertex);
 			if (isRoot)
 				this.allStartNodeKeys.add(vertex.getKey());
+			vertex.graph = this;
+			vertex.setId(vertexIds.acquire());
+			vertex.setVisitEpoch(visitEpoch);
+			vertexElements.add(vertex, vertex.getId());
+			degrees.vertexAdded(vertex.getKey());
+			// subclasses may remove an edge they refuse while it is registered
+			for (ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge : new ArrayList<>(vertex.getOutgoingEdges())) {
+				edgeAdded(vertex, edge);
+			}
 		}
 		return result;
 	}
+
+	/** Called by the vertices of this graph each time an edge is added.
+	 */
+	protected void edgeAdded(KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> fromVertex, ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge) {
+		numberOfEdges++;
+		edge.setId(edgeIds.acquire());
+		edge.setVisitEpoch(visitEpoch);
+		edgeElements.add(edge, edge.getId());
+		edge.fromVertex = fromVertex;
+		degrees.edgeAdded(fromVertex.getKey(), edge.getToVertex().getKey());
+		if (incomingEdges != null) {
+			incomingEdges.add(edge.getToVertex().getKey(), fromVertex, edge);
+		}
+	}
+
+	/** Called by the vertices of this graph each time an edge is removed.
+	 */
+	protected void edgeRemoved(KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> fromVertex, ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge) {
+		numberOfEdges--;
+		edgeElements.remove(edge.getId());
+		edgeIds.release(edge.getId());
+		edge.setId(-1);
+		edge.fromVertex = null;
+		degrees.edgeRemoved(fromVertex.getKey(), edge.getToVertex().getKey());
+		if (incomingEdges != null) {
+			incomingEdges.remove(edge.getToVertex().getKey(), edge);
+		}
+	}
+
+	/** Called by the edges of this graph when they point to another vertex.
+	 */
+	protected void edgeRedirected(KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> fromVertex, ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge, KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> oldTarget) {
+		VERTEX_KEY oldKey = oldTarget == null ? null : oldTarget.getKey();
+		VERTEX_KEY newKey = edge.getToVertex() == null ? null : edge.getToVertex().getKey();
+		degrees.edgeRemoved(fromVertex.getKey(), oldKey);
+		degrees.edgeAdded(fromVertex.getKey(), newKey);
+		if (incomingEdges != null) {
+			if (oldTarget != null)
+				incomingEdges.remove(oldKey, edge);
+			if (newKey != null)
+				incomingEdges.add(newKey, fromVertex, edge);
+		}
+	}
+
+	/** @return true if the graph maintains the incoming edges of each vertex.
+	 */
+	public boolean isIndexingIncomingEdges() {
+		return incomingEdges != null;
+	}
 	
 	/**
 	 * @param maxCycles fixes the number of times each node can be
@@ -104,6 +206,17 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 		return new DepthFirstIterator<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>>(startVertices, maxCycling);
 	}
 
+	/** Returns an immutable copy of this graph, stored in compressed sparse
+	 * row format. The copy is faster to traverse and smaller in memory, but
+	 * it does not follow later modifications of this graph.
+	 * @exception GraphCorruptedException if an edge refers to a vertex that
+	 *            is not part of this graph.
+	 */
+	public CsrGraph<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> freeze() throws GraphCorruptedException {
+		return CsrGraph.copyOf(vertices.values(), this::isRootVertex, KeyValueVertex::getKey,
+				KeyValueVertex::getUserValue, ValueEdge::getUserValue);
+	}
+
 	/** @see ComparableKeysGraph#existsNode
 	 */
 	public boolean existsNode(VERTEX_KEY nodeKey) {
@@ -202,6 +315,16 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 		return numberOfEdges;
 	}
 
+	@Override
+	public int maxVertexId() {
+		return vertexIds.maxId();
+	}
+
+	@Override
+	public int maxEdgeId() {
+		return edgeIds.maxId();
+	}
+
 	/** Getter method
 	 * @return the total number of vertices contained in the graph
 	 */
@@ -243,15 +366,13 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 	 */
 	public VertexType getVertexType(KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex) {
 		if (this.allStartNodeKeys.contains(vertex.getKey())) {
-			if ((vertex.getOutgoingEdges() == null)
-				|| (vertex.getOutgoingEdges().size() == 0)) {
+			if (vertex.edgeCount() == 0) {
 				return VertexType.STARTEND;
 			} else {
 				return VertexType.START;
 			}
 		} else {
-			if ((vertex.getOutgoingEdges() == null)
-				|| (vertex.getOutgoingEdges().size() == 0)) {
+			if (vertex.edgeCount() == 0) {
 				return VertexType.END;
 			} else {
 				return VertexType.NONE;
@@ -272,6 +393,9 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 	 */
 	public Collection<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> getPredecessorVertices(KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> toVertex) {
 
+		if (incomingEdges != null) {
+			return incomingEdges.predecessors(toVertex.getKey());
+		}
 		ArrayList<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> result = new ArrayList<>();
 		Iterator<Map.Entry<VERTEX_KEY, KeyValueVertex<VERTEX_KEY,VERTEX_VALUE,EDGE_VALUE>>>iter = vertices.entrySet().iterator();
 		while (iter.hasNext()) {
@@ -287,6 +411,9 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 	/** Return all predecessor nodes for a given node and link
 	 */
 	public KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> getPredecessorVertex(KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> destVertex, ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge) {
+		if (incomingEdges != null) {
+			return incomingEdges.predecessor(destVertex.getKey(), edge);
+		}
 		KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> sourceVertex = null;
 		Iterator<Map.Entry<VERTEX_KEY, KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>>> iter = vertices.entrySet().iterator();
 		while (iter.hasNext()) {
@@ -307,11 +434,8 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 	/** Returns a list of Vertex which are directly adjacent to the node.
 	 */
 	public List<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> getSuccessorVertices(KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> node) {
-		Iterator<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> edgesIter = node.getOutgoingEdges().iterator();
-		List<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>>result = new ArrayList<>();
-		while (edgesIter.hasNext()) {
-			result.add(edgesIter.next().getToVertex());
-		}
+		List<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>>result = new ArrayList<>(node.edgeCount());
+		node.forEachEdge(edge -> result.add(edge.getToVertex()));
 		return result;
 	}
 
@@ -349,42 +473,19 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 	/** Method to retrieve all nodes, via an iterator. Return the 'user value'
 	 */
 	public Collection<VERTEX_KEY> nodesKeySet() {
-
-		LinkedList<VERTEX_KEY> nodes = new LinkedList<>();
-		Iterator<VERTEX_KEY> vertexIter = vertices.keySet().iterator();
-		while (vertexIter.hasNext()) {
-			VERTEX_KEY key = vertexIter.next();
-			nodes.addLast(key);
-		}
-		return nodes;
+		return vertexStream().map(KeyValueVertex::getKey).collect(Collectors.toCollection(() -> new ArrayList<>(vertexElements.size())));
 	}
 
 	/** Method to retrieve all nodes, via an iterator. Return the 'user value'
 	 */
 	public Collection<VERTEX_VALUE> nodesValues() {
-
-		LinkedList<VERTEX_VALUE> nodes = new LinkedList<>();
-		Iterator<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> vertexIter = vertices.values().iterator();
-		while (vertexIter.hasNext()) {
-			KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex = vertexIter.next();
-			nodes.addLast(vertex.getUserValue());
-		}
-		return nodes;
+		return vertexStream().map(KeyValueVertex::getUserValue).collect(Collectors.toCollection(() -> new ArrayList<>(vertexElements.size())));
 	}
 
 	/** @see ComparableKeysGraph#linksValues()
 	 */
 	public Collection<EDGE_VALUE> linksValues() {
-		LinkedList<EDGE_VALUE> v = new LinkedList<>();
-		Iterator<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> verticesIter = vertices.values().iterator();
-		while (verticesIter.hasNext()) {
-			KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex = verticesIter.next();
-			Iterator<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> edgesIter = vertex.getOutgoingEdges().iterator();
-			while (edgesIter.hasNext()) {
-				v.add(edgesIter.next().getUserValue());
-			}
-		}
-		return v;
+		return edgeStream().map(ValueEdge::getUserValue).collect(Collectors.toCollection(() -> new ArrayList<>(edgeElements.size())));
 	}
 
 	/** Removes all links between the given nodes.
@@ -392,10 +493,11 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 	public void removeAllLinksBetween(VERTEX_KEY nodeKeyFrom, VERTEX_KEY nodeKeyTo)
 		throws GraphException {
 		KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> from = this.vertices.get(nodeKeyFrom);
-		Iterator<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> edgesIter = from.getEdgeTo(nodeKeyTo).iterator();
-		while (edgesIter.hasNext()) {
-			from.removeEdge(edgesIter.next());
-			numberOfEdges--;
+		Collection<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> edges = from.getEdgeTo(nodeKeyTo);
+		if (edges != null) {
+			for (ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge : edges) {
+				from.removeEdge(edge);
+			}
 		}
 		buildAllStartNodeKeys();
 	}
@@ -414,8 +516,6 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 
 		KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertexFrom = vertices.get(nodeFromKey);
 		vertexFrom.removeEdge(linkKey);
-
-		numberOfEdges--;
 		buildAllStartNodeKeys();
 	}
 
@@ -429,17 +529,29 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 	public void removeNode(VERTEX_KEY nodeKey) throws NodeNotFoundException {
 
 		KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> v = this.vertices.get(nodeKey);
-		this.numberOfEdges -= v.getCountEdges();
 		//remove all links to the node
-		Iterator<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> vertexIter = vertices.values().iterator();
-		while (vertexIter.hasNext()) {
-			KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex = vertexIter.next();
-			Iterator<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> edgesIter = vertex.getEdgeTo(nodeKey).iterator();
-			while (edgesIter.hasNext()) {
-				vertex.removeEdge(edgesIter.next());
-				this.numberOfEdges--;
+		if (incomingEdges != null) {
+			incomingEdges.forEachIncoming(nodeKey, (vertex, edge) -> {
+				vertex.removeEdge(edge);
+			});
+		} else {
+			Iterator<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> vertexIter = vertices.values().iterator();
+			while (vertexIter.hasNext()) {
+				KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex = vertexIter.next();
+				Collection<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> edges = vertex.getEdgeTo(nodeKey);
+				if (edges != null) {
+					for (ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge : edges) {
+						vertex.removeEdge(edge);
+					}
+				}
 			}
 		}
+		v.clearEdges();
+		v.graph = null;
+		vertexElements.remove(v.getId());
+		vertexIds.release(v.getId());
+		v.setId(-1);
+		degrees.vertexRemoved(nodeKey);
 		this.vertices.remove(nodeKey);
 		buildAllStartNodeKeys();
 	}
@@ -463,47 +575,48 @@ implements Graph <KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>, ValueEdg
 	}
 
 	public int getMaxInDegree() {
-		int max = 0;
-		HashMap<VERTEX_KEY, Integer> counts = new HashMap<>();
-		Iterator<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> verticesIter = vertices.values().iterator();
-		while(verticesIter.hasNext()){
-			KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex = verticesIter.next();
-			Iterator<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>>edgesIter = vertex.getOutgoingEdges().iterator();
-			while(edgesIter.hasNext()){
-				KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex2 = edgesIter.next().getToVertex();
-				if(!counts.containsKey(vertex2)){
-					counts.put(vertex2.getKey(), new Integer(1));
-					max = Math.max(max, 1);
-				}else{
-					Integer val = (Integer)counts.get(vertex2.getKey());
-					int temp = val.intValue() + 1;
-					max = Math.max(max, temp);
-					counts.put(vertex2.getKey(), new Integer(temp));
-				}
-			}
-		}
-		return max;
+		return degrees.getMaxInDegree();
 	}
 
 	public int getMaxOutDegree() {
-		int max = 0;
-		Iterator<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> verticesIter = vertices.values().iterator();
-		while(verticesIter.hasNext()){
-			KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex = verticesIter.next();
-			max = Math.max(max, vertex.getCountEdges());
-		}
-		return max;
+		return degrees.getMaxOutDegree();
+	}
+
+	/** @return the degrees of the vertices of this graph. The statistics are
+	 * maintained while edges are added and removed, reading them is cheap.
+	 */
+	public DegreeStatistics<VERTEX_KEY> getDegreeStatistics() {
+		return degrees;
 	}
 
 	@Override
 	public Collection<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> getRoots() {
-		// TODO Auto-generated method stub
-		return null;
+		List<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> roots = new ArrayList<>(allStartNodeKeys.size());
+		for (VERTEX_KEY key : allStartNodeKeys) {
+			roots.add(vertices.get(key));
+		}
+		return roots;
 	}
 
 	@Override
 	public void clearAllVisitCounts() {
-		// TODO Auto-generated method stub
-		
+		if (visitEpoch.advance())
+			return;
+		for (KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> vertex : vertices.values()) {
+			vertex.clearVisitsCount();
+			for (ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge : vertex.getOutgoingEdges()) {
+				edge.clearVisitsCount();
+			}
+		}
+	}
+
+	@Override
+	public Stream<KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> vertexStream() {
+		return StreamSupport.stream(vertexElements.spliterator(), false);
+	}
+
+	@Override
+	public Stream<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> edgeStream() {
+		return StreamSupport.stream(edgeElements.spliterator(), false);
 	}
 }
\ No newline at end of file
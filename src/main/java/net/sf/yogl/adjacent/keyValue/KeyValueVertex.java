@@ -3,8 +3,10 @@ package net.sf.yogl.adjacent.keyValue;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import net.sf.yogl.Vertex;
 import net.sf.yogl.exceptions.GraphCorruptedException;
@@ -38,6 +40,11 @@ public class KeyValueVertex <VERTEX_KEY extends Comparable<VERTEX_KEY>, VERTEX_V
      */
     VERTEX_VALUE userValue = null;
     
+    /** Graph the vertex has been inserted into. The graph is told about
+     * each edge added to or removed from this vertex.
+     */
+    KeyValueGraph<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> graph = null;
+    
     public KeyValueVertex() {
     	super();
     }
@@ -95,9 +102,8 @@ public class KeyValueVertex <VERTEX_KEY extends Comparable<VERTEX_KEY>, VERTEX_V
         Iterator<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> iter = outgoingEdges.iterator();
         while(iter.hasNext()){
             ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge = iter.next();
-            if(edge.getToVertex().equals(key)){
+            if(edge.getToVertex().getKey().equals(key)){
                 result.add(edge);
-                break;
             }
         }
         if(result.size() == 0){
@@ -131,13 +137,35 @@ public class KeyValueVertex <VERTEX_KEY extends Comparable<VERTEX_KEY>, VERTEX_V
      * Be careful to the following:
      *  - do not use this method if there is any kind
      *    of concurrent access to the list
-     *  - do not modify directly this list (by adding or
-     *    removing elements
+     *  - the list is a read-only view, not a copy: it follows
+     *    later modifications of the vertex. Copy it before
+     *    adding or removing edges while iterating.
      * @return the list of outgoing edges
      */
-    public Collection<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> getOutgoingEdges(){
-    	ArrayList<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> result = new ArrayList<>(outgoingEdges);
-        return result;
+    public List<ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> getOutgoingEdges(){
+        return Collections.unmodifiableList(outgoingEdges);
+    }
+    
+    @Override
+    public int edgeCount(){
+        return outgoingEdges.size();
+    }
+    
+    @Override
+    public ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edgeAt(int index){
+        return outgoingEdges.get(index);
+    }
+    
+    @Override
+    public boolean hasIndexedEdges(){
+        return true;
+    }
+    
+    @Override
+    public void forEachEdge(Consumer<? super ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE>> action){
+        for (int i = 0; i < outgoingEdges.size(); i++) {
+        	action.accept(outgoingEdges.get(i));
+        }
     }
     
     /** This method insert a new edge between 'this' vertex
@@ -149,6 +177,9 @@ public class KeyValueVertex <VERTEX_KEY extends Comparable<VERTEX_KEY>, VERTEX_V
     public void tryAddEdge(ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> newEdge) {
         if (newEdge != null){
         	outgoingEdges.add(newEdge);
+        	if (graph != null) {
+        		graph.edgeAdded(this, newEdge);
+        	}
         }
     }
     
@@ -162,6 +193,9 @@ public class KeyValueVertex <VERTEX_KEY extends Comparable<VERTEX_KEY>, VERTEX_V
     public void tryAddEdgeFirst(ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> newEdge) {
         if (newEdge != null){
             outgoingEdges.add(0, newEdge);
+            if (graph != null) {
+            	graph.edgeAdded(this, newEdge);
+            }
         }
     }
     /** Removes from the neighbors list the edge given as parameter
@@ -169,16 +203,39 @@ public class KeyValueVertex <VERTEX_KEY extends Comparable<VERTEX_KEY>, VERTEX_V
      */
     public void removeEdge(ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge){
         if (edge != null){
-            outgoingEdges.remove(edge);
+            int index = indexOfInstance(edge);
+            if (index < 0) {
+            	index = outgoingEdges.indexOf(edge);
+            }
+            if (index >= 0) {
+            	ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> removed = outgoingEdges.remove(index);
+            	if (graph != null) {
+            		graph.edgeRemoved(this, removed);
+            	}
+            }
         }
     }
     
+    private int indexOfInstance(ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge){
+        for (int i = 0; i < outgoingEdges.size(); i++) {
+        	if (outgoingEdges.get(i) == edge) {
+        		return i;
+        	}
+        }
+        return -1;
+    }
+    
     /** Removes all outgoing edges from the vertex. No successor will
      * be accessible after this operation.
      * Precondition: vertex exists
      * Postcondition: edges list is empty
      */
     public void clearEdges(){
+        if (graph != null) {
+        	for (ValueEdge<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> edge : outgoingEdges) {
+        		graph.edgeRemoved(this, edge);
+        	}
+        }
         outgoingEdges.clear();
     }
     
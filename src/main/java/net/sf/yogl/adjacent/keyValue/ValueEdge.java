@@ -27,6 +27,11 @@ public class ValueEdge <VERTEX_KEY extends Comparable<VERTEX_KEY>, VERTEX_VALUE,
 	// function is defined on the user object.
 	private EDGE_VALUE value = null;
 
+	/** vertex holding this edge while it is in a graph. The graph is told
+	 * when the edge is redirected.
+	 */
+	KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> fromVertex = null;
+
 	public ValueEdge() {
 		super();
 	}
@@ -42,6 +47,17 @@ public class ValueEdge <VERTEX_KEY extends Comparable<VERTEX_KEY>, VERTEX_VALUE,
 		this.value = userValue;
 	}
 
+	/** Points the edge to another vertex. The graph holding the edge, if
+	 * any, updates its incoming edges.
+	 */
+	@Override
+	public void setToVertex(KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> toVertex) {
+		KeyValueVertex<VERTEX_KEY, VERTEX_VALUE, EDGE_VALUE> oldTarget = getToVertex();
+		super.setToVertex(toVertex);
+		if (fromVertex != null && fromVertex.graph != null && oldTarget != toVertex)
+			fromVertex.graph.edgeRedirected(fromVertex, this, oldTarget);
+	}
+
 	/** duplicate referenced edge
 	 * @return a copy of this Edge
 	 */
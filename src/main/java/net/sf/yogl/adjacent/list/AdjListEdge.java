@@ -26,6 +26,11 @@ public class AdjListEdge <VERTEX_VALUE, EDGE_VALUE> extends Edge<AdjListEdge<VER
 	// function is defined on the user object.
 	private EDGE_VALUE userValue = null;
 
+	/** graph this edge has been attached to. The graph is notified when the
+	 * edge is redirected to another vertex.
+	 */
+	AdjListGraph<VERTEX_VALUE, EDGE_VALUE> graph = null;
+
 	public AdjListEdge(){
 		super();
 	}
@@ -46,7 +51,10 @@ public class AdjListEdge <VERTEX_VALUE, EDGE_VALUE> extends Edge<AdjListEdge<VER
 	}
 	
 	public AdjListVertex<VERTEX_VALUE, EDGE_VALUE> setNextVertex(AdjListVertex<VERTEX_VALUE, EDGE_VALUE> v){
+		AdjListVertex<VERTEX_VALUE, EDGE_VALUE> oldVertex = this.nextVertex;
 		this.nextVertex = v;
+		if (graph != null && oldVertex != v)
+			graph.edgeRedirected(this, oldVertex);
 		return v;
 	}
 	
@@ -74,7 +82,10 @@ public class AdjListEdge <VERTEX_VALUE, EDGE_VALUE> extends Edge<AdjListEdge<VER
 	 * @param vertex is the new Vertex this edge points to
 	 */
 	public void setToVertex(AdjListVertex<VERTEX_VALUE, EDGE_VALUE> nextVertex) {
+		AdjListVertex<VERTEX_VALUE, EDGE_VALUE> oldVertex = this.nextVertex;
 		this.nextVertex = nextVertex;
+		if (graph != null && oldVertex != nextVertex)
+			graph.edgeRedirected(this, oldVertex);
 	}
 
 	/** getter method
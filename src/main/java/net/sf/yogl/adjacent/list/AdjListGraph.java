@@ -1,17 +1,31 @@
 
 package net.sf.yogl.adjacent.list;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import net.sf.yogl.Graph;
 import net.sf.yogl.exceptions.GraphCorruptedException;
 import net.sf.yogl.exceptions.GraphException;
 import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.impl.DegreeStatistics;
+import net.sf.yogl.impl.DenseElements;
+import net.sf.yogl.impl.IdPool;
+import net.sf.yogl.impl.IncomingEdgesIndex;
+import net.sf.yogl.impl.VisitEpoch;
 import net.sf.yogl.iterators.BreadthFirstIterator;
 import net.sf.yogl.iterators.DepthFirstIterator;
+import net.sf.yogl.iterators.DepthFirstWalker;
+import net.sf.yogl.iterators.GraphVisitor;
+import net.sf.yogl.iterators.TraversalContext;
+import net.sf.yogl.iterators.VisitResult;
 import net.sf.yogl.types.VertexType;
 
 /**
@@ -41,14 +55,59 @@ public class AdjListGraph <V, E> implements Graph <AdjListVertex<V, E>, AdjListE
 	 */
 	private ArrayList<AdjListVertex<V, E>> roots = new ArrayList<>();
 
-	private int outCount = 0;
-	
+	/** Registry of the vertices and edges attached to the graph. A vertex
+	 * is attached when it is added with addRootVertex or becomes the target
+	 * of an attached edge; an edge is attached when it is added to an
+	 * attached vertex. The registry is updated by the vertices and edges
+	 * themselves, so counts and enumerations do not traverse the graph.
+	 * Vertices are never detached: their ids are not recycled, and a vertex
+	 * that is no longer reachable from the roots after edges have been
+	 * removed or redirected is still counted by getNodeCount and returned
+	 * by vertexStream and getVertices. Use walk or traverse to only reach
+	 * the vertices reachable from the roots.
+	 */
+	private final IdPool vertexIds = new IdPool();
+
+	private final IdPool edgeIds = new IdPool();
+
+	/** traversal epoch of the vertices and edges: clearAllVisitCounts only
+	 * moves to the next epoch.
+	 */
+	private final VisitEpoch visitEpoch = new VisitEpoch();
+
+	/** attached vertices, by id
+	 */
+	private final ArrayList<AdjListVertex<V, E>> vertices = new ArrayList<>();
+
+	/** attached edges, by id. Null for the ids of removed edges.
+	 */
+	private final ArrayList<AdjListEdge<V, E>> edges = new ArrayList<>();
+
+	/** vertex holding each attached edge, by edge id
+	 */
+	private final ArrayList<AdjListVertex<V, E>> edgeSources = new ArrayList<>();
+
+	/** attached edges packed in an array, for edgeStream
+	 */
+	private final DenseElements<AdjListEdge<V, E>> edgeElements = new DenseElements<>();
+
+	/** incoming edges of each vertex. Vertices are compared by reference.
+	 */
+	private final IncomingEdgesIndex<AdjListVertex<V, E>, AdjListVertex<V, E>, AdjListEdge<V, E>> incomingEdges = new IncomingEdgesIndex<>();
+
+	/** degrees of the attached vertices, updated with the registry. Vertices
+	 * are compared by reference; edges without target are counted with a
+	 * null target.
+	 */
+	private final DegreeStatistics<AdjListVertex<V, E>> degrees = new DegreeStatistics<>();
+
 	public AdjListGraph() {
 	}
 
 	
 	public AdjListVertex<V, E> addRootVertex(AdjListVertex<V, E> v) {
 		this.roots.add(v);
+		vertexReached(v);
 		return v;
 	}
 
@@ -56,8 +115,94 @@ public class AdjListGraph <V, E> implements Graph <AdjListVertex<V, E>, AdjListE
 	public AdjListVertex<V, E> addRootVertex(AdjListVertex<V, E> vertex, boolean isRoot) {
 		if (isRoot)
 			this.roots.add(vertex);
+		vertexReached(vertex);
 		return vertex;
 	}
+
+	/** Attaches the vertex to this graph, with all the vertices and edges
+	 * reachable from it that are not attached yet.
+	 */
+	void vertexReached(AdjListVertex<V, E> vertex) {
+		Deque<AdjListVertex<V, E>> pending = new ArrayDeque<>();
+		pending.push(vertex);
+		while (!pending.isEmpty()) {
+			AdjListVertex<V, E> current = pending.pop();
+			if (current.graph == this)
+				continue;
+			current.graph = this;
+			current.setId(vertexIds.acquire());
+			current.setVisitEpoch(visitEpoch);
+			vertices.add(current);
+			degrees.vertexAdded(current);
+			for (AdjListEdge<V, E> edge : current.getOutgoingEdges()) {
+				attachEdge(current, edge, pending);
+			}
+		}
+	}
+
+	/** Called by the vertices of this graph each time an edge is added.
+	 */
+	void edgeAdded(AdjListVertex<V, E> fromVertex, AdjListEdge<V, E> edge) {
+		Deque<AdjListVertex<V, E>> pending = new ArrayDeque<>();
+		attachEdge(fromVertex, edge, pending);
+		if (!pending.isEmpty())
+			vertexReached(pending.pop());
+	}
+
+	/** Called by the vertices of this graph each time an edge is removed.
+	 */
+	void edgeRemoved(AdjListEdge<V, E> edge) {
+		if (edge.graph != this)
+			return;
+		if (edge.getToVertex() != null)
+			incomingEdges.remove(edge.getToVertex(), edge);
+		degrees.edgeRemoved(edgeSources.get(edge.getId()), edge.getToVertex());
+		edges.set(edge.getId(), null);
+		edgeSources.set(edge.getId(), null);
+		edgeElements.remove(edge.getId());
+		edge.graph = null;
+		edgeIds.release(edge.getId());
+		edge.setId(-1);
+	}
+
+	/** Called by the edges of this graph when they point to another vertex.
+	 */
+	void edgeRedirected(AdjListEdge<V, E> edge, AdjListVertex<V, E> oldTarget) {
+		AdjListVertex<V, E> source = edgeSources.get(edge.getId());
+		if (oldTarget != null)
+			incomingEdges.remove(oldTarget, edge);
+		AdjListVertex<V, E> target = edge.getToVertex();
+		degrees.edgeRemoved(source, oldTarget);
+		degrees.edgeAdded(source, target);
+		if (target != null) {
+			incomingEdges.add(target, source, edge);
+			vertexReached(target);
+		}
+	}
+
+	private void attachEdge(AdjListVertex<V, E> fromVertex, AdjListEdge<V, E> edge, Deque<AdjListVertex<V, E>> pending) {
+		if (edge.graph == this)
+			return;
+		edge.graph = this;
+		int id = edgeIds.acquire();
+		edge.setId(id);
+		edge.setVisitEpoch(visitEpoch);
+		edgeElements.add(edge, id);
+		if (id == edges.size()) {
+			edges.add(edge);
+			edgeSources.add(fromVertex);
+		} else {
+			edges.set(id, edge);
+			edgeSources.set(id, fromVertex);
+		}
+		AdjListVertex<V, E> target = edge.getToVertex();
+		degrees.edgeAdded(fromVertex, target);
+		if (target != null) {
+			incomingEdges.add(target, fromVertex, edge);
+			if (target.graph != this)
+				pending.push(target);
+		}
+	}
 	
 	@Override
 	public boolean isRootVertex (AdjListVertex<V, E> vertex) {
@@ -100,150 +245,146 @@ public class AdjListGraph <V, E> implements Graph <AdjListVertex<V, E>, AdjListE
 		return roots;
 	}
 	
+	/** @return true if no vertex has ever been attached to the graph. A
+	 * graph without roots is not empty as long as vertices have been
+	 * attached to it.
+	 */
 	@Override
 	public boolean isEmpty() {
-		return this.roots.isEmpty();
+		return this.vertices.isEmpty();
 	}
 
+	/** Calls the consumers once for each vertex and edge reachable from the
+	 * roots. Visits are counted in a context local to the call: the graph is
+	 * not modified and several traversals may run at the same time.
+	 */
 	public void traverse(Consumer<V>nodeConsumer, Consumer<E>linkConsumer){
-		for(AdjListVertex<V, E> root: roots){
-			consumeNode(nodeConsumer, linkConsumer, root);
-		}
+		traverse(nodeConsumer, linkConsumer, TraversalContext.isolated());
 	}
 	
-	private void traverseNode(AdjListVertex<V, E> node, Consumer<V>nodeConsumer, Consumer<E>linkConsumer){
-		for(AdjListEdge<V, E> edge: node.getOutgoingEdges()){
-			if(edge.getVisitsCount() == 0) {
-				linkConsumer.accept(edge.getUserValue());
-				AdjListVertex<V, E> target = edge.getToVertex();
-				consumeNode(nodeConsumer, linkConsumer, target);
-				edge.incVisitCounts();
+	/** Same as traverse, but vertex visits are counted in the given context.
+	 * The walk is iterative, so long chains do not overflow the stack.
+	 */
+	public void traverse(Consumer<V>nodeConsumer, Consumer<E>linkConsumer, TraversalContext<AdjListVertex<V, E>, AdjListEdge<V, E>> context){
+		GraphVisitor<AdjListVertex<V, E>, AdjListEdge<V, E>> visitor = new GraphVisitor<AdjListVertex<V, E>, AdjListEdge<V, E>>() {
+			@Override
+			public VisitResult preVisit(AdjListVertex<V, E> vertex) {
+				nodeConsumer.accept(vertex.getUserValue());
+				return VisitResult.CONTINUE;
 			}
-		}
-	}
 
-	private void consumeNode(Consumer<V> nodeConsumer, Consumer<E> linkConsumer, AdjListVertex<V, E> target) {
-		if(target.getVisitsCount() == 0){
-			nodeConsumer.accept(target.getUserValue());
-			traverseNode(target, nodeConsumer, linkConsumer);
-			target.incVisitCounts();
-		}
+			@Override
+			public VisitResult onEdge(AdjListVertex<V, E> from, AdjListEdge<V, E> edge) {
+				linkConsumer.accept(edge.getUserValue());
+				return VisitResult.CONTINUE;
+			}
+		};
+		new DepthFirstWalker<AdjListVertex<V, E>, AdjListEdge<V, E>>().walk(roots, visitor, context);
 	}
 	
 	public void clearAllVisitCounts(){
-		List<AdjListVertex<V, E>>allNodes = new ArrayList<>();
-		List<AdjListEdge<V, E>>allEdges = new ArrayList<>();
-		for(AdjListVertex<V, E> root: roots){
-			clearVertexAndSubgraph(allNodes, allEdges, root);
+		if (visitEpoch.advance())
+			return;
+		vertices.forEach(v -> v.clearVisitsCount());
+		for (AdjListEdge<V, E> edge : edges) {
+			if (edge != null)
+				edge.clearVisitsCount();
 		}
-		allNodes.stream().forEach(v -> v.clearVisitsCount());
-		allEdges.stream().forEach(e -> e.clearVisitsCount());
 	}
 	
-	private void clear(AdjListVertex<V, E> node, List<AdjListVertex<V, E>>allNodes, List<AdjListEdge<V, E>>allEdges){
-		for(AdjListEdge<V, E> edge: node.getOutgoingEdges()){
-			if(edge.getVisitsCount() != Integer.MAX_VALUE) {
-				clearEdgeAndSubgraph(allNodes, allEdges, edge);
-			}
-		}
-	}
-
-	private void clearEdgeAndSubgraph(List<AdjListVertex<V, E>> allNodes, List<AdjListEdge<V, E>> allEdges,
-			AdjListEdge<V, E> edge) {
-		
-		edge.setVisitsCount(Integer.MAX_VALUE);
-		allEdges.add(edge);
-		AdjListVertex<V, E> target = edge.getToVertex();
-		clearVertexAndSubgraph(allNodes, allEdges, target);
-	}
-
-	private void clearVertexAndSubgraph(List<AdjListVertex<V, E>> allNodes, List<AdjListEdge<V, E>> allEdges,
-			AdjListVertex<V, E> target) {
-		
-		if(target.getVisitsCount() != Integer.MAX_VALUE){
-			target.setVisitCounts(Integer.MAX_VALUE);
-			clear(target, allNodes, allEdges);
-			allNodes.add(target);
-		}
+	@Override
+	public Stream<AdjListVertex<V, E>> vertexStream() {
+		return vertices.stream();
 	}
 	
-	public synchronized int getMaxOutDegree() {
-		
-		for(AdjListVertex<V, E> root: roots){
-			consumeVertex(root, v -> {outCount = Math.max(outCount, v.getOutgoingEdges().size());}, (e)->{;});
-		}
-		clearAllVisitCounts();
-		return outCount;
+	@Override
+	public Stream<AdjListEdge<V, E>> edgeStream() {
+		return StreamSupport.stream(edgeElements.spliterator(), false);
 	}
 	
-	private void traverseVertex(AdjListVertex<V, E> node, Consumer<AdjListVertex<V, E>>vertexConsumer, Consumer<AdjListEdge<V, E>>edgeConsumer){
-		for(AdjListEdge<V, E> edge: node.getOutgoingEdges()){
-			if(edge.getVisitsCount() == 0) {
-				edgeConsumer.accept(edge);
-				AdjListVertex<V, E> target = edge.getToVertex();
-				consumeVertex(target, vertexConsumer, edgeConsumer);
-				edge.incVisitCounts();
-			}
-		}
-	}
-
-	private void consumeVertex(AdjListVertex<V, E> target, Consumer<AdjListVertex<V, E>> nodeConsumer, Consumer<AdjListEdge<V, E>> linkConsumer) {
-		if(target.getVisitsCount() == 0){
-			traverseVertex(target, nodeConsumer, linkConsumer);
-			nodeConsumer.accept(target);
-			target.incVisitCounts();
-		}
+	/** Reads the degree statistics: visit counts are not touched and
+	 * concurrent calls are possible.
+	 */
+	public int getMaxOutDegree() {
+		return degrees.getMaxOutDegree();
 	}
 
 	@Override
 	public int getMaxInDegree() {
-		return this.roots.size();
+		return degrees.getMaxInDegree();
+	}
+
+	/** @return the degrees of the attached vertices. The statistics are
+	 * maintained while edges are added, removed and redirected.
+	 */
+	public DegreeStatistics<AdjListVertex<V, E>> getDegreeStatistics() {
+		return degrees;
 	}
 
 	@Override
 	public int getNodeCount() {
-		throw new RuntimeException("Not yet implemented");
+		return vertices.size();
 	}
 
-
 	@Override
 	public int getLinkCount() {
-		// TODO Auto-generated method stub
-		return 0;
+		return edgeIds.size();
 	}
 
+	@Override
+	public int maxVertexId() {
+		return vertexIds.maxId();
+	}
 
 	@Override
-	public Collection<AdjListVertex<V, E>> getVertices(VertexType type) throws GraphException {
-		// TODO Auto-generated method stub
-		return null;
+	public int maxEdgeId() {
+		return edgeIds.maxId();
 	}
 
+	/** For VertexType.ANY, the result is a read-only view on the registry,
+	 * in the order the vertices have been attached.
+	 */
+	@Override
+	public Collection<AdjListVertex<V, E>> getVertices(VertexType type) throws GraphException {
+		if (type == VertexType.ANY)
+			return Collections.unmodifiableList(vertices);
+		List<AdjListVertex<V, E>> result = new ArrayList<>();
+		for (AdjListVertex<V, E> vertex : vertices) {
+			if (type == getVertexType(vertex))
+				result.add(vertex);
+		}
+		return result;
+	}
 
 	@Override
 	public Collection<AdjListVertex<V, E>> getPredecessorVertices(AdjListVertex<V, E> vertex) {
-		// TODO Auto-generated method stub
-		return null;
+		return incomingEdges.predecessors(vertex);
 	}
 
-
 	@Override
 	public AdjListVertex<V, E> getPredecessorVertex(AdjListVertex<V, E> destVertex, AdjListEdge<V, E> edge) {
-		// TODO Auto-generated method stub
-		return null;
+		if (edge.graph != this || edge.getToVertex() != destVertex)
+			return null;
+		return edgeSources.get(edge.getId());
 	}
 
-
 	@Override
 	public Collection<AdjListVertex<V, E>> getSuccessorVertices(AdjListVertex<V, E> vertex) {
-		// TODO Auto-generated method stub
-		return null;
+		List<AdjListVertex<V, E>> result = new ArrayList<>(vertex.edgeCount());
+		vertex.forEachEdge(edge -> {
+			if (edge.getToVertex() != null)
+				result.add(edge.getToVertex());
+		});
+		return result;
 	}
 
-
 	@Override
 	public VertexType getVertexType(AdjListVertex<V, E> vertex) {
-		// TODO Auto-generated method stub
-		return null;
+		boolean isEnd = vertex.getOutgoingEdges().isEmpty();
+		if (isRootVertex(vertex)) {
+			return isEnd ? VertexType.STARTEND : VertexType.START;
+		} else {
+			return isEnd ? VertexType.END : VertexType.NONE;
+		}
 	}
 }
\ No newline at end of file
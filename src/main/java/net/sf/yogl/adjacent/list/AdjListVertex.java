@@ -24,6 +24,10 @@ public class AdjListVertex <VERTEX_VALUE, EDGE_VALUE> extends Vertex<AdjListVert
     
     VERTEX_VALUE userValue = null;
     
+    /** graph this vertex has been attached to, notified of each edge update
+     */
+    AdjListGraph<VERTEX_VALUE, EDGE_VALUE> graph = null;
+    
     public AdjListVertex(){
     	super();
     }
@@ -57,6 +61,8 @@ public class AdjListVertex <VERTEX_VALUE, EDGE_VALUE> extends Vertex<AdjListVert
     public AdjListEdge<VERTEX_VALUE, EDGE_VALUE> addEdgeLast(AdjListEdge<VERTEX_VALUE, EDGE_VALUE> newEdge){
         if (newEdge != null){
         	outgoingEdges.add(newEdge);
+        	if (graph != null)
+        		graph.edgeAdded(this, newEdge);
         }
         return newEdge;
     }
@@ -68,25 +74,36 @@ public class AdjListVertex <VERTEX_VALUE, EDGE_VALUE> extends Vertex<AdjListVert
     public AdjListEdge<VERTEX_VALUE, EDGE_VALUE> addEdgeFirst(AdjListEdge<VERTEX_VALUE, EDGE_VALUE> newEdge){
         if (newEdge != null){
         	outgoingEdges.add(0, newEdge);
+        	if (graph != null)
+        		graph.edgeAdded(this, newEdge);
         }
         return newEdge;
     }
 
     public void removeEdge(AdjListEdge<VERTEX_VALUE, EDGE_VALUE> edge){
-        if (edge != null){
-            outgoingEdges.remove(edge);
+        if (edge != null && outgoingEdges.remove(edge) && graph != null){
+            graph.edgeRemoved(edge);
         }
     }
     
     public void removeEdgeAt(int pos) {
-    	outgoingEdges.remove(pos);
+    	AdjListEdge<VERTEX_VALUE, EDGE_VALUE> edge = outgoingEdges.remove(pos);
+    	if (graph != null)
+    		graph.edgeRemoved(edge);
     }
     
     public void removeIf(Predicate<AdjListEdge<VERTEX_VALUE, EDGE_VALUE>> p){
-    	outgoingEdges.removeIf(p);
+    	outgoingEdges.removeIf(edge -> {
+    		boolean remove = p.test(edge);
+    		if (remove && graph != null)
+    			graph.edgeRemoved(edge);
+    		return remove;
+    	});
     }
     
     public void clearEdges(){
+        if (graph != null)
+        	outgoingEdges.forEach(graph::edgeRemoved);
         outgoingEdges.clear();
     }
     
@@ -0,0 +1,89 @@
+package net.sf.yogl.components;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Graph;
+import net.sf.yogl.Vertex;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.types.DirectedAcyclicGraph;
+
+/** Builds the condensation of a graph: the graph of its strongly connected
+ * components. Each component becomes a vertex whose key is the component
+ * number and whose value is the list of its members. Two components are
+ * linked by one edge when at least one edge goes from the first one to the
+ * second one; the value of the edge is the number of such edges.
+ * The components without incoming edge are the roots of the condensation.
+ */
+public class CondensationBuilder<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	private final StronglyConnectedComponents<VERTEX, EDGE> components;
+
+	public CondensationBuilder(Graph<VERTEX, EDGE> graph) {
+		this(new StronglyConnectedComponents<>(graph));
+	}
+
+	public CondensationBuilder(StronglyConnectedComponents<VERTEX, EDGE> components) {
+		this.components = components;
+	}
+
+	public DirectedAcyclicGraph<Integer, List<VERTEX>, Integer, Integer> build() throws GraphException {
+		int count = components.getComponentCount();
+		int[] componentIds = components.getComponentIds();
+		int[] offsets = components.offsets();
+		int[] targets = components.targets();
+		int[] memberOffsets = components.memberOffsets();
+		int[] members = components.members();
+
+		// distinct edges between components, with the number of edges they stand for
+		int[] edgeFrom = new int[16];
+		int[] edgeTo = new int[16];
+		int[] edgeCounts = new int[16];
+		int edgeCount = 0;
+		int[] inDegrees = new int[count];
+		// last component having an edge to each component, and the position of that edge
+		int[] lastFrom = new int[count];
+		Arrays.fill(lastFrom, -1);
+		int[] positions = new int[count];
+		for (int c = 0; c < count; c++) {
+			for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+				int id = members[m];
+				for (int e = offsets[id]; e < offsets[id + 1]; e++) {
+					int d = componentIds[targets[e]];
+					if (d == c)
+						continue;
+					if (lastFrom[d] == c) {
+						edgeCounts[positions[d]]++;
+						continue;
+					}
+					if (edgeCount == edgeFrom.length) {
+						edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+						edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+						edgeCounts = Arrays.copyOf(edgeCounts, edgeCount * 2);
+					}
+					lastFrom[d] = c;
+					positions[d] = edgeCount;
+					edgeFrom[edgeCount] = c;
+					edgeTo[edgeCount] = d;
+					edgeCounts[edgeCount++] = 1;
+					inDegrees[d]++;
+				}
+			}
+		}
+
+		DirectedAcyclicGraph<Integer, List<VERTEX>, Integer, Integer> dag = new DirectedAcyclicGraph<>();
+		// components are numbered in reverse topological order: adding them
+		// from the last one keeps every edge in the order of the graph, which
+		// then never has to reorder its vertices
+		for (int c = count - 1; c >= 0; c--) {
+			dag.addRootVertex(new KeyValueVertex<>(c, components.getMembers(c)), inDegrees[c] == 0);
+		}
+		for (int i = 0; i < edgeCount; i++) {
+			dag.getVertex(edgeFrom[i]).tryAddEdge(new ValueEdge<>(edgeCounts[i], dag.getVertex(edgeTo[i])));
+		}
+		return dag;
+	}
+}
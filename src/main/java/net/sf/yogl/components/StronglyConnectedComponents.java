@@ -0,0 +1,222 @@
+package net.sf.yogl.components;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Graph;
+import net.sf.yogl.Vertex;
+
+/** Strongly connected components of a graph, found by Tarjan's algorithm.
+ * The depth first search runs on an explicit stack of int arrays, over a
+ * copy of the edges as arrays of vertex ids, so deep graphs cannot overflow
+ * the call stack and no object is created per vertex. The work is linear in
+ * the number of vertices and edges.
+ *
+ * Components are numbered in the order Tarjan's algorithm completes them,
+ * which is a reverse topological order: the edges between two components
+ * always go from a greater number to a smaller one.
+ *
+ * Vertices are identified by their id (see Vertex.getId) and the graph must
+ * not be modified during the computation.
+ */
+public class StronglyConnectedComponents<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	/** vertices by id
+	 */
+	private final Object[] vertices;
+
+	/** edges of vertex i: targets[offsets[i] .. offsets[i + 1][
+	 */
+	private final int[] offsets;
+
+	private final int[] targets;
+
+	/** component of each vertex, -1 for the ids without vertex
+	 */
+	private final int[] components;
+
+	private int componentCount = 0;
+
+	/** ids of the members of component c: members[memberOffsets[c] .. memberOffsets[c + 1][
+	 */
+	private int[] memberOffsets;
+
+	private int[] members;
+
+	public StronglyConnectedComponents(Graph<VERTEX, EDGE> graph) {
+		int size = Math.max(graph.maxVertexId(), 0);
+		vertices = new Object[size];
+		graph.vertexStream().forEach(vertex -> vertices[idOf(vertex, size)] = vertex);
+		offsets = new int[size + 1];
+		graph.forEachEdge((from, edge, to) -> {
+			if (to != null)
+				offsets[idOf(from, size) + 1]++;
+		});
+		for (int id = 0; id < size; id++) {
+			offsets[id + 1] += offsets[id];
+		}
+		targets = new int[offsets[size]];
+		int[] fill = Arrays.copyOf(offsets, size);
+		graph.forEachEdge((from, edge, to) -> {
+			if (to != null)
+				targets[fill[idOf(from, size)]++] = idOf(to, size);
+		});
+		components = new int[size];
+		run();
+		groupMembers();
+	}
+
+	/** @return the number of components
+	 */
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	/** @return the component of each vertex, indexed by vertex id, -1 for
+	 * the ids without vertex. The array is not copied.
+	 */
+	public int[] getComponentIds() {
+		return components;
+	}
+
+	public int getComponent(VERTEX vertex) {
+		return components[idOf(vertex, components.length)];
+	}
+
+	/** @return the vertices of the component
+	 */
+	public List<VERTEX> getMembers(int component) {
+		if (component < 0 || component >= componentCount)
+			throw new IndexOutOfBoundsException("Component: " + component + ", Count: " + componentCount);
+		return new Members(memberOffsets[component], memberOffsets[component + 1]);
+	}
+
+	/** Edges used by the computation, for the condensation
+	 */
+	int[] offsets() {
+		return offsets;
+	}
+
+	int[] targets() {
+		return targets;
+	}
+
+	/** ids of the members of component c: members()[memberOffsets()[c] .. memberOffsets()[c + 1][
+	 */
+	int[] memberOffsets() {
+		return memberOffsets;
+	}
+
+	int[] members() {
+		return members;
+	}
+
+	private void run() {
+		int size = components.length;
+		int[] index = new int[size];
+		int[] low = new int[size];
+		Arrays.fill(index, -1);
+		Arrays.fill(components, -1);
+		// vertices of the components not completed yet
+		int[] stack = new int[size];
+		int stackSize = 0;
+		// depth first path, with the position of the next edge of each vertex
+		int[] path = new int[size];
+		int[] nextEdge = new int[size];
+		int counter = 0;
+		for (int root = 0; root < size; root++) {
+			if (vertices[root] == null || index[root] >= 0)
+				continue;
+			int depth = 0;
+			path[0] = root;
+			nextEdge[0] = offsets[root];
+			index[root] = low[root] = counter++;
+			stack[stackSize++] = root;
+			while (depth >= 0) {
+				int v = path[depth];
+				if (nextEdge[depth] < offsets[v + 1]) {
+					int w = targets[nextEdge[depth]++];
+					if (index[w] < 0) {
+						depth++;
+						path[depth] = w;
+						nextEdge[depth] = offsets[w];
+						index[w] = low[w] = counter++;
+						stack[stackSize++] = w;
+					} else if (components[w] < 0) {
+						// w is on the stack
+						low[v] = Math.min(low[v], index[w]);
+					}
+				} else {
+					if (low[v] == index[v]) {
+						int w;
+						do {
+							w = stack[--stackSize];
+							components[w] = componentCount;
+						} while (w != v);
+						componentCount++;
+					}
+					depth--;
+					if (depth >= 0) {
+						int parent = path[depth];
+						low[parent] = Math.min(low[parent], low[v]);
+					}
+				}
+			}
+		}
+	}
+
+	/** Sorts the vertex ids by component
+	 */
+	private void groupMembers() {
+		memberOffsets = new int[componentCount + 1];
+		for (int component : components) {
+			if (component >= 0)
+				memberOffsets[component + 1]++;
+		}
+		for (int c = 0; c < componentCount; c++) {
+			memberOffsets[c + 1] += memberOffsets[c];
+		}
+		members = new int[memberOffsets[componentCount]];
+		int[] fill = Arrays.copyOf(memberOffsets, componentCount);
+		for (int id = 0; id < components.length; id++) {
+			if (components[id] >= 0)
+				members[fill[components[id]]++] = id;
+		}
+	}
+
+	private static int idOf(Vertex<?, ?> vertex, int size) {
+		int id = vertex.getId();
+		if (id < 0 || id >= size)
+			throw new IllegalArgumentException("Vertex without a valid id: " + vertex);
+		return id;
+	}
+
+	/** Read-only view on a range of 'members'
+	 */
+	private class Members extends AbstractList<VERTEX> {
+
+		private final int from;
+
+		private final int to;
+
+		Members(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public VERTEX get(int index) {
+			if (index < 0 || index >= to - from)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+			return (VERTEX) vertices[members[from + index]];
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+	}
+}
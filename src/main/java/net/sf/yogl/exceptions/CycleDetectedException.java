@@ -0,0 +1,39 @@
+package net.sf.yogl.exceptions;
+
+/** Thrown when a link would close a cycle in a graph that must remain
+ * acyclic.
+ */
+public class CycleDetectedException extends GraphException {
+
+	private static final long serialVersionUID = 4170538921356627381L;
+
+	private Object nodeKeyFrom;
+
+	private Object nodeKeyTo;
+
+	public CycleDetectedException() {
+		super();
+	}
+
+	public CycleDetectedException(String s) {
+		super(s);
+	}
+
+	/**
+	 * @param nodeKeyFrom origin of the rejected link
+	 * @param nodeKeyTo destination of the rejected link
+	 */
+	public CycleDetectedException(Object nodeKeyFrom, Object nodeKeyTo) {
+		super("Link from [" + nodeKeyFrom + "] to [" + nodeKeyTo + "] would close a cycle");
+		this.nodeKeyFrom = nodeKeyFrom;
+		this.nodeKeyTo = nodeKeyTo;
+	}
+
+	public Object getNodeKeyFrom() {
+		return nodeKeyFrom;
+	}
+
+	public Object getNodeKeyTo() {
+		return nodeKeyTo;
+	}
+}
@@ -0,0 +1,195 @@
+package net.sf.yogl.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In and out degrees of each vertex of a graph, plus the histogram of these
+ * degrees. Graphs update the statistics each time a vertex or an edge is
+ * added or removed. Min and max degrees are read in O(1), the average degree
+ * is computed from the number of vertices and edges.
+ * An edge may be recorded before its destination vertex is added: the
+ * destination is only counted in the histograms once it is added.
+ */
+public final class DegreeStatistics<K> {
+
+	private final Map<K, Degrees> degrees = new HashMap<>();
+
+	private final DegreeHistogram inDegrees = new DegreeHistogram();
+
+	private final DegreeHistogram outDegrees = new DegreeHistogram();
+
+	private int vertexCount = 0;
+
+	private int edgeCount = 0;
+
+	public void vertexAdded(K key) {
+		Degrees d = degrees.computeIfAbsent(key, k -> new Degrees());
+		if (!d.present) {
+			d.present = true;
+			vertexCount++;
+			inDegrees.add(d.in);
+			outDegrees.add(d.out);
+		}
+	}
+
+	/** Forgets the vertex. Its outgoing and incoming edges must have been
+	 * removed before.
+	 */
+	public void vertexRemoved(K key) {
+		Degrees d = degrees.get(key);
+		if (d == null || !d.present)
+			return;
+		vertexCount--;
+		inDegrees.remove(d.in);
+		outDegrees.remove(d.out);
+		if (d.in == 0 && d.out == 0) {
+			degrees.remove(key);
+		} else {
+			d.present = false;
+		}
+	}
+
+	public void edgeAdded(K fromKey, K toKey) {
+		edgeCount++;
+		Degrees from = degrees.computeIfAbsent(fromKey, k -> new Degrees());
+		if (from.present)
+			outDegrees.move(from.out, from.out + 1);
+		from.out++;
+		Degrees to = degrees.computeIfAbsent(toKey, k -> new Degrees());
+		if (to.present)
+			inDegrees.move(to.in, to.in + 1);
+		to.in++;
+	}
+
+	public void edgeRemoved(K fromKey, K toKey) {
+		Degrees from = degrees.get(fromKey);
+		Degrees to = degrees.get(toKey);
+		if (from == null || to == null || from.out == 0 || to.in == 0)
+			return;
+		edgeCount--;
+		if (from.present)
+			outDegrees.move(from.out, from.out - 1);
+		from.out--;
+		if (to.present)
+			inDegrees.move(to.in, to.in - 1);
+		to.in--;
+		if (!from.present && from.in == 0 && from.out == 0)
+			degrees.remove(fromKey);
+		if (!to.present && to.in == 0 && to.out == 0)
+			degrees.remove(toKey);
+	}
+
+	/** @return the number of edges pointing to the vertex
+	 */
+	public int inDegree(K key) {
+		Degrees d = degrees.get(key);
+		return (d == null) ? 0 : d.in;
+	}
+
+	/** @return the number of edges going out from the vertex
+	 */
+	public int outDegree(K key) {
+		Degrees d = degrees.get(key);
+		return (d == null) ? 0 : d.out;
+	}
+
+	public int getMaxInDegree() {
+		return inDegrees.max;
+	}
+
+	public int getMinInDegree() {
+		return inDegrees.min;
+	}
+
+	public int getMaxOutDegree() {
+		return outDegrees.max;
+	}
+
+	public int getMinOutDegree() {
+		return outDegrees.min;
+	}
+
+	/** @return the average number of outgoing (or incoming) edges per vertex,
+	 * 0 for an empty graph.
+	 */
+	public double getAverageDegree() {
+		return (vertexCount == 0) ? 0 : ((double) edgeCount) / vertexCount;
+	}
+
+	/** @return an array where the value at index 'd' is the number of
+	 * vertices having 'd' incoming edges.
+	 */
+	public int[] getInDegreeDistribution() {
+		return inDegrees.toArray();
+	}
+
+	/** @return an array where the value at index 'd' is the number of
+	 * vertices having 'd' outgoing edges.
+	 */
+	public int[] getOutDegreeDistribution() {
+		return outDegrees.toArray();
+	}
+
+	private static final class Degrees {
+
+		private int in = 0;
+
+		private int out = 0;
+
+		/** false while the vertex is only known as the end of an edge
+		 */
+		private boolean present = false;
+	}
+
+	/** Number of vertices per degree. Min and max are moved when the
+	 * vertices at that degree are all gone; a move costs at most the
+	 * distance to the next used degree.
+	 */
+	private static final class DegreeHistogram {
+
+		private int[] counts = new int[8];
+
+		private int size = 0;
+
+		private int min = 0;
+
+		private int max = 0;
+
+		private void add(int degree) {
+			if (degree >= counts.length) {
+				counts = Arrays.copyOf(counts, Math.max(degree + 1, counts.length * 2));
+			}
+			counts[degree]++;
+			if (size == 0 || degree < min)
+				min = degree;
+			if (size == 0 || degree > max)
+				max = degree;
+			size++;
+		}
+
+		private void remove(int degree) {
+			counts[degree]--;
+			size--;
+			if (size == 0) {
+				min = 0;
+				max = 0;
+				return;
+			}
+			while (counts[max] == 0)
+				max--;
+			while (counts[min] == 0)
+				min++;
+		}
+
+		private void move(int oldDegree, int newDegree) {
+			add(newDegree);
+			remove(oldDegree);
+		}
+
+		private int[] toArray() {
+			return Arrays.copyOf(counts, (size == 0) ? 0 : max + 1);
+		}
+	}
+}
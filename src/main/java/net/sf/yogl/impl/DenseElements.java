@@ -0,0 +1,81 @@
+package net.sf.yogl.impl;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * The vertices or the edges of a graph, packed at the beginning of an array
+ * whatever their ids. Removing an element moves the last one into its
+ * place, so adding and removing take constant time and the array has no
+ * hole: it can be split in exact halves by a SIZED and SUBSIZED
+ * spliterator.
+ */
+public final class DenseElements<T> {
+
+	private Object[] elements = new Object[16];
+
+	/** id of the element at each position of 'elements'
+	 */
+	private int[] ids = new int[16];
+
+	private int size = 0;
+
+	/** position of each element in 'elements', indexed by id. -1 if absent.
+	 */
+	private int[] positions = new int[0];
+
+	/** Adds the element with the given id, if it is not present yet.
+	 */
+	public void add(T element, int id) {
+		if (id >= positions.length) {
+			int oldLength = positions.length;
+			positions = Arrays.copyOf(positions, Math.max(id + 1, oldLength * 2));
+			Arrays.fill(positions, oldLength, positions.length, -1);
+		}
+		if (positions[id] >= 0)
+			return;
+		if (size == elements.length) {
+			elements = Arrays.copyOf(elements, size * 2);
+			ids = Arrays.copyOf(ids, size * 2);
+		}
+		positions[id] = size;
+		ids[size] = id;
+		elements[size++] = element;
+	}
+
+	/** Removes the element with the given id. The last element takes its
+	 * place.
+	 */
+	public void remove(int id) {
+		if (id < 0 || id >= positions.length || positions[id] < 0)
+			return;
+		int position = positions[id];
+		size--;
+		if (position != size) {
+			elements[position] = elements[size];
+			ids[position] = ids[size];
+			positions[ids[position]] = position;
+		}
+		elements[size] = null;
+		positions[id] = -1;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	public T get(int position) {
+		if (position < 0 || position >= size)
+			throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size);
+		return (T) elements[position];
+	}
+
+	/** @return a spliterator on the current elements. The collection must
+	 * not be modified while the spliterator is in use.
+	 */
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliterator(elements, 0, size, Spliterator.NONNULL | Spliterator.DISTINCT);
+	}
+}
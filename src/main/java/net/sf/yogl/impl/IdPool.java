@@ -0,0 +1,49 @@
+package net.sf.yogl.impl;
+
+import java.util.Arrays;
+
+/**
+ * Dense int ids for the vertices or the edges of a graph. Ids are taken in
+ * [0 .. maxId()[ and the ids of removed elements are given again before
+ * maxId() grows, so arrays indexed by id stay compact.
+ */
+public final class IdPool {
+
+	private int[] released = new int[16];
+
+	private int releasedCount = 0;
+
+	/** number of ids given so far, including the released ones
+	 */
+	private int maxId = 0;
+
+	/** @return an id that is not in use
+	 */
+	public int acquire() {
+		if (releasedCount > 0)
+			return released[--releasedCount];
+		return maxId++;
+	}
+
+	/** The id may be given again by the next call to acquire.
+	 */
+	public void release(int id) {
+		if (id < 0 || id >= maxId)
+			return;
+		if (releasedCount == released.length)
+			released = Arrays.copyOf(released, released.length * 2);
+		released[releasedCount++] = id;
+	}
+
+	/** @return an exclusive upper bound of the ids in use
+	 */
+	public int maxId() {
+		return maxId;
+	}
+
+	/** @return the number of ids in use
+	 */
+	public int size() {
+		return maxId - releasedCount;
+	}
+}
@@ -0,0 +1,120 @@
+package net.sf.yogl.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Reverse adjacency of a graph: for each destination vertex key, the list of
+ * (originating vertex, edge) pairs pointing to it. Graphs keep the index up
+ * to date each time an edge is added or removed, so that predecessor queries
+ * cost O(in-degree) instead of a scan of the whole graph.
+ * Edges are identified by reference, not with 'equals'.
+ */
+public final class IncomingEdgesIndex<K, VERTEX, EDGE> {
+
+	private final Map<K, List<Incoming<VERTEX, EDGE>>> incoming = new HashMap<>();
+
+	/** Records that 'edge' goes from 'fromVertex' to the vertex identified
+	 * by 'toKey'.
+	 */
+	public void add(K toKey, VERTEX fromVertex, EDGE edge) {
+		incoming.computeIfAbsent(toKey, k -> new ArrayList<>()).add(new Incoming<>(fromVertex, edge));
+	}
+
+	/** Forgets 'edge'.
+	 * @return false if the edge was not registered for 'toKey'
+	 */
+	public boolean remove(K toKey, EDGE edge) {
+		List<Incoming<VERTEX, EDGE>> list = incoming.get(toKey);
+		if (list == null)
+			return false;
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i).edge == edge) {
+				list.remove(i);
+				if (list.isEmpty())
+					incoming.remove(toKey);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** @return the number of edges pointing to the vertex
+	 */
+	public int inDegree(K toKey) {
+		List<Incoming<VERTEX, EDGE>> list = incoming.get(toKey);
+		return (list == null) ? 0 : list.size();
+	}
+
+	/** @return the distinct originating vertices of the edges pointing to the
+	 * vertex, in insertion order.
+	 */
+	public List<VERTEX> predecessors(K toKey) {
+		List<Incoming<VERTEX, EDGE>> list = incoming.get(toKey);
+		if (list == null)
+			return Collections.emptyList();
+		Map<VERTEX, Boolean> seen = new IdentityHashMap<>();
+		List<VERTEX> result = new ArrayList<>(list.size());
+		for (Incoming<VERTEX, EDGE> entry : list) {
+			if (seen.put(entry.from, Boolean.TRUE) == null) {
+				result.add(entry.from);
+			}
+		}
+		return result;
+	}
+
+	/** @return the originating vertex of the first edge pointing to the vertex
+	 * and equal to 'edge', or null if there is none.
+	 */
+	public VERTEX predecessor(K toKey, EDGE edge) {
+		List<Incoming<VERTEX, EDGE>> list = incoming.get(toKey);
+		if (list != null) {
+			for (Incoming<VERTEX, EDGE> entry : list) {
+				if (entry.edge == edge || entry.edge.equals(edge)) {
+					return entry.from;
+				}
+			}
+		}
+		return null;
+	}
+
+	/** Calls 'action' with each (originating vertex, edge) pair pointing to
+	 * the vertex. The action may remove edges from the index.
+	 */
+	public void forEachIncoming(K toKey, BiConsumer<VERTEX, EDGE> action) {
+		List<Incoming<VERTEX, EDGE>> list = incoming.get(toKey);
+		if (list == null)
+			return;
+		for (Incoming<VERTEX, EDGE> entry : new ArrayList<>(list)) {
+			action.accept(entry.from, entry.edge);
+		}
+	}
+
+	/** @return the keys of all vertices having at least one incoming edge
+	 */
+	public Collection<K> targets() {
+		return incoming.keySet();
+	}
+
+	public void clear() {
+		incoming.clear();
+	}
+
+	private static final class Incoming<VERTEX, EDGE> {
+
+		private final VERTEX from;
+
+		private final EDGE edge;
+
+		private Incoming(VERTEX from, EDGE edge) {
+			this.from = from;
+			this.edge = edge;
+		}
+	}
+}
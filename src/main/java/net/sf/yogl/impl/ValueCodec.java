@@ -0,0 +1,66 @@
+package net.sf.yogl.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts keys and user values to bytes, and back, for graph files and
+ * iterator checkpoints.
+ * Null values never reach a codec: they are recorded by the file itself.
+ */
+public interface ValueCodec<T> {
+
+	public byte[] encode(T value);
+
+	/** @param buffer holds exactly the bytes produced by encode, from its
+	 * position to its limit
+	 */
+	public T decode(ByteBuffer buffer);
+
+	/** UTF-8 strings
+	 */
+	public static final ValueCodec<String> STRING = new ValueCodec<String>() {
+
+		@Override
+		public byte[] encode(String value) {
+			return value.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String decode(ByteBuffer buffer) {
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	/** Big-endian integers
+	 */
+	public static final ValueCodec<Integer> INTEGER = new ValueCodec<Integer>() {
+
+		@Override
+		public byte[] encode(Integer value) {
+			return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+		}
+
+		@Override
+		public Integer decode(ByteBuffer buffer) {
+			return buffer.getInt(buffer.position());
+		}
+	};
+
+	/** Big-endian longs
+	 */
+	public static final ValueCodec<Long> LONG = new ValueCodec<Long>() {
+
+		@Override
+		public byte[] encode(Long value) {
+			return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+		}
+
+		@Override
+		public Long decode(ByteBuffer buffer) {
+			return buffer.getLong(buffer.position());
+		}
+	};
+}
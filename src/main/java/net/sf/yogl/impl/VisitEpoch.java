@@ -0,0 +1,29 @@
+package net.sf.yogl.impl;
+
+/**
+ * Traversal epoch of a graph. Vertices and edges stamp their visit count
+ * with the epoch in which it was last written; a count stamped with an
+ * older epoch reads as 0. Moving to the next epoch thus clears all the
+ * visit counts of the graph at once.
+ */
+public final class VisitEpoch {
+
+	private int current = 0;
+
+	public int current() {
+		return current;
+	}
+
+	/** Moves to the next epoch.
+	 * @return false if the counter has wrapped around: old stamps may match
+	 *         the new epoch, so the visit counts must be cleared one by one.
+	 */
+	public boolean advance() {
+		if (current == Integer.MAX_VALUE) {
+			current = 0;
+			return false;
+		}
+		current++;
+		return true;
+	}
+}
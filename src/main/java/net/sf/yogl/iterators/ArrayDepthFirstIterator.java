@@ -0,0 +1,195 @@
+package net.sf.yogl.iterators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Vertex;
+
+/** Depth first iterator keeping its stack in parallel arrays: for each
+ * level of the current path, the vertex, the edge used to reach it, the
+ * position of its next edge and its number of edges. The arrays grow with
+ * the depth of the traversal and are reused: going down or up one level
+ * allocates nothing.
+ *
+ * Vertices are returned in preorder, starting from each start vertex in
+ * turn. A vertex is returned each time it is reached, as long as it has
+ * been returned less than maxCycling times; its edges are then explored.
+ * Visits are counted in a TraversalContext, by default an isolated one.
+ *
+ * This differs from DepthFirstIterator, which only follows an edge once
+ * its target has been visited at least maxCycling times: with maxCycling
+ * set to 1 on a cyclic graph, DepthFirstIterator returns nothing while
+ * this iterator returns each reachable vertex once.
+ *
+ * Edges are read by position with Vertex.edgeAt. Vertices that cannot read
+ * their edges by position in constant time (see Vertex.hasIndexedEdges)
+ * are browsed with an iterator, created when the vertex is pushed.
+ */
+public class ArrayDepthFirstIterator<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> implements Iterator<VERTEX> {
+
+	private static final int INITIAL_DEPTH = 16;
+
+	private final Object[] startVertices;
+
+	/** position in startVertices of the next start vertex
+	 */
+	private int nextStart = 0;
+
+	private final int maxCycling;
+
+	private final TraversalContext<VERTEX, EDGE> context;
+
+	/** frames of the current path, from the start vertex at index 0
+	 */
+	private Object[] frameVertices = new Object[INITIAL_DEPTH];
+
+	private Object[] frameEdges = new Object[INITIAL_DEPTH];
+
+	private int[] frameNextEdge = new int[INITIAL_DEPTH];
+
+	private int[] frameEdgeCount = new int[INITIAL_DEPTH];
+
+	/** edge iterators of the frames whose edges cannot be read by position
+	 */
+	private Object[] frameIterators = new Object[INITIAL_DEPTH];
+
+	private int depth = 0;
+
+	/** vertex to be returned by the next call to next, null at the end.
+	 * Only valid if 'advanced' is true.
+	 */
+	private VERTEX pending;
+
+	/** true if the stack has been moved past the last returned vertex
+	 */
+	private boolean advanced = false;
+
+	public ArrayDepthFirstIterator(Collection<VERTEX> startVertices, int maxCycling) {
+		this(startVertices, maxCycling, TraversalContext.isolated());
+	}
+
+	/** Counts visits in the given context. The context is not cleared.
+	 */
+	public ArrayDepthFirstIterator(Collection<VERTEX> startVertices, int maxCycling, TraversalContext<VERTEX, EDGE> context) {
+		this.startVertices = (startVertices == null) ? new Object[0] : startVertices.toArray();
+		this.maxCycling = maxCycling;
+		this.context = context;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (!advanced) {
+			pending = advance();
+			advanced = true;
+		}
+		return pending != null;
+	}
+
+	@Override
+	public VERTEX next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		advanced = false;
+		return pending;
+	}
+
+	/** @return the vertices from the start vertex to the last returned
+	 * vertex. Only valid until the next call to hasNext.
+	 */
+	public List<VERTEX> nodePath() {
+		List<VERTEX> result = new ArrayList<>(depth);
+		for (int i = 0; i < depth; i++) {
+			result.add(vertexAt(i));
+		}
+		return result;
+	}
+
+	/** @return the edges used to reach the last returned vertex from the
+	 * start vertex. Only valid until the next call to hasNext.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<EDGE> linkPath() {
+		List<EDGE> result = new ArrayList<>(depth);
+		for (int i = 1; i < depth; i++) {
+			result.add((EDGE) frameEdges[i]);
+		}
+		return result;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/** Moves to the next vertex to be returned, and pushes its frame.
+	 * @return the vertex, or null at the end of the traversal
+	 */
+	@SuppressWarnings("unchecked")
+	private VERTEX advance() {
+		while (depth > 0) {
+			int top = depth - 1;
+			if (frameNextEdge[top] < frameEdgeCount[top]) {
+				EDGE edge = edgeOf(top);
+				VERTEX target = (edge == null) ? null : edge.getToVertex();
+				if (target != null && context.getVisitsCount(target) < maxCycling) {
+					push(target, edge);
+					return target;
+				}
+			} else {
+				pop();
+			}
+		}
+		while (nextStart < startVertices.length) {
+			VERTEX start = (VERTEX) startVertices[nextStart++];
+			if (start != null && context.getVisitsCount(start) < maxCycling) {
+				push(start, null);
+				return start;
+			}
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private EDGE edgeOf(int frame) {
+		int position = frameNextEdge[frame]++;
+		Iterator<EDGE> iterator = (Iterator<EDGE>) frameIterators[frame];
+		if (iterator != null)
+			return iterator.next();
+		return vertexAt(frame).edgeAt(position);
+	}
+
+	private void push(VERTEX vertex, EDGE edge) {
+		if (depth == frameVertices.length) {
+			int capacity = depth * 2;
+			frameVertices = Arrays.copyOf(frameVertices, capacity);
+			frameEdges = Arrays.copyOf(frameEdges, capacity);
+			frameNextEdge = Arrays.copyOf(frameNextEdge, capacity);
+			frameEdgeCount = Arrays.copyOf(frameEdgeCount, capacity);
+			frameIterators = Arrays.copyOf(frameIterators, capacity);
+		}
+		context.incVisitCounts(vertex);
+		frameVertices[depth] = vertex;
+		frameEdges[depth] = edge;
+		frameNextEdge[depth] = 0;
+		frameEdgeCount[depth] = vertex.edgeCount();
+		frameIterators[depth] = (frameEdgeCount[depth] == 0 || vertex.hasIndexedEdges()) ? null : vertex.getOutgoingEdges().iterator();
+		depth++;
+	}
+
+	private void pop() {
+		depth--;
+		frameVertices[depth] = null;
+		frameEdges[depth] = null;
+		frameIterators[depth] = null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private VERTEX vertexAt(int frame) {
+		return (VERTEX) frameVertices[frame];
+	}
+}
@@ -1,58 +1,275 @@
-   
+
 package net.sf.yogl.iterators;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import net.sf.yogl.Edge;
 import net.sf.yogl.Graph;
 import net.sf.yogl.Vertex;
+import net.sf.yogl.exceptions.GraphCorruptedException;
 import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.impl.ValueCodec;
 
+/** Breadth first iterator working level by level. The vertices of the
+ * current level (the frontier) are returned one by one with next, or all
+ * at once with nextLevel. The roots of the graph are at depth 0.
+ * The state of the iterator can be saved with writeCheckpoint and restored
+ * with resume.
+ */
 public class BreadthFirstIterator<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> implements Iterator<VERTEX> {
 
-	/** breadth first working structure
+	/** vertices of the current level
+	 */
+	private ArrayList<VERTEX> frontier = new ArrayList<>();
+
+	/** position in frontier of the next vertex to be returned
+	 */
+	private int position = 0;
+
+	/** vertices reached from the already returned vertices of the current level
+	 */
+	private ArrayList<VERTEX> nextFrontier = new ArrayList<>();
+
+	/** depth of the vertices of 'frontier'
+	 */
+	private int level = 0;
+
+	/** depth of the last returned vertices
+	 */
+	private int returnedLevel = 0;
+
+	private static final int INITIAL_DEPTHS = 16;
+
+	/** depth plus one at which each vertex was first reached, indexed by
+	 * vertex id. 0 if not reached yet, so that a new or grown array needs
+	 * no filling. The array grows with the ids of the reached vertices.
 	 */
-	private Deque<VERTEX> queue = new ArrayDeque<>();
+	private int[] depths = new int[INITIAL_DEPTHS];
+
+	/** depths of the vertices that have no id
+	 */
+	private Map<VERTEX, Integer> otherDepths = null;
 
 	/** Maximum number of times a node can be visited.
 	 */
 	private int maxCycling;
 
+	/** Visit counts of this traversal
+	 */
+	private final TraversalContext<VERTEX, EDGE> context;
+
+	private final Graph<VERTEX, EDGE> graph;
+
 	/** Creates new BreadthFirstIterator. The instance is created by an
 	 *  implementation of AbstractGraph
-	 *  Precondition: graph & node must contain valid values. All node
-	 *  counters (used to count the number of visits) must be reset.
+	 *  Precondition: graph & node must contain valid values.
+	 *  Visits are counted in an isolated context: the graph is not modified.
 	 */
 	public BreadthFirstIterator(Graph<VERTEX, EDGE> graph, int maxCycling)	throws NodeNotFoundException {
-		queue.addAll(graph.getRoots());
+		this(graph, maxCycling, TraversalContext.isolated());
+	}
+
+	/** Creates new BreadthFirstIterator counting visits in the given context.
+	 *  The context is cleared before the traversal starts.
+	 */
+	public BreadthFirstIterator(Graph<VERTEX, EDGE> graph, int maxCycling, TraversalContext<VERTEX, EDGE> context)	throws NodeNotFoundException {
 		this.maxCycling = maxCycling;
-		graph.clearAllVisitCounts();
+		this.context = context;
+		this.graph = graph;
+		context.clear();
+		for (VERTEX root : graph.getRoots()) {
+			frontier.add(root);
+			setDepth(root, 0);
+		}
+	}
+
+	/** Restored iterator, filled by resume
+	 */
+	private BreadthFirstIterator(Graph<VERTEX, EDGE> graph, TraversalContext<VERTEX, EDGE> context) {
+		this.context = context;
+		this.graph = graph;
+	}
+
+	/** Writes the state of the iterator: the vertices of the current level
+	 * not returned yet, the next level, the depths of the reached vertices
+	 * and the visit counts of the context. Vertices are written as their key.
+	 * @param keyOf gives the key of a vertex
+	 */
+	public <K> void writeCheckpoint(DataOutput out, Function<VERTEX, K> keyOf, ValueCodec<K> keyCodec) throws IOException {
+		Checkpoints.writeHeader(out, Checkpoints.BREADTH_FIRST);
+		out.writeInt(maxCycling);
+		Checkpoints.writeCount(out, level);
+		Checkpoints.writeCount(out, returnedLevel);
+		Checkpoints.writeVertices(out, frontier.subList(position, frontier.size()), keyOf, keyCodec);
+		Checkpoints.writeVertices(out, nextFrontier, keyOf, keyCodec);
+		List<VERTEX> reached = graph.vertexStream()
+				.filter(vertex -> vertex.getId() >= 0 && getDepth(vertex) >= 0)
+				.collect(Collectors.toList());
+		if (otherDepths != null)
+			reached.addAll(otherDepths.keySet());
+		Checkpoints.writeCount(out, reached.size());
+		for (VERTEX vertex : reached) {
+			Checkpoints.writeVertex(out, vertex, keyOf, keyCodec);
+			Checkpoints.writeCount(out, getDepth(vertex));
+		}
+		Checkpoints.writeVisitCounts(out, context, keyOf, keyCodec);
+	}
+
+	/** Restores an iterator saved by writeCheckpoint, counting its visits in
+	 * an isolated context.
+	 * @param graph the graph of the vertices
+	 * @param vertexOf gives the vertex of a key, null if there is none
+	 */
+	public static <V extends Vertex<V, E>, E extends Edge<E, V>, K> BreadthFirstIterator<V, E> resume(Graph<V, E> graph, DataInput in,
+			Function<K, V> vertexOf, ValueCodec<K> keyCodec) throws IOException, GraphCorruptedException {
+		return resume(graph, in, vertexOf, keyCodec, TraversalContext.isolated());
+	}
+
+	/** Restores an iterator saved by writeCheckpoint. The context is cleared,
+	 * then given the saved visit counts.
+	 */
+	public static <V extends Vertex<V, E>, E extends Edge<E, V>, K> BreadthFirstIterator<V, E> resume(Graph<V, E> graph, DataInput in,
+			Function<K, V> vertexOf, ValueCodec<K> keyCodec, TraversalContext<V, E> context) throws IOException, GraphCorruptedException {
+		Checkpoints.readHeader(in, Checkpoints.BREADTH_FIRST);
+		BreadthFirstIterator<V, E> iter = new BreadthFirstIterator<>(graph, context);
+		iter.maxCycling = in.readInt();
+		iter.level = Checkpoints.readCount(in);
+		iter.returnedLevel = Checkpoints.readCount(in);
+		Checkpoints.readVertices(in, iter.frontier, vertexOf, keyCodec);
+		Checkpoints.readVertices(in, iter.nextFrontier, vertexOf, keyCodec);
+		int reached = Checkpoints.readCount(in);
+		for (int i = 0; i < reached; i++) {
+			V vertex = Checkpoints.readVertex(in, vertexOf, keyCodec);
+			iter.setDepth(vertex, Checkpoints.readCount(in));
+		}
+		Checkpoints.readVisitCounts(in, context, vertexOf, keyCodec);
+		return iter;
 	}
 
 	/** Returns the next node key in breadth first order
 	 */
 	public VERTEX next() throws NoSuchElementException {
-		if (queue.isEmpty())
+		if (!hasNext())
 			throw new NoSuchElementException("Empty iterator");
-		VERTEX current = queue.poll();
-		if (current != null) {
-			current.getOutgoingEdges().stream().map(edge -> edge.getToVertex())
-					.filter(vertex -> vertex.getVisitsCount() < maxCycling).peek(vertex -> vertex.incVisitCounts())
-					.forEach(vertex -> queue.addLast((VERTEX) vertex));
-		}
+		VERTEX current = frontier.get(position++);
+		returnedLevel = level;
+		expand(current);
 		return current;
 	}
 
 	/** Return false when the iterator reaches the end of the graph
 	 */
 	public boolean hasNext() {
-		return !queue.isEmpty();
+		if (position == frontier.size()) {
+			moveToNextLevel();
+		}
+		return position < frontier.size();
+	}
+
+	/** Returns all the vertices of the current level that have not been
+	 * returned yet, and moves to the next level.
+	 * @return the vertices, all at depth getLevel()
+	 */
+	public List<VERTEX> nextLevel() throws NoSuchElementException {
+		if (!hasNext())
+			throw new NoSuchElementException("Empty iterator");
+		List<VERTEX> result = new ArrayList<>(frontier.size() - position);
+		for (int i = position; i < frontier.size(); i++) {
+			VERTEX current = frontier.get(i);
+			expand(current);
+			result.add(current);
+		}
+		position = frontier.size();
+		returnedLevel = level;
+		return result;
+	}
+
+	/** @return the depth of the vertices returned by the last call to next
+	 * or nextLevel, 0 before the first call.
+	 */
+	public int getLevel() {
+		return returnedLevel;
+	}
+
+	/** @return the depth at which the vertex was first reached, -1 if the
+	 * traversal has not reached it yet.
+	 */
+	public int getDepth(VERTEX vertex) {
+		int id = vertex.getId();
+		if (id >= 0) {
+			return (id < depths.length) ? depths[id] - 1 : -1;
+		}
+		if (otherDepths == null)
+			return -1;
+		Integer depth = otherDepths.get(vertex);
+		return (depth == null) ? -1 : depth;
 	}
 
 	public void remove() {
 		throw new UnsupportedOperationException();
 	}
+
+	/** Adds the successors of 'current' to the next level
+	 */
+	private void expand(VERTEX current) {
+		if (current == null)
+			return;
+		if (current.hasIndexedEdges()) {
+			int count = current.edgeCount();
+			for (int i = 0; i < count; i++) {
+				reach(current.edgeAt(i).getToVertex());
+			}
+		} else {
+			for (EDGE edge : current.getOutgoingEdges()) {
+				reach(edge.getToVertex());
+			}
+		}
+	}
+
+	private void reach(VERTEX vertex) {
+		if (context.getVisitsCount(vertex) < maxCycling) {
+			context.incVisitCounts(vertex);
+			nextFrontier.add(vertex);
+			if (getDepth(vertex) < 0) {
+				setDepth(vertex, level + 1);
+			}
+		}
+	}
+
+	/** Swaps the frontiers, if the next one is not empty
+	 */
+	private void moveToNextLevel() {
+		if (nextFrontier.isEmpty())
+			return;
+		ArrayList<VERTEX> done = frontier;
+		done.clear();
+		frontier = nextFrontier;
+		nextFrontier = done;
+		position = 0;
+		level++;
+	}
+
+	private void setDepth(VERTEX vertex, int depth) {
+		int id = vertex.getId();
+		if (id >= 0) {
+			if (id >= depths.length)
+				depths = Arrays.copyOf(depths, Math.max(id + 1, depths.length * 2));
+			depths[id] = depth + 1;
+		} else {
+			if (otherDepths == null)
+				otherDepths = new IdentityHashMap<>();
+			otherDepths.put(vertex, depth);
+		}
+	}
 }
@@ -0,0 +1,109 @@
+package net.sf.yogl.iterators;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Vertex;
+
+/** Result of a breadth first search: the reached vertices in level order,
+ * with the depth and the parent of each one. Depths and parents are stored
+ * in arrays indexed by vertex id (see Vertex.getId). The source vertices are
+ * at depth 0 and have no parent.
+ */
+public class BreadthFirstTree<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	private final int[] depths;
+
+	private final Object[] parents;
+
+	/** reached vertices, level after level
+	 */
+	private final Object[] order;
+
+	/** position in 'order' of the first vertex of each level, followed by
+	 * the number of reached vertices
+	 */
+	private final int[] levelStarts;
+
+	BreadthFirstTree(int[] depths, Object[] parents, Object[] order, int[] levelStarts) {
+		this.depths = depths;
+		this.parents = parents;
+		this.order = order;
+		this.levelStarts = levelStarts;
+	}
+
+	/** @return true if the vertex has been reached by the search
+	 */
+	public boolean isReached(VERTEX vertex) {
+		return getDepth(vertex) >= 0;
+	}
+
+	/** @return the length of the shortest path from a source to the vertex,
+	 * -1 if the vertex has not been reached.
+	 */
+	public int getDepth(VERTEX vertex) {
+		int id = vertex.getId();
+		return (id >= 0 && id < depths.length) ? depths[id] : -1;
+	}
+
+	/** @return the vertex from which 'vertex' has been reached, null for the
+	 * sources and the vertices that have not been reached.
+	 */
+	@SuppressWarnings("unchecked")
+	public VERTEX getParent(VERTEX vertex) {
+		int id = vertex.getId();
+		return (id >= 0 && id < parents.length) ? (VERTEX) parents[id] : null;
+	}
+
+	/** @return the number of reached vertices
+	 */
+	public int getReachedCount() {
+		return order.length;
+	}
+
+	/** @return the number of levels, that is the greatest depth plus one
+	 */
+	public int getLevelCount() {
+		return levelStarts.length - 1;
+	}
+
+	/** @return the reached vertices, in level order
+	 */
+	public List<VERTEX> getVertices() {
+		return new Slice(0, order.length);
+	}
+
+	/** @return the vertices at the given depth
+	 */
+	public List<VERTEX> getLevel(int depth) {
+		if (depth < 0 || depth >= getLevelCount())
+			throw new IndexOutOfBoundsException("Level: " + depth + ", Levels: " + getLevelCount());
+		return new Slice(levelStarts[depth], levelStarts[depth + 1]);
+	}
+
+	private class Slice extends AbstractList<VERTEX> {
+
+		private final int from;
+
+		private final int to;
+
+		Slice(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public VERTEX get(int index) {
+			if (index < 0 || index >= to - from)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+			return (VERTEX) order[from + index];
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+	}
+}
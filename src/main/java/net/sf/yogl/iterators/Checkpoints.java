@@ -0,0 +1,147 @@
+package net.sf.yogl.iterators;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Vertex;
+import net.sf.yogl.exceptions.GraphCorruptedException;
+import net.sf.yogl.impl.ValueCodec;
+
+/** Reading and writing of iterator checkpoints. A checkpoint starts with a
+ * magic number, the kind of iterator and a version. Vertices are written as
+ * their key, length prefixed, and small numbers as variable length ints.
+ */
+final class Checkpoints {
+
+	private static final int MAGIC = 0x50434759;
+
+	private static final int VERSION = 1;
+
+	static final int DEPTH_FIRST = 1;
+
+	static final int BREADTH_FIRST = 2;
+
+	private Checkpoints() {
+	}
+
+	static void writeHeader(DataOutput out, int kind) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeByte(kind);
+		out.writeByte(VERSION);
+	}
+
+	static void readHeader(DataInput in, int kind) throws IOException, GraphCorruptedException {
+		if (in.readInt() != MAGIC)
+			throw new GraphCorruptedException("Not an iterator checkpoint");
+		int found = in.readByte();
+		if (found != kind)
+			throw new GraphCorruptedException("Checkpoint of another kind of iterator: " + found);
+		int version = in.readByte();
+		if (version != VERSION)
+			throw new GraphCorruptedException("Unsupported checkpoint version: " + version);
+	}
+
+	static void writeCount(DataOutput out, int value) throws IOException {
+		if (value < 0)
+			throw new IllegalArgumentException("Negative count: " + value);
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	static int readCount(DataInput in) throws IOException, GraphCorruptedException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				if (value < 0)
+					throw new GraphCorruptedException("Invalid count in checkpoint");
+				return value;
+			}
+		}
+		throw new GraphCorruptedException("Invalid count in checkpoint");
+	}
+
+	static <V, K> void writeVertex(DataOutput out, V vertex, Function<V, K> keyOf, ValueCodec<K> keyCodec) throws IOException {
+		byte[] bytes = keyCodec.encode(keyOf.apply(vertex));
+		writeCount(out, bytes.length);
+		out.write(bytes);
+	}
+
+	static <V, K> V readVertex(DataInput in, Function<K, V> vertexOf, ValueCodec<K> keyCodec) throws IOException, GraphCorruptedException {
+		byte[] bytes = new byte[readCount(in)];
+		in.readFully(bytes);
+		K key = keyCodec.decode(ByteBuffer.wrap(bytes));
+		V vertex = vertexOf.apply(key);
+		if (vertex == null)
+			throw new GraphCorruptedException("Checkpoint refers to an unknown vertex: " + key);
+		return vertex;
+	}
+
+	/** null is written as an absent flag
+	 */
+	static <V, K> void writeNullableVertex(DataOutput out, V vertex, Function<V, K> keyOf, ValueCodec<K> keyCodec) throws IOException {
+		out.writeBoolean(vertex != null);
+		if (vertex != null)
+			writeVertex(out, vertex, keyOf, keyCodec);
+	}
+
+	static <V, K> V readNullableVertex(DataInput in, Function<K, V> vertexOf, ValueCodec<K> keyCodec) throws IOException, GraphCorruptedException {
+		return in.readBoolean() ? readVertex(in, vertexOf, keyCodec) : null;
+	}
+
+	static <V, K> void writeVertices(DataOutput out, List<V> vertices, Function<V, K> keyOf, ValueCodec<K> keyCodec) throws IOException {
+		writeCount(out, vertices.size());
+		for (V vertex : vertices) {
+			writeVertex(out, vertex, keyOf, keyCodec);
+		}
+	}
+
+	static <V, K> void readVertices(DataInput in, List<V> vertices, Function<K, V> vertexOf, ValueCodec<K> keyCodec) throws IOException, GraphCorruptedException {
+		int count = readCount(in);
+		for (int i = 0; i < count; i++) {
+			vertices.add(readVertex(in, vertexOf, keyCodec));
+		}
+	}
+
+	/** Writes the vertices having a visit count in the context, with their count
+	 */
+	static <V extends Vertex<V, E>, E extends Edge<E, V>, K> void writeVisitCounts(DataOutput out, TraversalContext<V, E> context,
+			Function<V, K> keyOf, ValueCodec<K> keyCodec) throws IOException {
+		List<V> vertices = new ArrayList<>();
+		List<Integer> counts = new ArrayList<>();
+		context.forEachVisitedVertex((vertex, count) -> {
+			vertices.add(vertex);
+			counts.add(count);
+		});
+		writeCount(out, vertices.size());
+		for (int i = 0; i < vertices.size(); i++) {
+			writeVertex(out, vertices.get(i), keyOf, keyCodec);
+			writeCount(out, counts.get(i));
+		}
+	}
+
+	/** Clears the context and sets the visit counts read from the checkpoint
+	 */
+	static <V extends Vertex<V, E>, E extends Edge<E, V>, K> void readVisitCounts(DataInput in, TraversalContext<V, E> context,
+			Function<K, V> vertexOf, ValueCodec<K> keyCodec) throws IOException, GraphCorruptedException {
+		context.clear();
+		int size = readCount(in);
+		for (int i = 0; i < size; i++) {
+			V vertex = readVertex(in, vertexOf, keyCodec);
+			int count = readCount(in);
+			while (context.getVisitsCount(vertex) < count) {
+				context.incVisitCounts(vertex);
+			}
+		}
+	}
+}
@@ -1,22 +1,32 @@
 
 package net.sf.yogl.iterators;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import net.sf.yogl.Edge;
 import net.sf.yogl.Vertex;
+import net.sf.yogl.exceptions.GraphCorruptedException;
 import net.sf.yogl.exceptions.GraphException;
 import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.impl.ValueCodec;
 
 /** Given a specific graph, this iterator returns the next vertex in a
- * depth first order. Iterators cannot be concurrent on the same graph.
- * This limitation is due to the local variables in vertices and edges
- * being modified during the traversal.
+ * depth first order. Visits are counted in a TraversalContext, by default
+ * an isolated one, so that several iterators can run concurrently on the
+ * same graph as long as the graph is not modified.
+ * The state of the iterator can be saved with writeCheckpoint and restored
+ * with resume, on the same graph or on a copy with the same vertex keys and
+ * edge order.
  */
 
 public class DepthFirstIterator<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> implements Iterator<VERTEX> {
@@ -27,24 +37,40 @@ public class DepthFirstIterator<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extend
 		 */
 		private V1 old_node = null;
 		
-		/** Reference to links exiting from this vertex
-		 *  Order in this stack is extremely important.
-		 *  It MUST follow the same order as the one in the
-		 *  vStack.
+		/** Copy of the links exiting from this vertex, only made when
+		 *  the vertex cannot give its edges by position in constant
+		 *  time. Otherwise the edges are read in place with edgeAt.
 		 */
-		private LinkedList<E1> outgoingEdges = new LinkedList<>();
+		private List<E1> outgoingEdges = null;
+		
+		/** Position of the next edge to be returned
+		 */
+		private int position = 0;
+		
+		/** Number of edges of the vertex when the iterator was created
+		 */
+		private final int count;
 		
 		public LinearEdgesIterator(V1 node){
 			this.old_node = node;
-			outgoingEdges = node.getOutgoingEdges().stream().collect(Collectors.toCollection(LinkedList::new));
+			if (!node.hasIndexedEdges()) {
+				outgoingEdges = new ArrayList<>(node.getOutgoingEdges());
+			}
+			count = (outgoingEdges == null) ? node.edgeCount() : outgoingEdges.size();
 		}
 
 		public boolean hasMoreEdges() {
-			return outgoingEdges.size() > 0;
+			return position < count;
 		}
 		
 		public E1 nextEdge() {
-			return outgoingEdges.pop();
+			if (!hasMoreEdges())
+				throw new NoSuchElementException();
+			return edgeAt(position++);
+		}
+		
+		private E1 edgeAt(int index) {
+			return (outgoingEdges == null) ? old_node.edgeAt(index) : outgoingEdges.get(index);
 		}
 		
 		/** getter method
@@ -55,7 +81,7 @@ public class DepthFirstIterator<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extend
 		}
 		
 		public E1 peekEdge() {
-			return outgoingEdges.peek();
+			return hasMoreEdges() ? edgeAt(position) : null;
 		}
 	}
 	
@@ -64,7 +90,14 @@ public class DepthFirstIterator<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extend
 	protected EDGE traversedEdge;
 	
 	public DepthFirstIterator(Collection<VERTEX> startNodes, int maxCycling) throws GraphException{
+		this(startNodes, maxCycling, TraversalContext.isolated());
+	}
+	
+	/** Counts visits in the given context. The context is not cleared.
+	 */
+	public DepthFirstIterator(Collection<VERTEX> startNodes, int maxCycling, TraversalContext<VERTEX, EDGE> context) throws GraphException{
 		this.maxCycling = maxCycling;
+		this.context = context;
 		startNodes.forEach(vertex -> pushVertex (vertex));
 		moveToNextVertex();
 	}
@@ -87,12 +120,23 @@ public class DepthFirstIterator<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extend
      */
     protected int maxCycling;
     
+    /** Visit counts of this traversal
+     */
+    protected TraversalContext<VERTEX, EDGE> context;
+    
     /** The ctor builds the iterator on the graph given as parameter.
      * This iterator works directly on the graph elements, not on a copy
      * of it.
      * @param graph is a valid, possibly decorated, concrete graph.
      */
     protected DepthFirstIterator(){
+    	this(TraversalContext.isolated());
+    }
+    
+    /** Empty iterator counting visits in the given context, filled by resume
+     */
+    private DepthFirstIterator(TraversalContext<VERTEX, EDGE> context){
+    	this.context = context;
     }
     
     /** Used to iterate through the graph
@@ -117,7 +161,7 @@ public class DepthFirstIterator<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extend
     	}
     	
     	currentVertex = (traversedEdge == null)?(vStack.getLast().getVertex()):(traversedEdge.getToVertex());
-    	currentVertex.incVisitCounts();
+    	context.incVisitCounts(currentVertex);
     }
     
     protected void pushVertex(VERTEX v) {
@@ -126,11 +170,11 @@ public class DepthFirstIterator<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extend
     }
     
     private boolean vertexHasOutgoingEdges(EDGE e) {
-    	return e != null && e.getToVertex() != null && e.getToVertex().getOutgoingEdges().size() > 0;
+    	return e != null && e.getToVertex() != null && e.getToVertex().edgeCount() > 0;
     }
     
     private boolean vertexCanBeVisited(EDGE e){
-    	return e != null && e.getToVertex() != null && e.getToVertex().getVisitsCount() >= maxCycling;
+    	return e != null && e.getToVertex() != null && context.getVisitsCount(e.getToVertex()) >= maxCycling;
     }
     
     private boolean hasMoreNodesToVisit() {
@@ -149,6 +193,55 @@ public class DepthFirstIterator<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extend
     	return vStack.getLast().peekEdge();
     }
     
+    /** Writes the state of the iterator: the frame stack, the vertex to
+     * be returned next and the visit counts of the context.
+     * Vertices are written as their key.
+     * @param keyOf gives the key of a vertex
+     */
+    public <K> void writeCheckpoint(DataOutput out, Function<VERTEX, K> keyOf, ValueCodec<K> keyCodec) throws IOException {
+    	Checkpoints.writeHeader(out, Checkpoints.DEPTH_FIRST);
+    	out.writeInt(maxCycling);
+    	Checkpoints.writeNullableVertex(out, currentVertex, keyOf, keyCodec);
+    	Checkpoints.writeCount(out, vStack.size());
+    	for (LinearEdgesIterator<VERTEX, EDGE> frame : vStack) {
+    		Checkpoints.writeVertex(out, frame.getVertex(), keyOf, keyCodec);
+    		Checkpoints.writeCount(out, frame.position);
+    	}
+    	Checkpoints.writeVisitCounts(out, context, keyOf, keyCodec);
+    }
+    
+    /** Restores an iterator saved by writeCheckpoint, counting its visits
+     * in an isolated context.
+     * @param vertexOf gives the vertex of a key, null if there is none
+     */
+    public static <V extends Vertex<V, E>, E extends Edge<E, V>, K> DepthFirstIterator<V, E> resume(DataInput in,
+    		Function<K, V> vertexOf, ValueCodec<K> keyCodec) throws IOException, GraphCorruptedException {
+    	return resume(in, vertexOf, keyCodec, TraversalContext.isolated());
+    }
+    
+    /** Restores an iterator saved by writeCheckpoint. The context is
+     * cleared, then given the saved visit counts.
+     */
+    public static <V extends Vertex<V, E>, E extends Edge<E, V>, K> DepthFirstIterator<V, E> resume(DataInput in,
+    		Function<K, V> vertexOf, ValueCodec<K> keyCodec, TraversalContext<V, E> context) throws IOException, GraphCorruptedException {
+    	Checkpoints.readHeader(in, Checkpoints.DEPTH_FIRST);
+    	DepthFirstIterator<V, E> iter = new DepthFirstIterator<>(context);
+    	iter.maxCycling = in.readInt();
+    	iter.currentVertex = Checkpoints.readNullableVertex(in, vertexOf, keyCodec);
+    	int frames = Checkpoints.readCount(in);
+    	for (int i = 0; i < frames; i++) {
+    		V vertex = Checkpoints.readVertex(in, vertexOf, keyCodec);
+    		int position = Checkpoints.readCount(in);
+    		iter.pushVertex(vertex);
+    		DepthFirstIterator<V, E>.LinearEdgesIterator<V, E> frame = iter.vStack.getLast();
+    		if (position > frame.count)
+    			throw new GraphCorruptedException("Vertex " + vertex + " has less edges than in the checkpoint");
+    		frame.position = position;
+    	}
+    	Checkpoints.readVisitCounts(in, context, vertexOf, keyCodec);
+    	return iter;
+    }
+    
     /** This method is part of the Iterator interface. It is not
      * implemented here since we consider that many iterators
      * may run concurrently on the same graph
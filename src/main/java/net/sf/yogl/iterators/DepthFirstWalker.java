@@ -0,0 +1,122 @@
+package net.sf.yogl.iterators;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Vertex;
+
+/** Depth first walk calling a GraphVisitor. Each reachable vertex is
+ * visited once; the walk runs on an explicit stack, so its depth is only
+ * bounded by the heap. The stack arrays are kept between walks.
+ *
+ * A vertex is marked as visited (see TraversalContext) before preVisit is
+ * called; vertices already visited in the context are not entered again,
+ * but the edges leading to them are still given to onEdge.
+ */
+public class DepthFirstWalker<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	private static final int INITIAL_DEPTH = 16;
+
+	private Object[] frameVertices = new Object[INITIAL_DEPTH];
+
+	private int[] frameNextEdge = new int[INITIAL_DEPTH];
+
+	private int[] frameEdgeCount = new int[INITIAL_DEPTH];
+
+	/** edge iterators of the frames whose edges cannot be read by position
+	 */
+	private Object[] frameIterators = new Object[INITIAL_DEPTH];
+
+	private int depth = 0;
+
+	/** Walks from each start vertex in turn, counting visits in an isolated
+	 * context.
+	 * @return TERMINATE if the visitor has stopped the walk, CONTINUE otherwise
+	 */
+	public VisitResult walk(Collection<VERTEX> startVertices, GraphVisitor<VERTEX, EDGE> visitor) {
+		return walk(startVertices, visitor, TraversalContext.isolated());
+	}
+
+	/** Same as walk, with visits counted in the given context. The context
+	 * is not cleared: vertices it has already visited are not entered.
+	 */
+	@SuppressWarnings("unchecked")
+	public VisitResult walk(Collection<VERTEX> startVertices, GraphVisitor<VERTEX, EDGE> visitor, TraversalContext<VERTEX, EDGE> context) {
+		try {
+			for (VERTEX start : startVertices) {
+				if (start == null || context.getVisitsCount(start) > 0)
+					continue;
+				if (enter(start, visitor, context) == VisitResult.TERMINATE)
+					return VisitResult.TERMINATE;
+				while (depth > 0) {
+					int top = depth - 1;
+					VERTEX current = (VERTEX) frameVertices[top];
+					if (frameNextEdge[top] < frameEdgeCount[top]) {
+						EDGE edge = edgeOf(top, current);
+						VisitResult result = visitor.onEdge(current, edge);
+						if (result == VisitResult.TERMINATE)
+							return result;
+						if (result == VisitResult.SKIP_SUBTREE)
+							continue;
+						VERTEX target = edge.getToVertex();
+						if (target != null && context.getVisitsCount(target) == 0
+								&& enter(target, visitor, context) == VisitResult.TERMINATE)
+							return VisitResult.TERMINATE;
+					} else {
+						pop();
+						if (visitor.postVisit(current) == VisitResult.TERMINATE)
+							return VisitResult.TERMINATE;
+					}
+				}
+			}
+			return VisitResult.CONTINUE;
+		} finally {
+			while (depth > 0) {
+				pop();
+			}
+		}
+	}
+
+	/** Marks the vertex as visited and pushes its frame, unless the visitor
+	 * skips it.
+	 */
+	private VisitResult enter(VERTEX vertex, GraphVisitor<VERTEX, EDGE> visitor, TraversalContext<VERTEX, EDGE> context) {
+		context.incVisitCounts(vertex);
+		VisitResult result = visitor.preVisit(vertex);
+		if (result == VisitResult.CONTINUE)
+			push(vertex);
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private EDGE edgeOf(int frame, VERTEX vertex) {
+		int position = frameNextEdge[frame]++;
+		Iterator<EDGE> iterator = (Iterator<EDGE>) frameIterators[frame];
+		if (iterator != null)
+			return iterator.next();
+		return vertex.edgeAt(position);
+	}
+
+	private void push(VERTEX vertex) {
+		if (depth == frameVertices.length) {
+			int capacity = depth * 2;
+			frameVertices = Arrays.copyOf(frameVertices, capacity);
+			frameNextEdge = Arrays.copyOf(frameNextEdge, capacity);
+			frameEdgeCount = Arrays.copyOf(frameEdgeCount, capacity);
+			frameIterators = Arrays.copyOf(frameIterators, capacity);
+		}
+		frameVertices[depth] = vertex;
+		frameNextEdge[depth] = 0;
+		frameEdgeCount[depth] = vertex.edgeCount();
+		frameIterators[depth] = (frameEdgeCount[depth] == 0 || vertex.hasIndexedEdges()) ? null : vertex.getOutgoingEdges().iterator();
+		depth++;
+	}
+
+	private void pop() {
+		depth--;
+		frameVertices[depth] = null;
+		frameIterators[depth] = null;
+	}
+}
@@ -0,0 +1,285 @@
+package net.sf.yogl.iterators;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Graph;
+import net.sf.yogl.Vertex;
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.types.VertexType;
+
+/** Breadth first search switching between two ways of building the next
+ * level:
+ *  - top down: the edges of the frontier vertices are followed, as in
+ *    BreadthFirstIterator;
+ *  - bottom up: each vertex not reached yet looks for a predecessor in the
+ *    frontier, and stops at the first one found.
+ * Bottom up steps pay off when the frontier holds a large part of the
+ * edges: most top down edge checks would then hit vertices already reached.
+ *
+ * The search goes bottom up when the edges going out of the frontier are
+ * more than (edges going out of the unreached vertices) / alpha, and back
+ * to top down when the frontier holds less than (number of vertices) / beta
+ * vertices. The predecessors are read from a reverse adjacency built from
+ * Vertex.getOutgoingEdges at the first bottom up step of each search.
+ *
+ * Vertices are identified by their id (see Vertex.getId) and the graph
+ * must not be modified during the search.
+ */
+public class DirectionOptimizingBreadthFirstSearch<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	public static final double DEFAULT_ALPHA = 14;
+
+	public static final double DEFAULT_BETA = 24;
+
+	private final Graph<VERTEX, EDGE> graph;
+
+	private double alpha = DEFAULT_ALPHA;
+
+	private double beta = DEFAULT_BETA;
+
+	/** number of steps done bottom up by the last search
+	 */
+	private int bottomUpSteps = 0;
+
+	public DirectionOptimizingBreadthFirstSearch(Graph<VERTEX, EDGE> graph) {
+		this.graph = graph;
+	}
+
+	public double getAlpha() {
+		return alpha;
+	}
+
+	/** Greater values switch to bottom up earlier.
+	 */
+	public void setAlpha(double alpha) {
+		if (!(alpha > 0))
+			throw new IllegalArgumentException("alpha must be positive: " + alpha);
+		this.alpha = alpha;
+	}
+
+	public double getBeta() {
+		return beta;
+	}
+
+	/** Greater values stay bottom up longer.
+	 */
+	public void setBeta(double beta) {
+		if (!(beta > 0))
+			throw new IllegalArgumentException("beta must be positive: " + beta);
+		this.beta = beta;
+	}
+
+	/** @return the number of steps the last search has done bottom up
+	 */
+	public int getBottomUpSteps() {
+		return bottomUpSteps;
+	}
+
+	/** Searches from the roots of the graph.
+	 */
+	public BreadthFirstTree<VERTEX, EDGE> search() throws GraphException {
+		return search(graph.getRoots());
+	}
+
+	/** Searches from the given vertices, all at depth 0.
+	 */
+	public BreadthFirstTree<VERTEX, EDGE> search(Collection<VERTEX> sources) throws GraphException {
+		Search search = new Search(graph.getVertices(VertexType.ANY));
+		search.run(sources);
+		bottomUpSteps = search.bottomUpSteps;
+		return new BreadthFirstTree<>(search.depths, search.parents, Arrays.copyOf(search.order, search.orderSize), search.levelStarts());
+	}
+
+	/** Working state of one search. Vertex arrays are indexed by id.
+	 */
+	private class Search {
+
+		final int size;
+
+		final Object[] vertices;
+
+		final int[] outDegrees;
+
+		final int[] depths;
+
+		final Object[] parents;
+
+		/** reached vertices in level order; the current frontier is
+		 * [frontierStart .. orderSize[
+		 */
+		final Object[] order;
+
+		int orderSize = 0;
+
+		int frontierStart = 0;
+
+		int[] levelStarts = new int[16];
+
+		int levelCount = 0;
+
+		/** reverse adjacency, built at the first bottom up step
+		 */
+		int[] inOffsets = null;
+
+		int[] inSources = null;
+
+		int bottomUpSteps = 0;
+
+		Search(Collection<VERTEX> all) {
+			size = Math.max(graph.maxVertexId(), 0);
+			vertices = new Object[size];
+			outDegrees = new int[size];
+			for (VERTEX vertex : all) {
+				int id = idOf(vertex);
+				vertices[id] = vertex;
+				outDegrees[id] = vertex.edgeCount();
+			}
+			depths = new int[size];
+			Arrays.fill(depths, -1);
+			parents = new Object[size];
+			order = new Object[size];
+		}
+
+		void run(Collection<VERTEX> sources) {
+			long unreachedEdges = 0;
+			for (int degree : outDegrees) {
+				unreachedEdges += degree;
+			}
+			long frontierEdges = 0;
+			startLevel();
+			for (VERTEX source : sources) {
+				int id = idOf(source);
+				if (depths[id] < 0) {
+					depths[id] = 0;
+					order[orderSize++] = source;
+					frontierEdges += outDegrees[id];
+				}
+			}
+			unreachedEdges -= frontierEdges;
+
+			boolean bottomUp = false;
+			int depth = 0;
+			while (orderSize > frontierStart) {
+				int frontierSize = orderSize - frontierStart;
+				if (!bottomUp && frontierEdges > unreachedEdges / alpha) {
+					bottomUp = true;
+				} else if (bottomUp && frontierSize < size / beta) {
+					bottomUp = false;
+				}
+				int levelStart = orderSize;
+				startLevel();
+				if (bottomUp) {
+					bottomUpStep(depth);
+					bottomUpSteps++;
+				} else {
+					topDownStep(depth);
+				}
+				frontierStart = levelStart;
+				frontierEdges = 0;
+				for (int i = frontierStart; i < orderSize; i++) {
+					frontierEdges += outDegrees[idOf(order[i])];
+				}
+				unreachedEdges -= frontierEdges;
+				depth++;
+			}
+			// the last level started is empty
+			levelCount--;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void topDownStep(int depth) {
+			int frontierEnd = orderSize;
+			for (int i = frontierStart; i < frontierEnd; i++) {
+				VERTEX current = (VERTEX) order[i];
+				if (current.hasIndexedEdges()) {
+					int count = current.edgeCount();
+					for (int e = 0; e < count; e++) {
+						reach(current, current.edgeAt(e).getToVertex(), depth + 1);
+					}
+				} else {
+					for (EDGE edge : current.getOutgoingEdges()) {
+						reach(current, edge.getToVertex(), depth + 1);
+					}
+				}
+			}
+		}
+
+		private void reach(VERTEX parent, VERTEX target, int depth) {
+			if (target == null)
+				return;
+			int id = idOf(target);
+			if (depths[id] < 0) {
+				depths[id] = depth;
+				parents[id] = parent;
+				order[orderSize++] = target;
+			}
+		}
+
+		private void bottomUpStep(int depth) {
+			if (inOffsets == null)
+				buildReverseAdjacency();
+			for (int id = 0; id < size; id++) {
+				if (vertices[id] == null || depths[id] >= 0)
+					continue;
+				for (int i = inOffsets[id]; i < inOffsets[id + 1]; i++) {
+					int source = inSources[i];
+					if (depths[source] == depth) {
+						depths[id] = depth + 1;
+						parents[id] = vertices[source];
+						order[orderSize++] = vertices[id];
+						break;
+					}
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void buildReverseAdjacency() {
+			inOffsets = new int[size + 1];
+			for (int id = 0; id < size; id++) {
+				if (vertices[id] != null)
+					((VERTEX) vertices[id]).forEachEdge(edge -> countIncoming(edge.getToVertex()));
+			}
+			for (int id = 0; id < size; id++) {
+				inOffsets[id + 1] += inOffsets[id];
+			}
+			inSources = new int[inOffsets[size]];
+			int[] fill = Arrays.copyOf(inOffsets, size);
+			for (int id = 0; id < size; id++) {
+				if (vertices[id] == null)
+					continue;
+				for (EDGE edge : ((VERTEX) vertices[id]).getOutgoingEdges()) {
+					VERTEX target = edge.getToVertex();
+					if (target != null)
+						inSources[fill[idOf(target)]++] = id;
+				}
+			}
+		}
+
+		private void countIncoming(VERTEX target) {
+			if (target != null)
+				inOffsets[idOf(target) + 1]++;
+		}
+
+		private void startLevel() {
+			if (levelCount == levelStarts.length)
+				levelStarts = Arrays.copyOf(levelStarts, levelCount * 2);
+			levelStarts[levelCount++] = orderSize;
+		}
+
+		int[] levelStarts() {
+			int[] result = Arrays.copyOf(levelStarts, levelCount + 1);
+			result[levelCount] = orderSize;
+			return result;
+		}
+
+		private int idOf(Object vertex) {
+			int id = ((Vertex<?, ?>) vertex).getId();
+			if (id < 0 || id >= size)
+				throw new IllegalArgumentException("Vertex without a valid id: " + vertex);
+			return id;
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package net.sf.yogl.iterators;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Vertex;
+
+/** Callbacks of a DepthFirstWalker. All methods continue the walk by
+ * default, so a visitor only overrides the ones it needs.
+ */
+public interface GraphVisitor<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	/** Called the first time the walk reaches the vertex, before its edges.
+	 * SKIP_SUBTREE leaves the edges out, and postVisit is not called.
+	 */
+	public default VisitResult preVisit(VERTEX vertex) {
+		return VisitResult.CONTINUE;
+	}
+
+	/** Called for each outgoing edge of a visited vertex. SKIP_SUBTREE does
+	 * not follow the edge.
+	 */
+	public default VisitResult onEdge(VERTEX from, EDGE edge) {
+		return VisitResult.CONTINUE;
+	}
+
+	/** Called once all the edges of the vertex have been followed.
+	 */
+	public default VisitResult postVisit(VERTEX vertex) {
+		return VisitResult.CONTINUE;
+	}
+}
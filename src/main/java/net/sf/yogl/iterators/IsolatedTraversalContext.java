@@ -0,0 +1,112 @@
+package net.sf.yogl.iterators;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Vertex;
+
+/** Traversal context owning its visit counts. Counts are stored in an
+ * open-addressing table keyed by object identity, with primitive int
+ * values: no boxing and no entry objects. Vertices and edges never share a
+ * key since they are different objects.
+ * A context is not thread-safe, but it only belongs to one traversal.
+ */
+class IsolatedTraversalContext<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>>
+		implements TraversalContext<VERTEX, EDGE> {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private Object[] keys = new Object[INITIAL_CAPACITY];
+
+	private int[] counts = new int[INITIAL_CAPACITY];
+
+	private int size = 0;
+
+	@Override
+	public int getVisitsCount(VERTEX vertex) {
+		return get(vertex);
+	}
+
+	@Override
+	public int incVisitCounts(VERTEX vertex) {
+		return increment(vertex);
+	}
+
+	@Override
+	public int getEdgeVisitsCount(EDGE edge) {
+		return get(edge);
+	}
+
+	@Override
+	public int incEdgeVisitCounts(EDGE edge) {
+		return increment(edge);
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, null);
+		Arrays.fill(counts, 0);
+		size = 0;
+	}
+
+	/** Edges are skipped: they are the keys that are not vertices.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEachVisitedVertex(ObjIntConsumer<VERTEX> action) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] instanceof Vertex)
+				action.accept((VERTEX) keys[i], counts[i]);
+		}
+	}
+
+	private int get(Object key) {
+		int slot = indexOf(key, keys);
+		return (keys[slot] == null) ? 0 : counts[slot];
+	}
+
+	private int increment(Object key) {
+		int slot = indexOf(key, keys);
+		if (keys[slot] == null) {
+			if (2 * (size + 1) > keys.length) {
+				grow();
+				slot = indexOf(key, keys);
+			}
+			keys[slot] = key;
+			size++;
+		}
+		return ++counts[slot];
+	}
+
+	/** @return the slot holding 'key', or the free slot where it should be
+	 * inserted. The table is never full.
+	 */
+	private static int indexOf(Object key, Object[] table) {
+		int mask = table.length - 1;
+		int slot = mix(System.identityHashCode(key)) & mask;
+		while (table[slot] != null && table[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private static int mix(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private void grow() {
+		Object[] oldKeys = keys;
+		int[] oldCounts = counts;
+		keys = new Object[oldKeys.length * 2];
+		counts = new int[oldKeys.length * 2];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int slot = indexOf(oldKeys[i], keys);
+				keys[slot] = oldKeys[i];
+				counts[slot] = oldCounts[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package net.sf.yogl.iterators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Vertex;
+
+/** Result of a MultiSourceBreadthFirstSearch: for each source, given by its
+ * position in the list of sources, the vertices reached at each distance.
+ * The distance of a vertex is the length of the shortest path from the
+ * source; the source itself is at distance 0.
+ */
+public class KHopNeighborhoods<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	/** Vertices reached for the first time at one distance, by one batch of
+	 * sources. bits[i] tells which sources of the batch have reached ids[i].
+	 */
+	static class Level {
+
+		static final Level EMPTY = new Level(new int[0], new long[0]);
+
+		final int[] ids;
+
+		final long[] bits;
+
+		Level(int[] ids, long[] bits) {
+			this.ids = ids;
+			this.bits = bits;
+		}
+	}
+
+	/** Levels of one batch grouped by vertex: the entries of the vertex
+	 * of id i are at positions start[i] to start[i + 1] - 1, by increasing
+	 * distance.
+	 */
+	static class Index {
+
+		final int[] start;
+
+		final int[] hops;
+
+		final long[] bits;
+
+		Index(Level[] batchLevels, int size) {
+			start = new int[size + 1];
+			for (Level level : batchLevels) {
+				for (int id : level.ids) {
+					start[id + 1]++;
+				}
+			}
+			for (int i = 0; i < size; i++) {
+				start[i + 1] += start[i];
+			}
+			hops = new int[start[size]];
+			bits = new long[start[size]];
+			int[] next = Arrays.copyOf(start, size);
+			for (int distance = 0; distance < batchLevels.length; distance++) {
+				Level level = batchLevels[distance];
+				for (int i = 0; i < level.ids.length; i++) {
+					int position = next[level.ids[i]]++;
+					hops[position] = distance;
+					bits[position] = level.bits[i];
+				}
+			}
+		}
+	}
+
+	private final int sourceCount;
+
+	private final int maxHops;
+
+	/** reached vertices, by id
+	 */
+	private final Object[] vertices;
+
+	/** levels[batch][distance]
+	 */
+	private final Level[][] levels;
+
+	/** indexes[batch], built by the first call to getDistance on the batch
+	 */
+	private final Index[] indexes;
+
+	KHopNeighborhoods(int sourceCount, int maxHops, Object[] vertices, Level[][] levels) {
+		this.sourceCount = sourceCount;
+		this.maxHops = maxHops;
+		this.vertices = vertices;
+		this.levels = levels;
+		this.indexes = new Index[levels.length];
+	}
+
+	public int getSourceCount() {
+		return sourceCount;
+	}
+
+	public int getMaxHops() {
+		return maxHops;
+	}
+
+	/** @return the vertices at distance 1 to getMaxHops() of the source,
+	 * nearest first
+	 */
+	public List<VERTEX> getNeighbors(int source) {
+		checkSource(source);
+		List<VERTEX> result = new ArrayList<>();
+		for (int hops = 1; hops <= maxHops; hops++) {
+			collect(source, hops, result);
+		}
+		return result;
+	}
+
+	/** @return the vertices at exactly 'hops' links of the source
+	 */
+	public List<VERTEX> getNeighbors(int source, int hops) {
+		checkSource(source);
+		if (hops < 0 || hops > maxHops)
+			throw new IndexOutOfBoundsException("Hops: " + hops + ", Max: " + maxHops);
+		List<VERTEX> result = new ArrayList<>();
+		collect(source, hops, result);
+		return result;
+	}
+
+	/** @return the distance of the vertex from the source, -1 if it is
+	 * further than getMaxHops() or not reachable
+	 */
+	public int getDistance(int source, VERTEX vertex) {
+		checkSource(source);
+		int id = vertex.getId();
+		if (id < 0 || id >= vertices.length)
+			return -1;
+		Index index = index(source / MultiSourceBreadthFirstSearch.BATCH_SIZE);
+		long bit = 1L << (source % MultiSourceBreadthFirstSearch.BATCH_SIZE);
+		for (int i = index.start[id]; i < index.start[id + 1]; i++) {
+			if ((index.bits[i] & bit) != 0)
+				return index.hops[i];
+		}
+		return -1;
+	}
+
+	private synchronized Index index(int batch) {
+		if (indexes[batch] == null)
+			indexes[batch] = new Index(levels[batch], vertices.length);
+		return indexes[batch];
+	}
+
+	@SuppressWarnings("unchecked")
+	private void collect(int source, int hops, List<VERTEX> result) {
+		Level level = levels[source / MultiSourceBreadthFirstSearch.BATCH_SIZE][hops];
+		long bit = 1L << (source % MultiSourceBreadthFirstSearch.BATCH_SIZE);
+		for (int i = 0; i < level.ids.length; i++) {
+			if ((level.bits[i] & bit) != 0)
+				result.add((VERTEX) vertices[level.ids[i]]);
+		}
+	}
+
+	private void checkSource(int source) {
+		if (source < 0 || source >= sourceCount)
+			throw new IndexOutOfBoundsException("Source: " + source + ", Sources: " + sourceCount);
+	}
+}
@@ -1,91 +1,87 @@
-   
 package net.sf.yogl.iterators;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Iterator;
 
 import net.sf.yogl.Edge;
 import net.sf.yogl.Graph;
 import net.sf.yogl.Vertex;
 import net.sf.yogl.exceptions.GraphException;
-import net.sf.yogl.types.VertexType;
 
 /** A LinksIterator allows to retrieve all links from a given graph.
  *  When pointing to a specific link, the iterator gives also
  *  which nodes the link connect.
- *  
- *  REFACTOR: From a given Vertex, returns an iterator on all outgoing edges (key & value)
+ *  The vertices and their outgoing edges are read on demand: the iterator
+ *  holds no copy of the edges. The graph must not be modified while the
+ *  iterator is in use. See also Graph.forEachEdge.
  */
 public class LinksIterator<V extends Vertex<V, E>, E extends Edge<E, V>> implements Iterator<E> {
 
-	private ArrayList<V> predNodes = null;
-	private ArrayList<E> links = null;
-	private ArrayList<V> succNodes = null;
-	private int counter = 0;
+	private final Iterator<V> vertices;
 
-	public LinksIterator(Graph<V, E> graph) throws GraphException {
+	/** vertex whose edges are being read
+	 */
+	private V vertex = null;
 
-		int count = graph.getLinkCount();
-		int index = 0;
-		predNodes = new ArrayList<V>(count);
-		links = new ArrayList<E>(count);
-		succNodes = new ArrayList<V>(count);
-
-		Iterator<V> nodesIter = graph.getVertices(VertexType.ANY).iterator();
-		while (nodesIter.hasNext()) {
-			V vertex = nodesIter.next();
-			Collection<E> neighbors = vertex.getOutgoingEdges();
-			Iterator<E> edgesIter = neighbors.iterator();
-			while (edgesIter.hasNext()) {
-				E edge = edgesIter.next();
-				predNodes.add(index, vertex);
-				links.add(index, edge);
-				V destKey = edge.getToVertex();
-				succNodes.add(index++, destKey);
-			}
-		}
+	/** position of the next edge of 'vertex', when read by position
+	 */
+	private int position = 0;
+
+	private int edgeCount = 0;
+
+	/** edges of 'vertex', when they cannot be read by position
+	 */
+	private Iterator<E> edges = null;
+
+	/** last read link, and the vertex it comes from
+	 */
+	private E link = null;
+
+	private V originator = null;
+
+	public LinksIterator(Graph<V, E> graph) throws GraphException {
+		this.vertices = graph.vertexStream().iterator();
 	}
 
 	/** Returns true if there are still un-read elements in the iterator
 	 */
 	public boolean hasNext() {
-
-		return counter < links.size();
+		while (!hasNextEdge()) {
+			if (!vertices.hasNext())
+				return false;
+			vertex = vertices.next();
+			position = 0;
+			edgeCount = vertex.edgeCount();
+			edges = (edgeCount == 0 || vertex.hasIndexedEdges()) ? null : vertex.getOutgoingEdges().iterator();
+		}
+		return true;
 	}
 
 	/** Read the next link from the iterator
+	 * @return the link, or null if there are no more links
 	 */
 	public E next() {
-
-		E result = null;
-		if (hasNext()) {
-			result = links.get(counter);
-			counter++;
+		if (!hasNext())
+			return null;
+		originator = vertex;
+		if (edges != null) {
+			link = edges.next();
+			position++;
+		} else {
+			link = vertex.edgeAt(position++);
 		}
-		return result;
+		return link;
 	}
 
 	/** Returns the source node of the last 'read' link
 	 */
 	public V getOriginator() {
-
-		V result = null;
-		if ((counter <= links.size()) && (counter > 0)) {
-			result = predNodes.get(counter - 1);
-		}
-		return result;
+		return originator;
 	}
 
 	/** Returns the sink node of the last 'read' node
 	 */
 	public V getDestination() {
-
-		V result = null;
-		if ((counter <= links.size()) && (counter > 0)) {
-			result = succNodes.get(counter - 1);
-		}
-		return result;
+		return (link == null) ? null : link.getToVertex();
 	}
 
 	public void remove()
@@ -93,4 +89,8 @@ public class LinksIterator<V extends Vertex<V, E>, E extends Edge<E, V>> impleme
 
 		throw new UnsupportedOperationException("remove not defined in LinksIterator");
 	}
+
+	private boolean hasNextEdge() {
+		return vertex != null && position < edgeCount;
+	}
 }
@@ -0,0 +1,175 @@
+package net.sf.yogl.iterators;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Graph;
+import net.sf.yogl.Vertex;
+
+/** Breadth first searches from many sources at once, up to a number of
+ * hops. Sources are processed by batches of 64: each vertex holds one bit
+ * per source of the batch, and a single pass over the frontier moves all
+ * the sources that reached a vertex at the same level along its edges.
+ * Sources sharing parts of the graph thus share the work of expanding them.
+ *
+ * Vertices are identified by their id (see Vertex.getId) and the graph
+ * must not be modified during the search.
+ */
+public class MultiSourceBreadthFirstSearch<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	/** number of sources of a batch: one bit per source in a long
+	 */
+	static final int BATCH_SIZE = 64;
+
+	private final Graph<VERTEX, EDGE> graph;
+
+	public MultiSourceBreadthFirstSearch(Graph<VERTEX, EDGE> graph) {
+		this.graph = graph;
+	}
+
+	/** @param sources the start vertices. A source listed twice is searched twice.
+	 * @param maxHops greatest distance of the vertices to be returned, at least 0
+	 * @return the vertices reached from each source, with their distance
+	 */
+	public KHopNeighborhoods<VERTEX, EDGE> search(List<VERTEX> sources, int maxHops) {
+		if (maxHops < 0)
+			throw new IllegalArgumentException("maxHops must not be negative: " + maxHops);
+		int size = Math.max(graph.maxVertexId(), 0);
+		int batches = (sources.size() + BATCH_SIZE - 1) / BATCH_SIZE;
+		KHopNeighborhoods.Level[][] levels = new KHopNeighborhoods.Level[batches][];
+		Batch batch = new Batch(size);
+		Object[] vertices = batch.vertices;
+		for (int b = 0; b < batches; b++) {
+			int from = b * BATCH_SIZE;
+			levels[b] = batch.run(sources.subList(from, Math.min(from + BATCH_SIZE, sources.size())), maxHops);
+		}
+		return new KHopNeighborhoods<>(sources.size(), maxHops, vertices, levels);
+	}
+
+	private static int idOf(Vertex<?, ?> vertex, int size) {
+		int id = vertex.getId();
+		if (id < 0 || id >= size)
+			throw new IllegalArgumentException("Vertex without a valid id: " + vertex);
+		return id;
+	}
+
+	/** Working arrays, indexed by vertex id and reused from batch to batch
+	 */
+	private class Batch {
+
+		final int size;
+
+		/** vertices reached by at least one source, of any batch
+		 */
+		final Object[] vertices;
+
+		/** sources that have reached each vertex
+		 */
+		final long[] seen;
+
+		/** sources that have reached each vertex at the current level
+		 */
+		long[] visit;
+
+		long[] visitNext;
+
+		/** ids of the vertices having bits in 'visit', then in 'visitNext'
+		 */
+		int[] frontier;
+
+		int[] nextFrontier;
+
+		Batch(int size) {
+			this.size = size;
+			vertices = new Object[size];
+			seen = new long[size];
+			visit = new long[size];
+			visitNext = new long[size];
+			frontier = new int[size];
+			nextFrontier = new int[size];
+		}
+
+		KHopNeighborhoods.Level[] run(List<VERTEX> sources, int maxHops) {
+			Arrays.fill(seen, 0);
+			int frontierSize = 0;
+			for (int i = 0; i < sources.size(); i++) {
+				int id = idOf(sources.get(i), size);
+				vertices[id] = sources.get(i);
+				if (visit[id] == 0)
+					frontier[frontierSize++] = id;
+				visit[id] |= 1L << i;
+				seen[id] |= 1L << i;
+			}
+			KHopNeighborhoods.Level[] levels = new KHopNeighborhoods.Level[maxHops + 1];
+			levels[0] = level(frontier, visit, frontierSize);
+			int hops = 1;
+			for (; hops <= maxHops && frontierSize > 0; hops++) {
+				int nextSize = 0;
+				for (int f = 0; f < frontierSize; f++) {
+					int id = frontier[f];
+					@SuppressWarnings("unchecked")
+					VERTEX current = (VERTEX) vertices[id];
+					long bits = visit[id];
+					visit[id] = 0;
+					if (current.hasIndexedEdges()) {
+						int count = current.edgeCount();
+						for (int e = 0; e < count; e++) {
+							nextSize = spread(current.edgeAt(e).getToVertex(), bits, nextSize);
+						}
+					} else {
+						for (EDGE edge : current.getOutgoingEdges()) {
+							nextSize = spread(edge.getToVertex(), bits, nextSize);
+						}
+					}
+				}
+				levels[hops] = level(nextFrontier, visitNext, nextSize);
+				int[] swapIds = frontier;
+				frontier = nextFrontier;
+				nextFrontier = swapIds;
+				long[] swapBits = visit;
+				visit = visitNext;
+				visitNext = swapBits;
+				frontierSize = nextSize;
+			}
+			for (int f = 0; f < frontierSize; f++) {
+				visit[frontier[f]] = 0;
+			}
+			for (; hops <= maxHops; hops++) {
+				levels[hops] = KHopNeighborhoods.Level.EMPTY;
+			}
+			return levels;
+		}
+
+		/** @return the vertices of the frontier, with the sources that
+		 * have reached them
+		 */
+		private KHopNeighborhoods.Level level(int[] frontierIds, long[] bits, int frontierSize) {
+			int[] ids = Arrays.copyOf(frontierIds, frontierSize);
+			long[] levelBits = new long[frontierSize];
+			for (int i = 0; i < frontierSize; i++) {
+				levelBits[i] = bits[ids[i]];
+			}
+			return new KHopNeighborhoods.Level(ids, levelBits);
+		}
+
+		/** Gives the target the sources in 'bits' that have not reached it yet
+		 * @return the new size of nextFrontier
+		 */
+		private int spread(VERTEX target, long bits, int nextSize) {
+			if (target == null)
+				return nextSize;
+			int id = idOf(target, size);
+			long newBits = bits & ~seen[id];
+			if (newBits != 0) {
+				if (visitNext[id] == 0) {
+					nextFrontier[nextSize++] = id;
+					vertices[id] = target;
+				}
+				visitNext[id] |= newBits;
+				seen[id] |= newBits;
+			}
+			return nextSize;
+		}
+	}
+}
@@ -0,0 +1,233 @@
+package net.sf.yogl.iterators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Graph;
+import net.sf.yogl.Vertex;
+
+/** Level synchronous breadth first search. Each level is split in chunks
+ * expanded in parallel on a ForkJoinPool; every chunk fills its own buffer
+ * and the buffers are concatenated to build the next level. A vertex is
+ * claimed by the first worker that sets its bit in a shared visited bitmap,
+ * so each vertex is reached once and gets exactly one parent.
+ *
+ * Vertices are identified by their id (see Vertex.getId): every reached
+ * vertex must have an id below graph.maxVertexId(). The graph must not be
+ * modified during the search.
+ */
+public class ParallelBreadthFirstSearch<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	/** default number of frontier vertices expanded by one task
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 256;
+
+	private final Graph<VERTEX, EDGE> graph;
+
+	private final ForkJoinPool pool;
+
+	private final int chunkSize;
+
+	public ParallelBreadthFirstSearch(Graph<VERTEX, EDGE> graph) {
+		this(graph, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+	}
+
+	/** @param chunkSize number of frontier vertices expanded by one task.
+	 * Levels smaller than that are expanded by the calling thread.
+	 */
+	public ParallelBreadthFirstSearch(Graph<VERTEX, EDGE> graph, ForkJoinPool pool, int chunkSize) {
+		if (chunkSize < 1)
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		this.graph = graph;
+		this.pool = pool;
+		this.chunkSize = chunkSize;
+	}
+
+	/** Searches from the roots of the graph.
+	 */
+	public BreadthFirstTree<VERTEX, EDGE> search() {
+		return search(graph.getRoots());
+	}
+
+	/** Searches from the given vertices, all at depth 0.
+	 */
+	public BreadthFirstTree<VERTEX, EDGE> search(Collection<VERTEX> sources) {
+		int size = Math.max(graph.maxVertexId(), 0);
+		AtomicLongArray visited = new AtomicLongArray((size + 63) >>> 6);
+		int[] depths = new int[size];
+		Arrays.fill(depths, -1);
+		Object[] parents = new Object[size];
+
+		List<Object> order = new ArrayList<>();
+		List<Integer> levelStarts = new ArrayList<>();
+		Object[] frontier = new Object[sources.size()];
+		int frontierSize = 0;
+		for (VERTEX source : sources) {
+			if (claim(visited, source)) {
+				depths[source.getId()] = 0;
+				frontier[frontierSize++] = source;
+			}
+		}
+		frontier = Arrays.copyOf(frontier, frontierSize);
+
+		int depth = 0;
+		while (frontier.length > 0) {
+			levelStarts.add(order.size());
+			order.addAll(Arrays.asList(frontier));
+			depth++;
+			frontier = expand(frontier, new Level(visited, depths, parents, depth));
+		}
+		levelStarts.add(order.size());
+
+		int[] starts = new int[levelStarts.size()];
+		for (int i = 0; i < starts.length; i++) {
+			starts[i] = levelStarts.get(i);
+		}
+		return new BreadthFirstTree<>(depths, parents, order.toArray(), starts);
+	}
+
+	/** @return the vertices reached from the frontier and not visited before
+	 */
+	private Object[] expand(Object[] frontier, Level level) {
+		int chunks = (frontier.length + chunkSize - 1) / chunkSize;
+		Object[][] buffers = new Object[chunks][];
+		int[] counts = new int[chunks];
+		Expansion expansion = new Expansion(frontier, level, buffers, counts, 0, chunks);
+		if (chunks == 1) {
+			expansion.compute();
+		} else {
+			pool.invoke(expansion);
+		}
+		int total = 0;
+		for (int count : counts) {
+			total += count;
+		}
+		Object[] next = new Object[total];
+		int position = 0;
+		for (int i = 0; i < chunks; i++) {
+			System.arraycopy(buffers[i], 0, next, position, counts[i]);
+			position += counts[i];
+		}
+		return next;
+	}
+
+	/** Sets the bit of the vertex in the bitmap.
+	 * @return true if the bit was not set before
+	 */
+	private static boolean claim(AtomicLongArray visited, Vertex<?, ?> vertex) {
+		int id = vertex.getId();
+		if (id < 0 || id >= (visited.length() << 6))
+			throw new IllegalArgumentException("Vertex without a valid id: " + vertex);
+		int word = id >>> 6;
+		long bit = 1L << (id & 63);
+		long current = visited.get(word);
+		while ((current & bit) == 0) {
+			if (visited.compareAndSet(word, current, current | bit))
+				return true;
+			current = visited.get(word);
+		}
+		return false;
+	}
+
+	/** State shared by the tasks expanding one level
+	 */
+	private static class Level {
+
+		final AtomicLongArray visited;
+
+		final int[] depths;
+
+		final Object[] parents;
+
+		final int depth;
+
+		Level(AtomicLongArray visited, int[] depths, Object[] parents, int depth) {
+			this.visited = visited;
+			this.depths = depths;
+			this.parents = parents;
+			this.depth = depth;
+		}
+	}
+
+	/** Expands the chunks [firstChunk .. lastChunk[ of the frontier
+	 */
+	@SuppressWarnings("serial")
+	private class Expansion extends RecursiveAction {
+
+		private final Object[] frontier;
+
+		private final Level level;
+
+		private final Object[][] buffers;
+
+		private final int[] counts;
+
+		private final int firstChunk;
+
+		private final int lastChunk;
+
+		Expansion(Object[] frontier, Level level, Object[][] buffers, int[] counts, int firstChunk, int lastChunk) {
+			this.frontier = frontier;
+			this.level = level;
+			this.buffers = buffers;
+			this.counts = counts;
+			this.firstChunk = firstChunk;
+			this.lastChunk = lastChunk;
+		}
+
+		@Override
+		protected void compute() {
+			if (lastChunk - firstChunk > 1) {
+				int middle = (firstChunk + lastChunk) >>> 1;
+				invokeAll(new Expansion(frontier, level, buffers, counts, firstChunk, middle),
+						new Expansion(frontier, level, buffers, counts, middle, lastChunk));
+				return;
+			}
+			int from = firstChunk * chunkSize;
+			int to = Math.min(from + chunkSize, frontier.length);
+			Object[] buffer = new Object[to - from];
+			int count = 0;
+			for (int i = from; i < to; i++) {
+				@SuppressWarnings("unchecked")
+				VERTEX current = (VERTEX) frontier[i];
+				int edgeCount = current.edgeCount();
+				if (current.hasIndexedEdges()) {
+					for (int e = 0; e < edgeCount; e++) {
+						VERTEX target = current.edgeAt(e).getToVertex();
+						if (target != null && claim(level.visited, target)) {
+							buffer = reached(buffer, count++, current, target);
+						}
+					}
+				} else {
+					for (EDGE edge : current.getOutgoingEdges()) {
+						VERTEX target = edge.getToVertex();
+						if (target != null && claim(level.visited, target)) {
+							buffer = reached(buffer, count++, current, target);
+						}
+					}
+				}
+			}
+			buffers[firstChunk] = buffer;
+			counts[firstChunk] = count;
+		}
+
+		/** Records 'target' as a child of 'parent'. Only the worker that
+		 * claimed the target writes its entries.
+		 */
+		private Object[] reached(Object[] buffer, int position, VERTEX parent, VERTEX target) {
+			int id = target.getId();
+			level.depths[id] = level.depth;
+			level.parents[id] = parent;
+			if (position == buffer.length)
+				buffer = Arrays.copyOf(buffer, Math.max(16, buffer.length * 2));
+			buffer[position] = target;
+			return buffer;
+		}
+	}
+}
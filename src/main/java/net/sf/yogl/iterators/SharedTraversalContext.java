@@ -0,0 +1,55 @@
+package net.sf.yogl.iterators;
+
+import java.util.function.ObjIntConsumer;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Graph;
+import net.sf.yogl.Vertex;
+
+/** Traversal context working directly on the counters of the vertices and
+ * edges. This is how iterators behaved before contexts existed.
+ */
+class SharedTraversalContext<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>>
+		implements TraversalContext<VERTEX, EDGE> {
+
+	private final Graph<VERTEX, EDGE> graph;
+
+	SharedTraversalContext(Graph<VERTEX, EDGE> graph) {
+		this.graph = graph;
+	}
+
+	@Override
+	public int getVisitsCount(VERTEX vertex) {
+		return vertex.getVisitsCount();
+	}
+
+	@Override
+	public int incVisitCounts(VERTEX vertex) {
+		return vertex.incVisitCounts();
+	}
+
+	@Override
+	public int getEdgeVisitsCount(EDGE edge) {
+		return edge.getVisitsCount();
+	}
+
+	@Override
+	public int incEdgeVisitCounts(EDGE edge) {
+		edge.incVisitCounts();
+		return edge.getVisitsCount();
+	}
+
+	@Override
+	public void clear() {
+		graph.clearAllVisitCounts();
+	}
+
+	@Override
+	public void forEachVisitedVertex(ObjIntConsumer<VERTEX> action) {
+		graph.vertexStream().forEach(vertex -> {
+			int count = vertex.getVisitsCount();
+			if (count > 0)
+				action.accept(vertex, count);
+		});
+	}
+}
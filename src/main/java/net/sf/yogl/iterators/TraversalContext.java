@@ -0,0 +1,51 @@
+package net.sf.yogl.iterators;
+
+import java.util.function.ObjIntConsumer;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Graph;
+import net.sf.yogl.Vertex;
+
+/** Holds the number of times each vertex and edge has been visited by one
+ * traversal. Iterators read and update visit counts through their context,
+ * so several traversals can run at the same time on the same graph as long
+ * as each one has its own isolated context.
+ */
+public interface TraversalContext<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	public int getVisitsCount(VERTEX vertex);
+
+	/** @return the new visit count of the vertex
+	 */
+	public int incVisitCounts(VERTEX vertex);
+
+	public int getEdgeVisitsCount(EDGE edge);
+
+	/** @return the new visit count of the edge
+	 */
+	public int incEdgeVisitCounts(EDGE edge);
+
+	/** Resets all visit counts to 0.
+	 */
+	public void clear();
+
+	/** Calls the action on each vertex visited at least once, with its
+	 * visit count. Used to checkpoint a traversal.
+	 */
+	public void forEachVisitedVertex(ObjIntConsumer<VERTEX> action);
+
+	/** @return a context keeping its counts in its own tables. Vertices and
+	 * edges are identified by reference: graphs creating a new edge object
+	 * at each read do not have their edge visits tracked.
+	 */
+	public static <V extends Vertex<V, E>, E extends Edge<E, V>> TraversalContext<V, E> isolated() {
+		return new IsolatedTraversalContext<>();
+	}
+
+	/** @return a context using the visit counters stored in the vertices and
+	 * edges of the graph. Only one such traversal may run at a time.
+	 */
+	public static <V extends Vertex<V, E>, E extends Edge<E, V>> TraversalContext<V, E> shared(Graph<V, E> graph) {
+		return new SharedTraversalContext<>(graph);
+	}
+}
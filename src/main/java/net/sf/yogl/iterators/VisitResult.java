@@ -0,0 +1,19 @@
+package net.sf.yogl.iterators;
+
+/** Tells a DepthFirstWalker how to go on after a call to a GraphVisitor.
+ */
+public enum VisitResult {
+
+	/** go on with the walk
+	 */
+	CONTINUE,
+
+	/** do not go below the current vertex or edge. Returned by postVisit,
+	 * same as CONTINUE.
+	 */
+	SKIP_SUBTREE,
+
+	/** stop the walk
+	 */
+	TERMINATE
+}
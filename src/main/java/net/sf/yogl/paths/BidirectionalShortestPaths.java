@@ -0,0 +1,244 @@
+package net.sf.yogl.paths;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Graph;
+import net.sf.yogl.Vertex;
+
+/** Point to point shortest paths with a bidirectional Dijkstra search: one
+ * search goes forward from the source along Vertex.getOutgoingEdges, the
+ * other one backward from the target along a reverse adjacency, and they
+ * stop when the sum of their smallest tentative distances reaches the best
+ * path found where they meet. Both searches together usually settle far
+ * less vertices than a one-directional search.
+ *
+ * The reverse adjacency and the working arrays are built at the first query
+ * and reused by the next ones: a query only resets the vertices it has
+ * touched. An instance must therefore be used by one thread at a time, and
+ * a new one created when the graph is modified.
+ */
+public class BidirectionalShortestPaths<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	private final Graph<VERTEX, EDGE> graph;
+
+	private final ToDoubleFunction<EDGE> weight;
+
+	private int size = -1;
+
+	private Object[] vertices;
+
+	/** reverse adjacency: the predecessors of vertex i are
+	 * inSources[inOffsets[i] .. inOffsets[i + 1][, with the weights of the
+	 * edges in inWeights
+	 */
+	private int[] inOffsets;
+
+	private int[] inSources;
+
+	private double[] inWeights;
+
+	private Direction forward;
+
+	private Direction backward;
+
+	/** length of the shortest path found by the current query, and the
+	 * vertex where its two halves meet
+	 */
+	private double best;
+
+	private int meeting;
+
+	public BidirectionalShortestPaths(Graph<VERTEX, EDGE> graph, ToDoubleFunction<EDGE> weight) {
+		this.graph = graph;
+		this.weight = weight;
+	}
+
+	/** @return a search where every edge has a weight of 1: the distance is
+	 * the number of edges of the path, as in a breadth first search.
+	 */
+	public static <V extends Vertex<V, E>, E extends Edge<E, V>> BidirectionalShortestPaths<V, E> unweighted(Graph<V, E> graph) {
+		return new BidirectionalShortestPaths<>(graph, edge -> 1);
+	}
+
+	public ShortestPath<VERTEX, EDGE> search(VERTEX source, VERTEX target) {
+		if (size < 0)
+			build();
+		best = Double.POSITIVE_INFINITY;
+		meeting = -1;
+		forward.start(ShortestPaths.idOf(source, size));
+		backward.start(ShortestPaths.idOf(target, size));
+		meet(source.getId());
+		int settled = 0;
+		try {
+			while (!forward.heap.isEmpty() && !backward.heap.isEmpty()
+					&& forward.heap.peekKey() + backward.heap.peekKey() < best) {
+				if (forward.heap.size() <= backward.heap.size()) {
+					expandForward(forward.heap.poll());
+				} else {
+					expandBackward(backward.heap.poll());
+				}
+				settled++;
+			}
+			return new ShortestPath<>(best, (meeting < 0) ? new Object[0] : path(meeting), settled);
+		} finally {
+			forward.reset();
+			backward.reset();
+		}
+	}
+
+	/** Keeps the path through the vertex if it is the shortest one found
+	 */
+	private void meet(int id) {
+		double length = forward.distances[id] + backward.distances[id];
+		if (length < best) {
+			best = length;
+			meeting = id;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void expandForward(int id) {
+		VERTEX current = (VERTEX) vertices[id];
+		if (current.hasIndexedEdges()) {
+			int count = current.edgeCount();
+			for (int e = 0; e < count; e++) {
+				relaxForward(id, current.edgeAt(e));
+			}
+		} else {
+			for (EDGE edge : current.getOutgoingEdges()) {
+				relaxForward(id, edge);
+			}
+		}
+	}
+
+	private void relaxForward(int from, EDGE edge) {
+		VERTEX target = edge.getToVertex();
+		if (target == null)
+			return;
+		int to = ShortestPaths.idOf(target, size);
+		forward.relax(from, to, checkedWeight(edge));
+		meet(to);
+	}
+
+	private void expandBackward(int id) {
+		for (int i = inOffsets[id]; i < inOffsets[id + 1]; i++) {
+			int from = inSources[i];
+			backward.relax(id, from, inWeights[i]);
+			meet(from);
+		}
+	}
+
+	/** @return the vertices from the source to the meeting vertex, then to
+	 * the target
+	 */
+	private Object[] path(int middle) {
+		int before = 0;
+		for (int id = middle; id >= 0; id = forward.parents[id]) {
+			before++;
+		}
+		int after = 0;
+		for (int id = backward.parents[middle]; id >= 0; id = backward.parents[id]) {
+			after++;
+		}
+		Object[] path = new Object[before + after];
+		int position = before;
+		for (int id = middle; id >= 0; id = forward.parents[id]) {
+			path[--position] = vertices[id];
+		}
+		position = before;
+		for (int id = backward.parents[middle]; id >= 0; id = backward.parents[id]) {
+			path[position++] = vertices[id];
+		}
+		return path;
+	}
+
+	private double checkedWeight(EDGE edge) {
+		double w = weight.applyAsDouble(edge);
+		if (!(w >= 0))
+			throw new IllegalArgumentException("Invalid edge weight: " + w);
+		return w;
+	}
+
+	/** Reads the vertices and builds the reverse adjacency
+	 */
+	private void build() {
+		int n = Math.max(graph.maxVertexId(), 0);
+		vertices = new Object[n];
+		graph.vertexStream().forEach(vertex -> vertices[ShortestPaths.idOf(vertex, n)] = vertex);
+		inOffsets = new int[n + 1];
+		graph.forEachEdge((from, edge, to) -> {
+			if (to != null)
+				inOffsets[ShortestPaths.idOf(to, n) + 1]++;
+		});
+		for (int id = 0; id < n; id++) {
+			inOffsets[id + 1] += inOffsets[id];
+		}
+		inSources = new int[inOffsets[n]];
+		inWeights = new double[inOffsets[n]];
+		int[] fill = Arrays.copyOf(inOffsets, n);
+		graph.forEachEdge((from, edge, to) -> {
+			if (to != null) {
+				int position = fill[ShortestPaths.idOf(to, n)]++;
+				inSources[position] = ShortestPaths.idOf(from, n);
+				inWeights[position] = checkedWeight(edge);
+			}
+		});
+		forward = new Direction(n);
+		backward = new Direction(n);
+		size = n;
+	}
+
+	/** Working arrays of one side of the search
+	 */
+	private static class Direction {
+
+		final double[] distances;
+
+		final int[] parents;
+
+		final IndexedHeap heap;
+
+		/** ids of the vertices whose distance has been set
+		 */
+		final int[] touched;
+
+		int touchedCount = 0;
+
+		Direction(int size) {
+			distances = new double[size];
+			Arrays.fill(distances, Double.POSITIVE_INFINITY);
+			parents = new int[size];
+			Arrays.fill(parents, -1);
+			heap = new IndexedHeap(size);
+			touched = new int[size];
+		}
+
+		void start(int id) {
+			distances[id] = 0;
+			touched[touchedCount++] = id;
+			heap.offer(id, 0);
+		}
+
+		void relax(int from, int to, double w) {
+			double distance = distances[from] + w;
+			if (distance < distances[to]) {
+				if (distances[to] == Double.POSITIVE_INFINITY)
+					touched[touchedCount++] = to;
+				distances[to] = distance;
+				parents[to] = from;
+				heap.offer(to, distance);
+			}
+		}
+
+		void reset() {
+			for (int i = 0; i < touchedCount; i++) {
+				distances[touched[i]] = Double.POSITIVE_INFINITY;
+				parents[touched[i]] = -1;
+			}
+			touchedCount = 0;
+			heap.clear();
+		}
+	}
+}
@@ -0,0 +1,275 @@
+package net.sf.yogl.paths;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import net.sf.yogl.Vertex;
+import net.sf.yogl.exceptions.GraphCorruptedException;
+
+/** Preprocessed graph answering shortest distance queries, built by
+ * ContractionHierarchyBuilder. Every vertex has a rank, its position in the
+ * contraction order, and the hierarchy keeps the edges and shortcuts going
+ * up in rank:
+ *  - upward edges, followed forward from the source of a query;
+ *  - downward edges, stored at their lower end and followed backward from
+ *    the target.
+ * A query runs a Dijkstra search from each end on these edges only, which
+ * settles a few hundred vertices even on large road-like graphs.
+ *
+ * Vertices are identified by the ids they had in the graph the hierarchy
+ * was built from (see Vertex.getId). A hierarchy is immutable and can be
+ * shared by threads, each one running its own Query. It can be saved with
+ * write and loaded with read, so that the preprocessing is only done once
+ * per version of the graph.
+ */
+public class ContractionHierarchy {
+
+	private static final int MAGIC = 0x48434759;
+
+	private static final int VERSION = 1;
+
+	private final int[] ranks;
+
+	/** upward edges of vertex i: upTargets[upOffsets[i] .. upOffsets[i + 1][
+	 */
+	private final int[] upOffsets;
+
+	private final int[] upTargets;
+
+	private final double[] upWeights;
+
+	/** edges coming down to vertex i: downSources[downOffsets[i] .. downOffsets[i + 1][
+	 */
+	private final int[] downOffsets;
+
+	private final int[] downSources;
+
+	private final double[] downWeights;
+
+	private final int shortcutCount;
+
+	ContractionHierarchy(int[] ranks, int[] upOffsets, int[] upTargets, double[] upWeights, int[] downOffsets,
+			int[] downSources, double[] downWeights, int shortcutCount) {
+		this.ranks = ranks;
+		this.upOffsets = upOffsets;
+		this.upTargets = upTargets;
+		this.upWeights = upWeights;
+		this.downOffsets = downOffsets;
+		this.downSources = downSources;
+		this.downWeights = downWeights;
+		this.shortcutCount = shortcutCount;
+	}
+
+	/** @return the number of vertex ids covered by the hierarchy
+	 */
+	public int size() {
+		return ranks.length;
+	}
+
+	/** @return the position of the vertex in the contraction order
+	 */
+	public int getRank(int id) {
+		return ranks[id];
+	}
+
+	/** @return the number of shortcuts added by the preprocessing
+	 */
+	public int getShortcutCount() {
+		return shortcutCount;
+	}
+
+	/** @return a new query, with its own working arrays
+	 */
+	public Query query() {
+		return new Query();
+	}
+
+	public void write(DataOutput out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(ranks.length);
+		out.writeInt(upTargets.length);
+		out.writeInt(downSources.length);
+		out.writeInt(shortcutCount);
+		writeInts(out, ranks);
+		writeInts(out, upOffsets);
+		writeInts(out, upTargets);
+		writeDoubles(out, upWeights);
+		writeInts(out, downOffsets);
+		writeInts(out, downSources);
+		writeDoubles(out, downWeights);
+	}
+
+	/** Reads a hierarchy saved by write
+	 */
+	public static ContractionHierarchy read(DataInput in) throws IOException, GraphCorruptedException {
+		if (in.readInt() != MAGIC)
+			throw new GraphCorruptedException("Not a contraction hierarchy");
+		int version = in.readInt();
+		if (version != VERSION)
+			throw new GraphCorruptedException("Unsupported contraction hierarchy version: " + version);
+		int size = in.readInt();
+		int upCount = in.readInt();
+		int downCount = in.readInt();
+		int shortcutCount = in.readInt();
+		if (size < 0 || upCount < 0 || downCount < 0)
+			throw new GraphCorruptedException("Invalid contraction hierarchy sizes");
+		int[] ranks = readInts(in, size);
+		int[] upOffsets = readInts(in, size + 1);
+		int[] upTargets = readInts(in, upCount);
+		double[] upWeights = readDoubles(in, upCount);
+		int[] downOffsets = readInts(in, size + 1);
+		int[] downSources = readInts(in, downCount);
+		double[] downWeights = readDoubles(in, downCount);
+		checkAdjacency(upOffsets, upTargets, size);
+		checkAdjacency(downOffsets, downSources, size);
+		return new ContractionHierarchy(ranks, upOffsets, upTargets, upWeights, downOffsets, downSources, downWeights, shortcutCount);
+	}
+
+	private static void checkAdjacency(int[] offsets, int[] ids, int size) throws GraphCorruptedException {
+		if (offsets[0] != 0 || offsets[size] != ids.length)
+			throw new GraphCorruptedException("Invalid contraction hierarchy offsets");
+		for (int i = 0; i < size; i++) {
+			if (offsets[i] > offsets[i + 1])
+				throw new GraphCorruptedException("Invalid contraction hierarchy offsets");
+		}
+		for (int id : ids) {
+			if (id < 0 || id >= size)
+				throw new GraphCorruptedException("Invalid vertex id in contraction hierarchy: " + id);
+		}
+	}
+
+	private static void writeInts(DataOutput out, int[] values) throws IOException {
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	private static void writeDoubles(DataOutput out, double[] values) throws IOException {
+		for (double value : values) {
+			out.writeDouble(value);
+		}
+	}
+
+	private static int[] readInts(DataInput in, int count) throws IOException {
+		int[] values = new int[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+
+	private static double[] readDoubles(DataInput in, int count) throws IOException {
+		double[] values = new double[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = in.readDouble();
+		}
+		return values;
+	}
+
+	/** Working arrays of the queries of one thread. A query only resets the
+	 * vertices it has touched, so its cost does not depend on the size of
+	 * the graph.
+	 */
+	public final class Query {
+
+		private final double[] forward;
+
+		private final double[] backward;
+
+		private final int[] touched;
+
+		private int touchedCount = 0;
+
+		private final IndexedHeap forwardHeap;
+
+		private final IndexedHeap backwardHeap;
+
+		private int settledCount = 0;
+
+		private Query() {
+			forward = new double[ranks.length];
+			backward = new double[ranks.length];
+			Arrays.fill(forward, Double.POSITIVE_INFINITY);
+			Arrays.fill(backward, Double.POSITIVE_INFINITY);
+			touched = new int[ranks.length];
+			forwardHeap = new IndexedHeap(ranks.length);
+			backwardHeap = new IndexedHeap(ranks.length);
+		}
+
+		/** @return the length of the shortest path, Double.POSITIVE_INFINITY
+		 * if the target cannot be reached
+		 */
+		public double distance(Vertex<?, ?> source, Vertex<?, ?> target) {
+			return distance(ShortestPaths.idOf(source, ranks.length), ShortestPaths.idOf(target, ranks.length));
+		}
+
+		public double distance(int sourceId, int targetId) {
+			if (sourceId < 0 || sourceId >= ranks.length || targetId < 0 || targetId >= ranks.length)
+				throw new IllegalArgumentException("Invalid vertex id: " + sourceId + ", " + targetId);
+			settledCount = 0;
+			double best = Double.POSITIVE_INFINITY;
+			label(forward, sourceId, 0);
+			forwardHeap.offer(sourceId, 0);
+			label(backward, targetId, 0);
+			backwardHeap.offer(targetId, 0);
+			best = Math.min(best, forward[targetId] + backward[targetId]);
+			while (true) {
+				boolean forwardOpen = !forwardHeap.isEmpty() && forwardHeap.peekKey() < best;
+				boolean backwardOpen = !backwardHeap.isEmpty() && backwardHeap.peekKey() < best;
+				if (!forwardOpen && !backwardOpen)
+					break;
+				if (forwardOpen && (!backwardOpen || forwardHeap.peekKey() <= backwardHeap.peekKey())) {
+					best = settle(forwardHeap, forward, backward, upOffsets, upTargets, upWeights, best);
+				} else {
+					best = settle(backwardHeap, backward, forward, downOffsets, downSources, downWeights, best);
+				}
+			}
+			reset();
+			return best;
+		}
+
+		/** @return the number of vertices settled by the last query
+		 */
+		public int getSettledCount() {
+			return settledCount;
+		}
+
+		/** Settles the first vertex of the heap and relaxes its edges
+		 * @return the length of the best path found
+		 */
+		private double settle(IndexedHeap heap, double[] distances, double[] others, int[] offsets, int[] ids,
+				double[] weights, double best) {
+			int id = heap.poll();
+			settledCount++;
+			for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+				int next = ids[i];
+				double distance = distances[id] + weights[i];
+				if (distance < distances[next]) {
+					label(distances, next, distance);
+					heap.offer(next, distance);
+					best = Math.min(best, distance + others[next]);
+				}
+			}
+			return best;
+		}
+
+		private void label(double[] distances, int id, double distance) {
+			if (forward[id] == Double.POSITIVE_INFINITY && backward[id] == Double.POSITIVE_INFINITY)
+				touched[touchedCount++] = id;
+			distances[id] = distance;
+		}
+
+		private void reset() {
+			for (int i = 0; i < touchedCount; i++) {
+				forward[touched[i]] = Double.POSITIVE_INFINITY;
+				backward[touched[i]] = Double.POSITIVE_INFINITY;
+			}
+			touchedCount = 0;
+			forwardHeap.clear();
+			backwardHeap.clear();
+		}
+	}
+}
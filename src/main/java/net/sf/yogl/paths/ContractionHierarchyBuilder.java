@@ -0,0 +1,397 @@
+package net.sf.yogl.paths;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Graph;
+import net.sf.yogl.Vertex;
+
+/** Builds the contraction hierarchy of a graph. Vertices are contracted one
+ * by one, least important first: a contracted vertex leaves the graph, and
+ * a shortcut replaces each shortest path going through it, unless a witness
+ * search finds another path that is not longer. The importance of a vertex
+ * is its edge difference (shortcuts it would add minus edges it would
+ * remove) plus the number of its neighbours already contracted. It is
+ * evaluated again, lazily, when the vertex comes out of the queue.
+ *
+ * Witness searches are Dijkstra searches limited to a number of settled
+ * vertices: when a search gives up, the shortcut is added, which is always
+ * correct. The searches from the neighbours of a vertex, and the importance
+ * of the neighbours after a contraction, are computed in parallel.
+ *
+ * The graph must not be modified while the hierarchy is built. Edge weights
+ * must not be negative.
+ */
+public class ContractionHierarchyBuilder<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	public static final int DEFAULT_WITNESS_LIMIT = 500;
+
+	/** fewest searches run in parallel for one vertex
+	 */
+	static final int PARALLEL_THRESHOLD = 8;
+
+	private final Graph<VERTEX, EDGE> graph;
+
+	private final ToDoubleFunction<EDGE> weight;
+
+	private final ForkJoinPool pool;
+
+	private int witnessLimit = DEFAULT_WITNESS_LIMIT;
+
+	public ContractionHierarchyBuilder(Graph<VERTEX, EDGE> graph, ToDoubleFunction<EDGE> weight) {
+		this(graph, weight, ForkJoinPool.commonPool());
+	}
+
+	public ContractionHierarchyBuilder(Graph<VERTEX, EDGE> graph, ToDoubleFunction<EDGE> weight, ForkJoinPool pool) {
+		this.graph = graph;
+		this.weight = weight;
+		this.pool = pool;
+	}
+
+	public int getWitnessLimit() {
+		return witnessLimit;
+	}
+
+	/** @param witnessLimit greatest number of vertices settled by a witness
+	 * search. Lower values build faster but add more shortcuts.
+	 */
+	public void setWitnessLimit(int witnessLimit) {
+		if (witnessLimit < 1)
+			throw new IllegalArgumentException("witnessLimit must be positive: " + witnessLimit);
+		this.witnessLimit = witnessLimit;
+	}
+
+	public ContractionHierarchy build() {
+		Contraction contraction = new Contraction(Math.max(graph.maxVertexId(), 0));
+		graph.forEachEdge((from, edge, to) -> {
+			if (to == null)
+				return;
+			double w = weight.applyAsDouble(edge);
+			if (!(w >= 0))
+				throw new IllegalArgumentException("Invalid edge weight: " + w);
+			contraction.addEdge(ShortestPaths.idOf(from, contraction.size), ShortestPaths.idOf(to, contraction.size), w);
+		});
+		return contraction.run();
+	}
+
+	/** Growable list of neighbour ids with the weights of the edges
+	 */
+	private static final class Adjacency {
+
+		private static final int[] NO_IDS = new int[0];
+
+		private static final double[] NO_WEIGHTS = new double[0];
+
+		int[] ids = NO_IDS;
+
+		double[] weights = NO_WEIGHTS;
+
+		int size = 0;
+
+		/** Adds the neighbour, or lowers the weight if it is already there
+		 * with a greater one.
+		 * @return true if the neighbour is new
+		 */
+		boolean addOrLower(int id, double w) {
+			for (int i = 0; i < size; i++) {
+				if (ids[i] == id) {
+					weights[i] = Math.min(weights[i], w);
+					return false;
+				}
+			}
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+				weights = Arrays.copyOf(weights, ids.length);
+			}
+			ids[size] = id;
+			weights[size++] = w;
+			return true;
+		}
+	}
+
+	/** State of one build. Vertex arrays are indexed by id.
+	 */
+	private class Contraction {
+
+		final int size;
+
+		final Adjacency[] outgoing;
+
+		final Adjacency[] incoming;
+
+		final boolean[] contracted;
+
+		final int[] contractedNeighbours;
+
+		/** edges of each vertex to the vertices still in the graph when it
+		 * was contracted, that is to higher ranks
+		 */
+		final Adjacency[] up;
+
+		final Adjacency[] down;
+
+		/** idle witness searches, borrowed by the running tasks. There are
+		 * at most as many as tasks run at once, and they go away with the
+		 * build.
+		 */
+		final ConcurrentLinkedQueue<WitnessSearch> witnesses = new ConcurrentLinkedQueue<>();
+
+		int shortcutCount = 0;
+
+		Contraction(int size) {
+			this.size = size;
+			outgoing = new Adjacency[size];
+			incoming = new Adjacency[size];
+			for (int id = 0; id < size; id++) {
+				outgoing[id] = new Adjacency();
+				incoming[id] = new Adjacency();
+			}
+			contracted = new boolean[size];
+			contractedNeighbours = new int[size];
+			up = new Adjacency[size];
+			down = new Adjacency[size];
+		}
+
+		void addEdge(int from, int to, double w) {
+			if (from == to)
+				return;
+			outgoing[from].addOrLower(to, w);
+			incoming[to].addOrLower(from, w);
+		}
+
+		ContractionHierarchy run() {
+			double[] priorities = new double[size];
+			pool.submit(() -> IntStream.range(0, size).parallel().forEach(id -> priorities[id] = priority(id))).join();
+			IndexedHeap queue = new IndexedHeap(size);
+			for (int id = 0; id < size; id++) {
+				queue.offer(id, priorities[id]);
+			}
+			int[] ranks = new int[size];
+			int rank = 0;
+			while (!queue.isEmpty()) {
+				int id = queue.poll();
+				double priority = priority(id);
+				if (!queue.isEmpty() && priority > queue.peekKey()) {
+					queue.offer(id, priority);
+					continue;
+				}
+				contract(id, queue);
+				ranks[id] = rank++;
+			}
+			return hierarchy(ranks);
+		}
+
+		/** @return the edge difference of the vertex plus its contracted
+		 * neighbours
+		 */
+		double priority(int id) {
+			int shortcuts = 0;
+			int removed = 0;
+			Adjacency in = incoming[id];
+			WitnessSearch witness = borrowWitness();
+			for (int i = 0; i < in.size; i++) {
+				if (!contracted[in.ids[i]]) {
+					removed++;
+					shortcuts += witness.shortcuts(in.ids[i], in.weights[i], id, null);
+				}
+			}
+			witnesses.offer(witness);
+			Adjacency out = outgoing[id];
+			for (int i = 0; i < out.size; i++) {
+				if (!contracted[out.ids[i]])
+					removed++;
+			}
+			return shortcuts - removed + contractedNeighbours[id];
+		}
+
+		void contract(int id, IndexedHeap queue) {
+			up[id] = remaining(outgoing[id]);
+			down[id] = remaining(incoming[id]);
+			Adjacency in = down[id];
+			Adjacency[] shortcuts = new Adjacency[in.size];
+			if (in.size >= PARALLEL_THRESHOLD) {
+				pool.submit(() -> IntStream.range(0, in.size).parallel().forEach(i -> shortcuts[i] = shortcutsFrom(in, i, id))).join();
+			} else {
+				for (int i = 0; i < in.size; i++) {
+					shortcuts[i] = shortcutsFrom(in, i, id);
+				}
+			}
+			for (int i = 0; i < in.size; i++) {
+				for (int s = 0; s < shortcuts[i].size; s++) {
+					if (outgoing[in.ids[i]].addOrLower(shortcuts[i].ids[s], shortcuts[i].weights[s]))
+						shortcutCount++;
+					incoming[shortcuts[i].ids[s]].addOrLower(in.ids[i], shortcuts[i].weights[s]);
+				}
+			}
+			contracted[id] = true;
+
+			int[] neighbours = neighbours(id);
+			double[] priorities = new double[neighbours.length];
+			for (int neighbour : neighbours) {
+				contractedNeighbours[neighbour]++;
+			}
+			if (neighbours.length >= PARALLEL_THRESHOLD) {
+				pool.submit(() -> IntStream.range(0, neighbours.length).parallel()
+						.forEach(i -> priorities[i] = priority(neighbours[i]))).join();
+			} else {
+				for (int i = 0; i < neighbours.length; i++) {
+					priorities[i] = priority(neighbours[i]);
+				}
+			}
+			for (int i = 0; i < neighbours.length; i++) {
+				queue.update(neighbours[i], priorities[i]);
+			}
+		}
+
+		private Adjacency shortcutsFrom(Adjacency in, int i, int id) {
+			Adjacency result = new Adjacency();
+			WitnessSearch witness = borrowWitness();
+			witness.shortcuts(in.ids[i], in.weights[i], id, result);
+			witnesses.offer(witness);
+			return result;
+		}
+
+		private WitnessSearch borrowWitness() {
+			WitnessSearch witness = witnesses.poll();
+			return (witness == null) ? new WitnessSearch(size) : witness;
+		}
+
+		/** @return the neighbours that are not contracted yet
+		 */
+		private Adjacency remaining(Adjacency neighbours) {
+			Adjacency result = new Adjacency();
+			for (int i = 0; i < neighbours.size; i++) {
+				if (!contracted[neighbours.ids[i]])
+					result.addOrLower(neighbours.ids[i], neighbours.weights[i]);
+			}
+			return result;
+		}
+
+		/** @return the ids of the vertices linked to 'id' in either direction,
+		 * once each
+		 */
+		private int[] neighbours(int id) {
+			Adjacency all = new Adjacency();
+			for (int i = 0; i < up[id].size; i++) {
+				all.addOrLower(up[id].ids[i], 0);
+			}
+			for (int i = 0; i < down[id].size; i++) {
+				all.addOrLower(down[id].ids[i], 0);
+			}
+			return Arrays.copyOf(all.ids, all.size);
+		}
+
+		private ContractionHierarchy hierarchy(int[] ranks) {
+			int[] upOffsets = new int[size + 1];
+			int[] downOffsets = new int[size + 1];
+			for (int id = 0; id < size; id++) {
+				upOffsets[id + 1] = upOffsets[id] + up[id].size;
+				downOffsets[id + 1] = downOffsets[id] + down[id].size;
+			}
+			int[] upTargets = new int[upOffsets[size]];
+			double[] upWeights = new double[upOffsets[size]];
+			int[] downSources = new int[downOffsets[size]];
+			double[] downWeights = new double[downOffsets[size]];
+			for (int id = 0; id < size; id++) {
+				System.arraycopy(up[id].ids, 0, upTargets, upOffsets[id], up[id].size);
+				System.arraycopy(up[id].weights, 0, upWeights, upOffsets[id], up[id].size);
+				System.arraycopy(down[id].ids, 0, downSources, downOffsets[id], down[id].size);
+				System.arraycopy(down[id].weights, 0, downWeights, downOffsets[id], down[id].size);
+			}
+			return new ContractionHierarchy(ranks, upOffsets, upTargets, upWeights, downOffsets, downSources, downWeights,
+					shortcutCount);
+		}
+
+		/** Dijkstra search of one task at a time, on the vertices not contracted
+		 */
+		private class WitnessSearch {
+
+			final double[] distances;
+
+			final int[] touched;
+
+			int touchedCount = 0;
+
+			final IndexedHeap heap;
+
+			WitnessSearch(int size) {
+				distances = new double[size];
+				Arrays.fill(distances, Double.POSITIVE_INFINITY);
+				touched = new int[size];
+				heap = new IndexedHeap(size);
+			}
+
+			/** Looks for the shortcuts needed from 'from' when 'via' is
+			 * contracted.
+			 * @param toVia weight of the edge from 'from' to 'via'
+			 * @param result receives the shortcuts, if not null
+			 * @return the number of shortcuts needed
+			 */
+			int shortcuts(int from, double toVia, int via, Adjacency result) {
+				Adjacency out = outgoing[via];
+				double limit = 0;
+				for (int i = 0; i < out.size; i++) {
+					if (!contracted[out.ids[i]] && out.ids[i] != from)
+						limit = Math.max(limit, toVia + out.weights[i]);
+				}
+				search(from, via, limit);
+				int count = 0;
+				for (int i = 0; i < out.size; i++) {
+					int to = out.ids[i];
+					if (contracted[to] || to == from)
+						continue;
+					double length = toVia + out.weights[i];
+					if (!(distances[to] <= length)) {
+						count++;
+						if (result != null)
+							result.addOrLower(to, length);
+					}
+				}
+				reset();
+				return count;
+			}
+
+			/** Settles the vertices closer to 'source' than 'limit', avoiding
+			 * 'skipped', until witnessLimit vertices are settled.
+			 */
+			private void search(int source, int skipped, double limit) {
+				label(source, 0);
+				heap.offer(source, 0);
+				int settled = 0;
+				while (!heap.isEmpty() && heap.peekKey() <= limit && settled < witnessLimit) {
+					int id = heap.poll();
+					settled++;
+					Adjacency out = outgoing[id];
+					for (int i = 0; i < out.size; i++) {
+						int to = out.ids[i];
+						if (to == skipped || contracted[to])
+							continue;
+						double distance = distances[id] + out.weights[i];
+						if (distance < distances[to]) {
+							label(to, distance);
+							heap.offer(to, distance);
+						}
+					}
+				}
+			}
+
+			private void label(int id, double distance) {
+				if (distances[id] == Double.POSITIVE_INFINITY)
+					touched[touchedCount++] = id;
+				distances[id] = distance;
+			}
+
+			private void reset() {
+				for (int i = 0; i < touchedCount; i++) {
+					distances[touched[i]] = Double.POSITIVE_INFINITY;
+				}
+				touchedCount = 0;
+				heap.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package net.sf.yogl.paths;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/** Min heap of ints in [0, capacity[, each one with a double priority. The
+ * heap is d-ary and stored in primitive arrays, with the position of each
+ * item so that its priority can be decreased in place. Ints are vertex ids
+ * for the shortest path searches.
+ */
+final class IndexedHeap {
+
+	static final int DEFAULT_ARITY = 4;
+
+	private final int arity;
+
+	/** items, in heap order
+	 */
+	private final int[] items;
+
+	/** priorities, by position in 'items'
+	 */
+	private final double[] keys;
+
+	/** position of each item in 'items', -1 if absent
+	 */
+	private final int[] positions;
+
+	private int size = 0;
+
+	IndexedHeap(int capacity) {
+		this(capacity, DEFAULT_ARITY);
+	}
+
+	IndexedHeap(int capacity, int arity) {
+		if (arity < 2)
+			throw new IllegalArgumentException("arity must be at least 2: " + arity);
+		this.arity = arity;
+		items = new int[capacity];
+		keys = new double[capacity];
+		positions = new int[capacity];
+		Arrays.fill(positions, -1);
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean contains(int item) {
+		return positions[item] >= 0;
+	}
+
+	/** Inserts the item, or lowers its priority if it is present with a
+	 * greater one.
+	 * @return true if the heap has changed
+	 */
+	boolean offer(int item, double key) {
+		int position = positions[item];
+		if (position < 0) {
+			position = size++;
+			items[position] = item;
+			keys[position] = key;
+			positions[item] = position;
+		} else if (key < keys[position]) {
+			keys[position] = key;
+		} else {
+			return false;
+		}
+		siftUp(position);
+		return true;
+	}
+
+	/** Inserts the item, or changes its priority whether it goes up or down
+	 */
+	void update(int item, double key) {
+		int position = positions[item];
+		if (position < 0 || key < keys[position]) {
+			offer(item, key);
+		} else {
+			keys[position] = key;
+			siftDown(position);
+		}
+	}
+
+	double peekKey() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return keys[0];
+	}
+
+	/** Removes the item with the lowest priority
+	 */
+	int poll() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		int top = items[0];
+		positions[top] = -1;
+		size--;
+		if (size > 0) {
+			move(size, 0);
+			siftDown(0);
+		}
+		return top;
+	}
+
+	/** Removes all items
+	 */
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[items[i]] = -1;
+		}
+		size = 0;
+	}
+
+	private void siftUp(int position) {
+		int item = items[position];
+		double key = keys[position];
+		while (position > 0) {
+			int parent = (position - 1) / arity;
+			if (keys[parent] <= key)
+				break;
+			move(parent, position);
+			position = parent;
+		}
+		set(position, item, key);
+	}
+
+	private void siftDown(int position) {
+		int item = items[position];
+		double key = keys[position];
+		while (true) {
+			int first = position * arity + 1;
+			if (first >= size)
+				break;
+			int last = Math.min(first + arity, size);
+			int smallest = first;
+			for (int child = first + 1; child < last; child++) {
+				if (keys[child] < keys[smallest])
+					smallest = child;
+			}
+			if (keys[smallest] >= key)
+				break;
+			move(smallest, position);
+			position = smallest;
+		}
+		set(position, item, key);
+	}
+
+	private void move(int from, int to) {
+		set(to, items[from], keys[from]);
+	}
+
+	private void set(int position, int item, double key) {
+		items[position] = item;
+		keys[position] = key;
+		positions[item] = position;
+	}
+}
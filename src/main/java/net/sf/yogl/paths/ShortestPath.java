@@ -0,0 +1,67 @@
+package net.sf.yogl.paths;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Vertex;
+
+/** Result of a point to point shortest path query
+ */
+public class ShortestPath<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	private final double distance;
+
+	/** vertices of the path, from the source to the target. Empty if the
+	 * target cannot be reached.
+	 */
+	private final Object[] vertices;
+
+	private final int settledCount;
+
+	ShortestPath(double distance, Object[] vertices, int settledCount) {
+		this.distance = distance;
+		this.vertices = vertices;
+		this.settledCount = settledCount;
+	}
+
+	public boolean isFound() {
+		return vertices.length > 0;
+	}
+
+	/** @return the length of the path, Double.POSITIVE_INFINITY if the
+	 * target cannot be reached.
+	 */
+	public double getDistance() {
+		return distance;
+	}
+
+	/** @return the vertices of the path, from the source to the target
+	 */
+	@SuppressWarnings("unchecked")
+	public List<VERTEX> getPath() {
+		List<VERTEX> path = new ArrayList<>(vertices.length);
+		for (Object vertex : vertices) {
+			path.add((VERTEX) vertex);
+		}
+		return Collections.unmodifiableList(path);
+	}
+
+	/** @return the ids of the vertices of the path
+	 */
+	public int[] getPathIds() {
+		int[] ids = new int[vertices.length];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = ((Vertex<?, ?>) vertices[i]).getId();
+		}
+		return ids;
+	}
+
+	/** @return the number of vertices settled by the query, in both
+	 * directions for a bidirectional one.
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+}
@@ -0,0 +1,101 @@
+package net.sf.yogl.paths;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Vertex;
+
+/** Result of a shortest path search: the distance from the source and the
+ * parent of each settled vertex, in arrays indexed by vertex id (see
+ * Vertex.getId). Vertices that have not been settled, because they cannot
+ * be reached or because the search stopped at its target first, have an
+ * infinite distance and no parent.
+ */
+public class ShortestPathTree<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	private final double[] distances;
+
+	/** id of the parent of each vertex, -1 if none
+	 */
+	private final int[] parents;
+
+	/** vertices by id, for the settled ones
+	 */
+	private final Object[] vertices;
+
+	private final int settledCount;
+
+	ShortestPathTree(double[] distances, int[] parents, Object[] vertices, int settledCount) {
+		this.distances = distances;
+		this.parents = parents;
+		this.vertices = vertices;
+		this.settledCount = settledCount;
+	}
+
+	/** @return true if the shortest path to the vertex is known
+	 */
+	public boolean isReached(VERTEX vertex) {
+		return getDistance(vertex) != Double.POSITIVE_INFINITY;
+	}
+
+	/** @return the length of the shortest path from the source to the
+	 * vertex, Double.POSITIVE_INFINITY if it has not been settled.
+	 */
+	public double getDistance(VERTEX vertex) {
+		int id = vertex.getId();
+		return (id >= 0 && id < distances.length) ? distances[id] : Double.POSITIVE_INFINITY;
+	}
+
+	/** @return the distances, indexed by vertex id. The array is not copied.
+	 */
+	public double[] getDistances() {
+		return distances;
+	}
+
+	/** @return the parent ids, indexed by vertex id, -1 for the source and
+	 * the vertices that have not been settled. The array is not copied.
+	 */
+	public int[] getParents() {
+		return parents;
+	}
+
+	/** @return the number of vertices settled by the search
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/** @return the ids of the vertices of the shortest path, from the source
+	 * to 'target', or an empty array if 'target' has not been settled.
+	 */
+	public int[] getPathIds(VERTEX target) {
+		if (!isReached(target))
+			return new int[0];
+		int length = 0;
+		for (int id = target.getId(); id >= 0; id = parents[id]) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int id = target.getId(); id >= 0; id = parents[id]) {
+			path[--length] = id;
+		}
+		return path;
+	}
+
+	/** @return the vertices of the shortest path, from the source to
+	 * 'target', or an empty list if 'target' has not been settled.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<VERTEX> getPath(VERTEX target) {
+		int[] ids = getPathIds(target);
+		if (ids.length == 0)
+			return Collections.emptyList();
+		List<VERTEX> path = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			path.add((VERTEX) vertices[id]);
+		}
+		return path;
+	}
+}
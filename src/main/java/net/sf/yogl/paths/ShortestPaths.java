@@ -0,0 +1,119 @@
+package net.sf.yogl.paths;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+import net.sf.yogl.Edge;
+import net.sf.yogl.Graph;
+import net.sf.yogl.Vertex;
+
+/** Weighted shortest paths with Dijkstra's algorithm, or A* when a
+ * heuristic is given. The weight of each edge is read by a function, for
+ * instance ValueEdge::getUserValue, and must not be negative.
+ *
+ * The vertices to settle are kept in a d-ary heap of vertex ids. Vertices
+ * are identified by their id (see Vertex.getId) and the graph must not be
+ * modified during a search.
+ */
+public class ShortestPaths<VERTEX extends Vertex<VERTEX, EDGE>, EDGE extends Edge<EDGE, VERTEX>> {
+
+	private final Graph<VERTEX, EDGE> graph;
+
+	private final ToDoubleFunction<EDGE> weight;
+
+	public ShortestPaths(Graph<VERTEX, EDGE> graph, ToDoubleFunction<EDGE> weight) {
+		this.graph = graph;
+		this.weight = weight;
+	}
+
+	/** Settles all the vertices reachable from the source.
+	 */
+	public ShortestPathTree<VERTEX, EDGE> search(VERTEX source) {
+		return run(source, null, null);
+	}
+
+	/** Stops as soon as the target is settled.
+	 */
+	public ShortestPathTree<VERTEX, EDGE> search(VERTEX source, VERTEX target) {
+		return run(source, target, null);
+	}
+
+	/** A* search: the vertices are settled in the order of their distance
+	 * from the source plus their estimated distance to the target.
+	 * @param heuristic estimated distance of a vertex to the target. It
+	 * must be consistent: never greater than the weight of an edge plus the
+	 * estimate of its end vertex, and 0 for the target.
+	 */
+	public ShortestPathTree<VERTEX, EDGE> search(VERTEX source, VERTEX target, ToDoubleFunction<VERTEX> heuristic) {
+		if (target == null)
+			throw new IllegalArgumentException("A* needs a target");
+		return run(source, target, heuristic);
+	}
+
+	@SuppressWarnings("unchecked")
+	private ShortestPathTree<VERTEX, EDGE> run(VERTEX source, VERTEX target, ToDoubleFunction<VERTEX> heuristic) {
+		int size = Math.max(graph.maxVertexId(), 0);
+		double[] distances = new double[size];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		int[] parents = new int[size];
+		Arrays.fill(parents, -1);
+		Object[] vertices = new Object[size];
+		IndexedHeap heap = new IndexedHeap(size);
+		int targetId = (target == null) ? -1 : idOf(target, size);
+
+		int sourceId = idOf(source, size);
+		distances[sourceId] = 0;
+		vertices[sourceId] = source;
+		heap.offer(sourceId, (heuristic == null) ? 0 : heuristic.applyAsDouble(source));
+		int settled = 0;
+		while (!heap.isEmpty()) {
+			int id = heap.poll();
+			settled++;
+			if (id == targetId)
+				break;
+			VERTEX current = (VERTEX) vertices[id];
+			if (current.hasIndexedEdges()) {
+				int count = current.edgeCount();
+				for (int e = 0; e < count; e++) {
+					relax(id, current.edgeAt(e), distances, parents, vertices, heap, heuristic);
+				}
+			} else {
+				for (EDGE edge : current.getOutgoingEdges()) {
+					relax(id, edge, distances, parents, vertices, heap, heuristic);
+				}
+			}
+		}
+		// the vertices left in the heap only have a tentative distance
+		while (!heap.isEmpty()) {
+			int id = heap.poll();
+			distances[id] = Double.POSITIVE_INFINITY;
+			parents[id] = -1;
+		}
+		return new ShortestPathTree<>(distances, parents, vertices, settled);
+	}
+
+	private void relax(int from, EDGE edge, double[] distances, int[] parents, Object[] vertices, IndexedHeap heap,
+			ToDoubleFunction<VERTEX> heuristic) {
+		VERTEX target = edge.getToVertex();
+		if (target == null)
+			return;
+		double w = weight.applyAsDouble(edge);
+		if (!(w >= 0))
+			throw new IllegalArgumentException("Invalid edge weight: " + w);
+		int id = idOf(target, distances.length);
+		double distance = distances[from] + w;
+		if (distance < distances[id]) {
+			distances[id] = distance;
+			parents[id] = from;
+			vertices[id] = target;
+			heap.offer(id, (heuristic == null) ? distance : distance + heuristic.applyAsDouble(target));
+		}
+	}
+
+	static int idOf(Vertex<?, ?> vertex, int size) {
+		int id = vertex.getId();
+		if (id < 0 || id >= size)
+			throw new IllegalArgumentException("Vertex without a valid id: " + vertex);
+		return id;
+	}
+}
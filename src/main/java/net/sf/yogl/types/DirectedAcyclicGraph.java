@@ -1,15 +1,43 @@
-   
 package net.sf.yogl.types;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.CycleDetectedException;
 import net.sf.yogl.exceptions.DuplicateLinkException;
 import net.sf.yogl.exceptions.GraphCorruptedException;
 import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.exceptions.LinkNotFoundException;
 import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.iterators.MultiSourceBreadthFirstSearch;
 
-/** 
+/**
  * Cannot be used in conjunction with DupNodesGraph
  *
+ * The graph keeps a topological order of its vertices: every link goes
+ * from a vertex to a later one. A link respecting the order is added in
+ * constant time. Otherwise only the vertices placed between its two ends
+ * are searched and reordered (Pearce and Kelly's algorithm), and a link
+ * that would close a cycle is rejected with a CycleDetectedException.
+ * Links added directly with KeyValueVertex.tryAddEdge are checked as well,
+ * but since that method cannot throw a checked exception, a link closing a
+ * cycle is removed and an IllegalStateException is thrown. The same holds
+ * for the links a vertex already has when it is added: the other links are
+ * kept.
+ * Vertices are ordered as they are added, so loading them in topological
+ * order (each vertex before the vertices it links to) never reorders them.
+ *
+ * Links added by addLinkLast can be given a key, used by the methods taking
+ * a link key.
+ *
  * method boolean isEmpty is inherited
  * method int getCountNodes is inherited
  * method int getCountLinks is inherited
@@ -19,32 +47,173 @@ import net.sf.yogl.exceptions.NodeNotFoundException;
 
 public final class DirectedAcyclicGraph<VK extends Comparable<VK>, VV, EK extends Comparable<EK>, EV> extends KeyValueGraph<VK,VV,EV> {
 
-	/** @see graph.ComparableKeysGraph.getNeighbors
+	/** position of each vertex in the topological order, indexed by vertex
+	 * id. Positions increase along every link and may have gaps. -1 for the
+	 * ids without vertex.
+	 */
+	private int[] positions = new int[0];
+
+	private int nextPosition = 0;
+
+	/** keys of the links, indexed by edge id
+	 */
+	private Object[] linkKeys = new Object[0];
+
+	/** vertices visited by the current reordering have the current stamp
+	 */
+	private int[] marks = new int[0];
+
+	private int stamp = 0;
+
+	/** first link refused while the links of a vertex are registered by
+	 * addRootVertex, null otherwise
+	 */
+	private CycleDetectedException refused = null;
+
+	private boolean adding = false;
+
+	/** Incoming edges are indexed: the reordering walks links backward.
+	 */
+	public DirectedAcyclicGraph() {
+		super(true);
+	}
+
+	/** @throws IllegalStateException if links of the vertex close a cycle.
+	 * The vertex is added without them.
+	 */
+	@Override
+	public KeyValueVertex<VK, VV, EV> addRootVertex(KeyValueVertex<VK, VV, EV> vertex, boolean isRoot) {
+		KeyValueVertex<VK, VV, EV> result;
+		adding = true;
+		try {
+			result = super.addRootVertex(vertex, isRoot);
+		} finally {
+			adding = false;
+		}
+		if (getVertex(vertex.getKey()) == vertex)
+			place(vertex.getId());
+		if (refused != null) {
+			CycleDetectedException e = refused;
+			refused = null;
+			throw new IllegalStateException(e);
+		}
+		return result;
+	}
+
+	/** Keeps the order when a link is added to a vertex of this graph.
+	 */
+	@Override
+	protected void edgeAdded(KeyValueVertex<VK, VV, EV> fromVertex, ValueEdge<VK, VV, EV> edge) {
+		super.edgeAdded(fromVertex, edge);
+		KeyValueVertex<VK, VV, EV> toVertex = edge.getToVertex();
+		if (fromVertex.getId() < 0 || toVertex.getId() < 0)
+			return;
+		if (!reorder(fromVertex, toVertex)) {
+			fromVertex.removeEdge(edge);
+			CycleDetectedException e = new CycleDetectedException(fromVertex.getKey(), toVertex.getKey());
+			if (!adding)
+				throw new IllegalStateException(e);
+			if (refused == null)
+				refused = e;
+		}
+	}
+
+	/** Keeps the order when a link of this graph is redirected. A link
+	 * that would close a cycle is pointed back to its former target.
+	 */
+	@Override
+	protected void edgeRedirected(KeyValueVertex<VK, VV, EV> fromVertex, ValueEdge<VK, VV, EV> edge,
+			KeyValueVertex<VK, VV, EV> oldTarget) {
+		super.edgeRedirected(fromVertex, edge, oldTarget);
+		KeyValueVertex<VK, VV, EV> toVertex = edge.getToVertex();
+		if (fromVertex.getId() < 0 || toVertex == null || toVertex.getId() < 0)
+			return;
+		if (!reorder(fromVertex, toVertex)) {
+			edge.setToVertex(oldTarget);
+			throw new IllegalStateException(new CycleDetectedException(fromVertex.getKey(), toVertex.getKey()));
+		}
+	}
+
+	@Override
+	protected void edgeRemoved(KeyValueVertex<VK, VV, EV> fromVertex, ValueEdge<VK, VV, EV> edge) {
+		int id = edge.getId();
+		super.edgeRemoved(fromVertex, edge);
+		if (id >= 0 && id < linkKeys.length)
+			linkKeys[id] = null;
+	}
+
+	/** @return the vertices, each one placed before the vertices it links to
+	 */
+	public List<KeyValueVertex<VK, VV, EV>> getTopologicalOrder() {
+		return vertexStream().sorted(Comparator.comparingInt(vertex -> positions[vertex.getId()]))
+				.collect(Collectors.toList());
+	}
+
+	/** Returns the keys of the nodes at 'steps' links from the given node,
+	 * following the shortest path. See MultiSourceBreadthFirstSearch.
+	 * @see graph.ComparableKeysGraph.getNeighbors
 	 */
+	@SuppressWarnings("unchecked")
 	public VK[] getSuccessorNodesKeys(VK nodeKeyFrom, int steps)
 		throws GraphException {
 
-		return this.getSuccessorNodesKeys(nodeKeyFrom, steps);
+		KeyValueVertex<VK, VV, EV> from = getVertex(nodeKeyFrom);
+		if (from == null)
+			throw new NodeNotFoundException(String.valueOf(nodeKeyFrom));
+		if (steps < 1)
+			throw new GraphException("steps must be at least 1: " + steps);
+		List<KeyValueVertex<VK, VV, EV>> successors = new MultiSourceBreadthFirstSearch<>(this)
+				.search(Collections.singletonList(from), steps).getNeighbors(0, steps);
+		VK[] result = (VK[]) new Comparable<?>[successors.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = successors.get(i).getKey();
+		}
+		return result;
 	}
 
-	/** @see graph.ComparableKeysGraph.getNeighbors
+	/** Returns the keys of the nodes reached from the given node by a link
+	 * having the given key.
+	 * @see graph.ComparableKeysGraph.getNeighbors
 	 */
+	@SuppressWarnings("unchecked")
 	public VK[] getSuccessorNodesKeys(VK nodeKeyFrom, EK linkKey)
 		throws GraphException {
 
-		return this.getSuccessorNodesKeys(nodeKeyFrom, linkKey);
+		KeyValueVertex<VK, VV, EV> from = vertex(nodeKeyFrom);
+		List<VK> result = new ArrayList<>();
+		for (ValueEdge<VK, VV, EV> edge : from.getOutgoingEdges()) {
+			if (Objects.equals(linkKey(edge), linkKey))
+				result.add(edge.getToVertex().getKey());
+		}
+		return result.toArray((VK[]) new Comparable<?>[result.size()]);
 	}
 
-	/** @see graph.ComparableKeysGraph.getLinks
+	/** Returns the keys of the links between the two nodes. Links added
+	 * without a key are not returned.
+	 * @see graph.ComparableKeysGraph.getLinks
 	 */
+	@SuppressWarnings("unchecked")
 	public EK[] getLinksKeysBetween(VK nodeKeyFrom, VK nodeKeyTo) throws NodeNotFoundException
 		{
 
-		return this.getLinksKeysBetween(nodeKeyFrom, nodeKeyFrom);
+		KeyValueVertex<VK, VV, EV> from = vertex(nodeKeyFrom);
+		KeyValueVertex<VK, VV, EV> to = vertex(nodeKeyTo);
+		List<EK> result = new ArrayList<>();
+		for (ValueEdge<VK, VV, EV> edge : getLinksKeysBetween(from, to)) {
+			EK key = linkKey(edge);
+			if (key != null)
+				result.add(key);
+		}
+		return result.toArray((EK[]) new Comparable<?>[result.size()]);
 	}
 
 
-	/** @see graph.ComparableKeysGraph.insertLink
+	/** Adds a link at the end of the links of 'nodeKeyFrom'.
+	 * @param linkKey identifies the link among the links between the two
+	 *        nodes, may be null
+	 * @throws CycleDetectedException if 'nodeKeyTo' already leads to
+	 *         'nodeKeyFrom'. The graph is not modified.
+	 * @see graph.ComparableKeysGraph.insertLink
 	 */
 	public void addLinkLast(
 		VK nodeKeyFrom,
@@ -54,9 +223,25 @@ public final class DirectedAcyclicGraph<VK extends Comparable<VK>, VV, EK extend
 		throws
 			NodeNotFoundException,
 			DuplicateLinkException,
-			GraphCorruptedException {
+			GraphCorruptedException,
+			CycleDetectedException {
 
-		this.addLinkLast(nodeKeyFrom, nodeKeyTo, linkKey, linkValue);
+		KeyValueVertex<VK, VV, EV> from = vertex(nodeKeyFrom);
+		KeyValueVertex<VK, VV, EV> to = vertex(nodeKeyTo);
+		if (linkKey != null && findLink(from, to, linkKey) != null) {
+			DuplicateLinkException e = new DuplicateLinkException("Link already exists: " + linkKey);
+			e.setNodeKeyFrom(nodeKeyFrom);
+			e.setNodeKeyTo(nodeKeyTo);
+			e.setLink(linkKey);
+			throw e;
+		}
+		if (!reorder(from, to))
+			throw new CycleDetectedException(nodeKeyFrom, nodeKeyTo);
+		ValueEdge<VK, VV, EV> edge = new ValueEdge<>(linkValue, to);
+		from.tryAddEdge(edge);
+		if (edge.getId() >= linkKeys.length)
+			linkKeys = Arrays.copyOf(linkKeys, Math.max(edge.getId() + 1, linkKeys.length * 2));
+		linkKeys[edge.getId()] = linkKey;
 	}
 
 	/** @see graph.ComparableKeysGraph.removeNode
@@ -64,15 +249,142 @@ public final class DirectedAcyclicGraph<VK extends Comparable<VK>, VV, EK extend
 	public void removeNode(VK nodeKey) throws NodeNotFoundException {
 
 		if (nodeKey != null) {
+			KeyValueVertex<VK, VV, EV> vertex = getVertex(nodeKey);
+			int id = (vertex == null) ? -1 : vertex.getId();
 			super.removeNode(nodeKey);
+			if (id >= 0)
+				positions[id] = -1;
 		}
 	}
 
-	/** @see graph.ComparableKeysGraph.removeLink
+	/** Removes the link having the given key between the two nodes.
+	 * @see graph.ComparableKeysGraph.removeLink
 	 */
 	public void removeLink(VK nodeFrom, VK nodeTo, EK linkKey)
 		throws GraphException {
 
-		this.removeLink(nodeFrom, nodeTo, linkKey);
+		ValueEdge<VK, VV, EV> edge = findLink(vertex(nodeFrom), vertex(nodeTo), linkKey);
+		if (edge == null)
+			throw new LinkNotFoundException("No link " + linkKey + " from " + nodeFrom + " to " + nodeTo);
+		super.removeLink(nodeFrom, nodeTo, edge);
+	}
+
+	private KeyValueVertex<VK, VV, EV> vertex(VK key) throws NodeNotFoundException {
+		KeyValueVertex<VK, VV, EV> vertex = getVertex(key);
+		if (vertex == null)
+			throw new NodeNotFoundException(String.valueOf(key));
+		return vertex;
+	}
+
+	@SuppressWarnings("unchecked")
+	private EK linkKey(ValueEdge<VK, VV, EV> edge) {
+		int id = edge.getId();
+		return (id >= 0 && id < linkKeys.length) ? (EK) linkKeys[id] : null;
+	}
+
+	private ValueEdge<VK, VV, EV> findLink(KeyValueVertex<VK, VV, EV> from, KeyValueVertex<VK, VV, EV> to, EK linkKey)
+		throws NodeNotFoundException {
+
+		for (ValueEdge<VK, VV, EV> edge : getLinksKeysBetween(from, to)) {
+			if (Objects.equals(linkKey(edge), linkKey))
+				return edge;
+		}
+		return null;
+	}
+
+	/** Gives the vertex the last position, if it has none
+	 */
+	private void place(int id) {
+		if (id >= positions.length) {
+			int oldLength = positions.length;
+			positions = Arrays.copyOf(positions, Math.max(id + 1, oldLength * 2));
+			Arrays.fill(positions, oldLength, positions.length, -1);
+			marks = Arrays.copyOf(marks, positions.length);
+		}
+		if (positions[id] < 0)
+			positions[id] = nextPosition++;
+	}
+
+	/** Moves the vertices so that 'from' comes before 'to'. Only the
+	 * vertices placed between them are visited: those reached from 'to',
+	 * which move after those leading to 'from'.
+	 * @return false if 'to' leads to 'from': the link would close a cycle
+	 */
+	private boolean reorder(KeyValueVertex<VK, VV, EV> from, KeyValueVertex<VK, VV, EV> to) {
+		if (from == to)
+			return false;
+		place(from.getId());
+		place(to.getId());
+		int lower = positions[to.getId()];
+		int upper = positions[from.getId()];
+		if (upper < lower)
+			return true;
+		stamp++;
+		List<KeyValueVertex<VK, VV, EV>> forward = reachedFrom(to, upper, from);
+		if (forward == null)
+			return false;
+		List<KeyValueVertex<VK, VV, EV>> backward = leadingTo(from, lower);
+		Comparator<KeyValueVertex<VK, VV, EV>> byPosition = Comparator.comparingInt(vertex -> positions[vertex.getId()]);
+		forward.sort(byPosition);
+		backward.sort(byPosition);
+		int[] freed = new int[backward.size() + forward.size()];
+		int i = 0;
+		for (KeyValueVertex<VK, VV, EV> vertex : backward) {
+			freed[i++] = positions[vertex.getId()];
+		}
+		for (KeyValueVertex<VK, VV, EV> vertex : forward) {
+			freed[i++] = positions[vertex.getId()];
+		}
+		Arrays.sort(freed);
+		i = 0;
+		for (KeyValueVertex<VK, VV, EV> vertex : backward) {
+			positions[vertex.getId()] = freed[i++];
+		}
+		for (KeyValueVertex<VK, VV, EV> vertex : forward) {
+			positions[vertex.getId()] = freed[i++];
+		}
+		return true;
+	}
+
+	/** @return the vertices reached from 'start' without going past the
+	 * position 'upper', or null if 'target' is reached
+	 */
+	private List<KeyValueVertex<VK, VV, EV>> reachedFrom(KeyValueVertex<VK, VV, EV> start, int upper,
+			KeyValueVertex<VK, VV, EV> target) {
+		List<KeyValueVertex<VK, VV, EV>> reached = new ArrayList<>();
+		marks[start.getId()] = stamp;
+		reached.add(start);
+		for (int next = 0; next < reached.size(); next++) {
+			for (ValueEdge<VK, VV, EV> edge : reached.get(next).getOutgoingEdges()) {
+				KeyValueVertex<VK, VV, EV> vertex = edge.getToVertex();
+				if (vertex == target)
+					return null;
+				int id = vertex.getId();
+				if (id >= 0 && marks[id] != stamp && positions[id] >= 0 && positions[id] < upper) {
+					marks[id] = stamp;
+					reached.add(vertex);
+				}
+			}
+		}
+		return reached;
+	}
+
+	/** @return the vertices leading to 'start' without going before the
+	 * position 'lower'
+	 */
+	private List<KeyValueVertex<VK, VV, EV>> leadingTo(KeyValueVertex<VK, VV, EV> start, int lower) {
+		List<KeyValueVertex<VK, VV, EV>> reached = new ArrayList<>();
+		marks[start.getId()] = stamp;
+		reached.add(start);
+		for (int next = 0; next < reached.size(); next++) {
+			for (KeyValueVertex<VK, VV, EV> vertex : getPredecessorVertices(reached.get(next))) {
+				int id = vertex.getId();
+				if (id >= 0 && marks[id] != stamp && positions[id] > lower) {
+					marks[id] = stamp;
+					reached.add(vertex);
+				}
+			}
+		}
+		return reached;
 	}
 }
@@ -0,0 +1,9 @@
+package net.sf.yogl.utils;
+
+/** Operation taking three arguments and returning no result, like
+ * java.util.function.BiConsumer with one more argument.
+ */
+@FunctionalInterface
+public interface TriConsumer<A, B, C> {
+	void accept(A a, B b, C c);
+}
@@ -0,0 +1,152 @@
+package net.sf.yogl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.iterators.BreadthFirstIterator;
+import net.sf.yogl.iterators.DepthFirstIterator;
+import net.sf.yogl.types.VertexType;
+
+public class GraphDefaultsTest {
+
+	/** Graph implemented outside the library: only the abstract methods of
+	 * Graph are given, by delegation.
+	 */
+	static class MinimalGraph implements Graph<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> {
+
+		private final KeyValueGraph<String, String, String> graph = new KeyValueGraph<>();
+
+		@Override
+		public int getMaxOutDegree() {
+			return graph.getMaxOutDegree();
+		}
+
+		@Override
+		public int getMaxInDegree() {
+			return graph.getMaxInDegree();
+		}
+
+		@Override
+		public int getNodeCount() {
+			return graph.getNodeCount();
+		}
+
+		@Override
+		public int getLinkCount() {
+			return graph.getLinkCount();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return graph.isEmpty();
+		}
+
+		@Override
+		public boolean isRootVertex(KeyValueVertex<String, String, String> vertex) {
+			return graph.isRootVertex(vertex);
+		}
+
+		@Override
+		public Collection<KeyValueVertex<String, String, String>> getRoots() {
+			return graph.getRoots();
+		}
+
+		@Override
+		public Collection<KeyValueVertex<String, String, String>> getVertices(VertexType type) throws GraphException {
+			return graph.getVertices(type);
+		}
+
+		@Override
+		public void clearAllVisitCounts() {
+			graph.clearAllVisitCounts();
+		}
+
+		@Override
+		public Collection<KeyValueVertex<String, String, String>> getPredecessorVertices(KeyValueVertex<String, String, String> vertex) {
+			return graph.getPredecessorVertices(vertex);
+		}
+
+		@Override
+		public KeyValueVertex<String, String, String> getPredecessorVertex(KeyValueVertex<String, String, String> destVertex,
+				ValueEdge<String, String, String> edge) {
+			return graph.getPredecessorVertex(destVertex, edge);
+		}
+
+		@Override
+		public Collection<KeyValueVertex<String, String, String>> getSuccessorVertices(KeyValueVertex<String, String, String> vertex) {
+			return graph.getSuccessorVertices(vertex);
+		}
+
+		@Override
+		public BreadthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> breadthFirstIterator(
+				int maxCycle) throws NodeNotFoundException {
+			return graph.breadthFirstIterator(maxCycle);
+		}
+
+		@Override
+		public DepthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> depthFirstIterator(
+				Collection<KeyValueVertex<String, String, String>> startVertex, int maxCycling) throws GraphException {
+			return graph.depthFirstIterator(startVertex, maxCycling);
+		}
+
+		@Override
+		public KeyValueVertex<String, String, String> addRootVertex(KeyValueVertex<String, String, String> vertex, boolean isRoot) {
+			return graph.addRootVertex(vertex, isRoot);
+		}
+
+		@Override
+		public VertexType getVertexType(KeyValueVertex<String, String, String> vertex) {
+			return graph.getVertexType(vertex);
+		}
+	}
+
+	/** a -> b, a -> c, b -> c, c -> a
+	 */
+	private MinimalGraph createGraph() throws NodeNotFoundException {
+		MinimalGraph graph = new MinimalGraph();
+		KeyValueVertex<String, String, String> a = new KeyValueVertex<>("a", "A");
+		KeyValueVertex<String, String, String> b = new KeyValueVertex<>("b", "B");
+		KeyValueVertex<String, String, String> c = new KeyValueVertex<>("c", "C");
+		graph.addRootVertex(a, true);
+		graph.addRootVertex(b, false);
+		graph.addRootVertex(c, false);
+		a.tryAddEdge(new ValueEdge<>("ab", b));
+		a.tryAddEdge(new ValueEdge<>("ac", c));
+		b.tryAddEdge(new ValueEdge<>("bc", c));
+		c.tryAddEdge(new ValueEdge<>("ca", a));
+		return graph;
+	}
+
+	@Test
+	public void defaultStreamsShouldWalkTheGraphFromTheRoots() throws NodeNotFoundException {
+		MinimalGraph graph = createGraph();
+
+		assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")),
+				graph.vertexStream().map(KeyValueVertex::getKey).collect(Collectors.toSet()));
+		assertEquals(new HashSet<>(Arrays.asList("ab", "ac", "bc", "ca")),
+				graph.edgeStream().map(ValueEdge::getUserValue).collect(Collectors.toSet()));
+		assertEquals(3, graph.vertexStream().count());
+		assertEquals(4, graph.edgeStream().count());
+	}
+
+	@Test
+	public void defaultIdBoundsShouldCoverAllIds() throws NodeNotFoundException {
+		MinimalGraph graph = createGraph();
+
+		assertEquals(graph.graph.maxVertexId(), graph.maxVertexId());
+		assertEquals(graph.graph.maxEdgeId(), graph.maxEdgeId());
+		assertEquals(0, new MinimalGraph().maxVertexId());
+		assertEquals(0, new MinimalGraph().maxEdgeId());
+	}
+}
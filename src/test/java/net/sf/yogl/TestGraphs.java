@@ -0,0 +1,71 @@
+package net.sf.yogl;
+
+import java.util.Random;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+
+/** Small graphs shared by the tests. Edge values are the keys of their
+ * ends, "12" for the edge 1 -> 2.
+ */
+public final class TestGraphs {
+
+	private TestGraphs() {
+	}
+
+	/** 1 -> 2, 1 -> 3, 2 -> 4, 3 -> 4
+	 */
+	public static KeyValueGraph<String, String, String> diamond() throws GraphException {
+		return diamond(true);
+	}
+
+	/** 1 -> 2, 1 -> 3, 2 -> 4, 3 -> 4
+	 */
+	public static KeyValueGraph<String, String, String> diamond(boolean indexIncomingEdges) throws GraphException {
+		KeyValueGraph<String, String, String> graph = new KeyValueGraph<>(indexIncomingEdges);
+		KeyValueVertex<String, String, String> v1 = new KeyValueVertex<>("1", "one");
+		KeyValueVertex<String, String, String> v2 = new KeyValueVertex<>("2", "two");
+		KeyValueVertex<String, String, String> v3 = new KeyValueVertex<>("3", "three");
+		KeyValueVertex<String, String, String> v4 = new KeyValueVertex<>("4", "four");
+		graph.addRootVertex(v1, true);
+		graph.addRootVertex(v2, false);
+		graph.addRootVertex(v3, false);
+		graph.addRootVertex(v4, false);
+		v1.tryAddEdge(new ValueEdge<>("12", v2));
+		v1.tryAddEdge(new ValueEdge<>("13", v3));
+		v2.tryAddEdge(new ValueEdge<>("24", v4));
+		v3.tryAddEdge(new ValueEdge<>("34", v4));
+		return graph;
+	}
+
+	/** 1 -> 2, 1 -> 3, 2 -> 4, 3 -> 4, 4 -> 1
+	 */
+	public static KeyValueGraph<String, String, String> loopedDiamond() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond();
+		graph.getVertex("4").tryAddEdge(new ValueEdge<>("41", graph.getVertex("1")));
+		return graph;
+	}
+
+	/** Vertex 0 is the only root. Every other vertex has one edge coming
+	 * from a vertex with a smaller key, plus 'density' random edges per
+	 * vertex on average.
+	 */
+	public static KeyValueGraph<Integer, String, String> randomGraph(int size, int density, long seed) throws GraphException {
+		Random random = new Random(seed);
+		KeyValueGraph<Integer, String, String> graph = new KeyValueGraph<>();
+		for (int i = 0; i < size; i++) {
+			graph.addRootVertex(new KeyValueVertex<>(i, "v" + i), i == 0);
+		}
+		for (int i = 1; i < size; i++) {
+			graph.getVertex(random.nextInt(i)).tryAddEdge(new ValueEdge<>("t" + i, graph.getVertex(i)));
+		}
+		for (int i = 0; i < size * density; i++) {
+			int from = random.nextInt(size);
+			int to = random.nextInt(size);
+			graph.getVertex(from).tryAddEdge(new ValueEdge<>(from + "-" + to, graph.getVertex(to)));
+		}
+		return graph;
+	}
+}
@@ -0,0 +1,99 @@
+package net.sf.yogl.adjacent.csr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphCorruptedException;
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.impl.ValueCodec;
+import net.sf.yogl.iterators.BreadthFirstIterator;
+
+public class CsrGraphFileTest {
+
+	@TempDir
+	Path directory;
+
+	/** 1 -> 2, 1 -> 3, 2 -> 4, 3 -> 4. Vertex 3 has no value.
+	 */
+	private CsrGraph<String, String, String> createDiamond() throws GraphException {
+		KeyValueGraph<String, String, String> graph = new KeyValueGraph<>();
+		KeyValueVertex<String, String, String> v1 = new KeyValueVertex<>("1", "one");
+		KeyValueVertex<String, String, String> v2 = new KeyValueVertex<>("2", "two");
+		KeyValueVertex<String, String, String> v3 = new KeyValueVertex<>("3", null);
+		KeyValueVertex<String, String, String> v4 = new KeyValueVertex<>("4", "four");
+		graph.addRootVertex(v1, true);
+		graph.addRootVertex(v2, false);
+		graph.addRootVertex(v3, false);
+		graph.addRootVertex(v4, false);
+		v1.tryAddEdge(new ValueEdge<>("12", v2));
+		v1.tryAddEdge(new ValueEdge<>("13", v3));
+		v2.tryAddEdge(new ValueEdge<>("24", v4));
+		v3.tryAddEdge(new ValueEdge<>("34", v4));
+		return graph.freeze();
+	}
+
+	@Test
+	public void openedGraphShouldMatchTheWrittenOne() throws GraphException, IOException {
+		Path file = directory.resolve("diamond.graph");
+		CsrGraphFile.write(createDiamond(), file, ValueCodec.STRING, ValueCodec.STRING, ValueCodec.STRING);
+
+		CsrGraph<String, String, String> csr = CsrGraphFile.open(file, ValueCodec.STRING, ValueCodec.STRING, ValueCodec.STRING);
+
+		assertTrue(csr.isOffHeap());
+		assertEquals(4, csr.getNodeCount());
+		assertEquals(4, csr.getLinkCount());
+		assertEquals(2, csr.getMaxInDegree());
+		assertEquals("two", csr.getVertex("2").getUserValue());
+		assertNull(csr.getVertex("3").getUserValue());
+		assertEquals("13", csr.edgeValue(csr.firstEdge(csr.indexOf("1")) + 1));
+		assertTrue(csr.isRootVertex(csr.getVertex("1")));
+		assertFalse(csr.existsNode("5"));
+		List<String> keys = new ArrayList<>();
+		csr.getPredecessorVertices(csr.getVertex("4")).forEach(v -> keys.add(v.getKey()));
+		assertEquals(Arrays.asList("2", "3"), keys);
+		BreadthFirstIterator<CsrVertex<String, String, String>, CsrEdge<String, String, String>> iter = csr.breadthFirstIterator(1);
+		StringBuilder visited = new StringBuilder();
+		while (iter.hasNext()) {
+			visited.append(iter.next().getKey());
+		}
+		assertEquals("1234", visited.toString());
+	}
+
+	@Test
+	public void valuesShouldBeOptional() throws GraphException, IOException {
+		Path file = directory.resolve("keys.graph");
+		CsrGraphFile.write(createDiamond(), file, ValueCodec.STRING, null, ValueCodec.STRING);
+
+		CsrGraph<String, String, String> csr = CsrGraphFile.open(file, ValueCodec.STRING, ValueCodec.STRING, null);
+
+		assertNull(csr.getVertex("2").getUserValue());
+		assertNull(csr.edgeValue(0));
+		assertEquals(2, csr.outDegree(csr.indexOf("1")));
+	}
+
+	@Test
+	public void truncatedFileShouldBeRejected() throws GraphException, IOException {
+		Path file = directory.resolve("truncated.graph");
+		CsrGraphFile.write(createDiamond(), file, ValueCodec.STRING, ValueCodec.STRING, ValueCodec.STRING);
+		byte[] content = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(content, content.length - 4));
+
+		assertThrows(GraphCorruptedException.class, () -> CsrGraphFile.open(file, ValueCodec.STRING, null, null));
+	}
+}
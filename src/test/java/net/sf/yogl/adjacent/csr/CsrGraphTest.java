@@ -0,0 +1,93 @@
+package net.sf.yogl.adjacent.csr;
+
+import static net.sf.yogl.TestGraphs.diamond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.iterators.BreadthFirstIterator;
+
+public class CsrGraphTest {
+
+	@Test
+	public void frozenGraphShouldKeepTheTopology() throws GraphException {
+		CsrGraph<String, String, String> csr = diamond().freeze();
+
+		assertEquals(4, csr.getNodeCount());
+		assertEquals(4, csr.getLinkCount());
+		assertEquals(2, csr.getMaxOutDegree());
+		assertEquals(2, csr.getMaxInDegree());
+		int one = csr.indexOf("1");
+		assertEquals(2, csr.outDegree(one));
+		assertEquals("2", csr.key(csr.target(csr.firstEdge(one))));
+		assertEquals("13", csr.edgeValue(csr.firstEdge(one) + 1));
+		assertEquals("three", csr.getVertex("3").getUserValue());
+		assertTrue(csr.isRootVertex(csr.getVertex("1")));
+		assertFalse(csr.isRootVertex(csr.getVertex("4")));
+	}
+
+	@Test
+	public void predecessorsShouldBeFoundFromTheReverseAdjacency() throws GraphException {
+		CsrGraph<String, String, String> csr = diamond().freeze();
+		CsrVertex<String, String, String> four = csr.getVertex("4");
+
+		List<String> keys = new ArrayList<>();
+		csr.getPredecessorVertices(four).forEach(v -> keys.add(v.getKey()));
+
+		assertEquals(Arrays.asList("2", "3"), keys);
+		CsrEdge<String, String, String> edge = csr.getVertex("3").getOutgoingEdges().get(0);
+		assertEquals("3", csr.getPredecessorVertex(four, edge).getKey());
+	}
+
+	@Test
+	public void breadthFirstIteratorShouldWorkOnFrozenGraph() throws GraphException {
+		CsrGraph<String, String, String> csr = diamond().freeze();
+
+		BreadthFirstIterator<CsrVertex<String, String, String>, CsrEdge<String, String, String>> iter = csr.breadthFirstIterator(1);
+		StringBuilder visited = new StringBuilder();
+		while (iter.hasNext()) {
+			visited.append(iter.next().getKey());
+		}
+
+		assertEquals("1234", visited.toString());
+	}
+
+	@Test
+	public void frozenGraphShouldBeReadOnly() throws GraphException {
+		CsrGraph<String, String, String> csr = diamond().freeze();
+		CsrVertex<String, String, String> one = csr.getVertex("1");
+
+		assertThrows(UnsupportedOperationException.class, () -> one.tryAddEdge(one.getOutgoingEdges().get(0)));
+		assertThrows(UnsupportedOperationException.class, () -> csr.addRootVertex(one, true));
+	}
+
+	@Test
+	public void offHeapCopyShouldBehaveLikeTheFrozenGraph() throws GraphException {
+		CsrGraph<String, String, String> csr = CsrGraph.offHeapCopyOf(diamond(),
+				KeyValueVertex::getKey, KeyValueVertex::getUserValue, ValueEdge::getUserValue);
+
+		assertTrue(csr.isOffHeap());
+		assertEquals(4, csr.getLinkCount());
+		assertEquals("13", csr.edgeValue(csr.firstEdge(csr.indexOf("1")) + 1));
+		assertTrue(csr.getVertex("4") == csr.getVertex("4"));
+		List<String> keys = new ArrayList<>();
+		csr.getPredecessorVertices(csr.getVertex("4")).forEach(v -> keys.add(v.getKey()));
+		assertEquals(Arrays.asList("2", "3"), keys);
+		BreadthFirstIterator<CsrVertex<String, String, String>, CsrEdge<String, String, String>> iter = csr.breadthFirstIterator(1);
+		StringBuilder visited = new StringBuilder();
+		while (iter.hasNext()) {
+			visited.append(iter.next().getKey());
+		}
+		assertEquals("1234", visited.toString());
+	}
+}
@@ -0,0 +1,139 @@
+package net.sf.yogl.adjacent.intKey;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.iterators.BreadthFirstIterator;
+
+public class IntKeyGraphTest {
+
+	@Test
+	public void shouldStoreVerticesAndEdges() throws NodeNotFoundException {
+		IntKeyGraph graph = new IntKeyGraph();
+		graph.addVertex(1, true);
+		graph.addVertex(2, false);
+		graph.addVertex(3, false);
+
+		assertTrue(graph.addEdge(1, 2));
+		assertTrue(graph.addEdge(1, 3));
+		assertTrue(graph.addEdge(2, 3));
+		assertFalse(graph.addEdge(1, 2));
+
+		assertEquals(3, graph.getNodeCount());
+		assertEquals(3, graph.getLinkCount());
+		assertArrayEquals(new int[] {2, 3}, graph.successorKeys(1));
+		assertArrayEquals(new int[] {1, 2}, graph.predecessorKeys(3));
+		assertEquals(2, graph.getMaxOutDegree());
+		assertEquals(2, graph.getMaxInDegree());
+	}
+
+	@Test
+	public void forEachSuccessorShouldVisitAllSuccessors() throws NodeNotFoundException {
+		IntKeyGraph graph = new IntKeyGraph();
+		for (int key = 0; key < 100; key++) {
+			graph.addVertex(key, key == 0);
+		}
+		for (int key = 1; key < 100; key++) {
+			graph.addEdge(0, key);
+		}
+		long[] sum = new long[1];
+
+		graph.forEachSuccessor(0, key -> sum[0] += key);
+
+		assertEquals(4950, sum[0]);
+		assertThrows(NodeNotFoundException.class, () -> graph.forEachSuccessor(100, key -> {}));
+	}
+
+	@Test
+	public void removeVertexShouldRemoveIncomingAndOutgoingEdges() throws NodeNotFoundException {
+		IntKeyGraph graph = new IntKeyGraph();
+		graph.addVertex(1, true);
+		graph.addVertex(2, false);
+		graph.addVertex(3, false);
+		graph.addEdge(1, 2);
+		graph.addEdge(2, 3);
+		graph.addEdge(2, 2);
+
+		graph.removeVertex(2);
+
+		assertEquals(2, graph.getNodeCount());
+		assertEquals(0, graph.getLinkCount());
+		assertNull(graph.getVertex(2));
+		assertEquals(0, graph.outDegree(1));
+		assertEquals(0, graph.inDegree(3));
+		graph.addVertex(4, false);
+		assertTrue(graph.existsNode(1));
+		assertTrue(graph.existsNode(3));
+		assertTrue(graph.existsNode(4));
+	}
+
+	@Test
+	public void removedVerticesShouldNotCountInMaxDegrees() throws NodeNotFoundException {
+		IntKeyGraph graph = new IntKeyGraph();
+		for (int key = 1; key <= 6; key++) {
+			graph.addVertex(key, key == 1);
+		}
+		for (int key = 2; key <= 6; key++) {
+			graph.addEdge(1, key);
+		}
+		graph.addEdge(2, 6);
+		assertEquals(5, graph.getMaxOutDegree());
+		assertEquals(2, graph.getMaxInDegree());
+
+		graph.removeVertex(1);
+		assertEquals(1, graph.getLinkCount());
+		assertEquals(1, graph.getMaxOutDegree());
+		assertEquals(1, graph.getMaxInDegree());
+		graph.removeVertex(2);
+		assertEquals(0, graph.getMaxOutDegree());
+		assertEquals(0, graph.getMaxInDegree());
+	}
+
+	@Test
+	public void idsShouldBeRecycled() throws NodeNotFoundException {
+		IntKeyGraph graph = new IntKeyGraph();
+		graph.addVertex(1, true);
+		int removedId = graph.addVertex(2, false).getId();
+		graph.addVertex(3, false);
+		graph.addEdge(1, 2);
+		graph.addEdge(2, 3);
+		graph.addEdge(1, 3);
+		int keptEdgeId = graph.getVertex(1).getOutgoingEdges().get(1).getId();
+
+		graph.removeVertex(2);
+		graph.addVertex(4, false);
+		graph.addEdge(3, 4);
+		graph.addEdge(4, 1);
+
+		assertEquals(removedId, graph.getVertex(4).getId());
+		assertEquals(3, graph.maxVertexId());
+		assertEquals(3, graph.maxEdgeId());
+		assertEquals(keptEdgeId, graph.getVertex(1).getOutgoingEdges().get(0).getId());
+	}
+
+	@Test
+	public void breadthFirstIteratorShouldWorkOnIntKeyGraph() throws GraphException {
+		IntKeyGraph graph = new IntKeyGraph();
+		graph.addVertex(1, true);
+		graph.addVertex(2, false);
+		graph.addVertex(3, false);
+		graph.getVertex(1).tryAddEdge(new IntKeyEdge(graph.getVertex(2)));
+		graph.getVertex(2).tryAddEdge(new IntKeyEdge(graph.getVertex(3)));
+
+		BreadthFirstIterator<IntKeyVertex, IntKeyEdge> iter = graph.breadthFirstIterator(1);
+		StringBuilder visited = new StringBuilder();
+		while (iter.hasNext()) {
+			visited.append(iter.next().getKey());
+		}
+
+		assertEquals("123", visited.toString());
+	}
+}
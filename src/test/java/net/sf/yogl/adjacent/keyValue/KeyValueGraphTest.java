@@ -0,0 +1,232 @@
+package net.sf.yogl.adjacent.keyValue;
+
+import static net.sf.yogl.TestGraphs.diamond;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.impl.DegreeStatistics;
+import net.sf.yogl.types.VertexType;
+
+public class KeyValueGraphTest {
+
+	private List<String> keys(Collection<KeyValueVertex<String, String, String>> vertices) {
+		List<String> keys = new ArrayList<>();
+		vertices.forEach(v -> keys.add(v.getKey()));
+		keys.sort(null);
+		return keys;
+	}
+
+	@Test
+	public void predecessorsShouldBeFoundWithAndWithoutIndex() throws GraphException {
+		for (boolean indexed : new boolean[] {true, false}) {
+			KeyValueGraph<String, String, String> graph = diamond(indexed);
+			assertEquals(indexed, graph.isIndexingIncomingEdges());
+
+			assertEquals(Arrays.asList("2", "3"), keys(graph.getPredecessorVertices(graph.getVertex("4"))));
+			assertEquals(Arrays.asList("1"), keys(graph.getPredecessorVertices(graph.getVertex("2"))));
+			assertTrue(graph.getPredecessorVertices(graph.getVertex("1")).isEmpty());
+			ValueEdge<String, String, String> edge = graph.getVertex("3").getOutgoingEdges().iterator().next();
+			assertEquals("3", graph.getPredecessorVertex(graph.getVertex("4"), edge).getKey());
+		}
+	}
+
+	@Test
+	public void edgesAddedBeforeTheirVertexShouldBeIndexed() throws GraphException {
+		KeyValueGraph<String, String, String> graph = new KeyValueGraph<>(true);
+		KeyValueVertex<String, String, String> v1 = new KeyValueVertex<>("1", "one");
+		KeyValueVertex<String, String, String> v2 = new KeyValueVertex<>("2", "two");
+		v1.tryAddEdge(new ValueEdge<>("12", v2));
+		graph.addRootVertex(v1, true);
+		graph.addRootVertex(v2, false);
+
+		assertEquals(1, graph.getLinkCount());
+		assertEquals(Arrays.asList("1"), keys(graph.getPredecessorVertices(v2)));
+	}
+
+	@Test
+	public void indexShouldFollowEdgeRemoval() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond(true);
+		KeyValueVertex<String, String, String> v2 = graph.getVertex("2");
+		ValueEdge<String, String, String> edge = v2.getOutgoingEdges().iterator().next();
+
+		v2.removeEdge(edge);
+
+		assertEquals(Arrays.asList("3"), keys(graph.getPredecessorVertices(graph.getVertex("4"))));
+		assertNull(graph.getPredecessorVertex(graph.getVertex("4"), edge));
+	}
+
+	@Test
+	public void removeNodeShouldRemoveIncomingEdges() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond(true);
+		KeyValueVertex<String, String, String> v1 = graph.getVertex("1");
+
+		graph.removeNode("3");
+
+		assertFalse(graph.existsNode("3"));
+		assertEquals(1, v1.getCountEdges());
+		assertEquals(Arrays.asList("2"), keys(graph.getPredecessorVertices(graph.getVertex("4"))));
+	}
+
+	@Test
+	public void indexShouldFollowEdgeRedirection() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond(true);
+		KeyValueVertex<String, String, String> v1 = graph.getVertex("1");
+		KeyValueVertex<String, String, String> v5 = new KeyValueVertex<>("5", "five");
+		graph.addRootVertex(v5, false);
+		ValueEdge<String, String, String> edge = v1.getOutgoingEdges().iterator().next();
+		assertEquals("2", edge.getToVertex().getKey());
+
+		edge.setToVertex(v5);
+
+		assertEquals(Arrays.asList("1"), keys(graph.getPredecessorVertices(v5)));
+		assertTrue(graph.getPredecessorVertices(graph.getVertex("2")).isEmpty());
+		graph.removeNode("2");
+		assertEquals(2, v1.getCountEdges());
+		assertEquals(Arrays.asList("1"), keys(graph.getPredecessorVertices(v5)));
+	}
+
+	@Test
+	public void degreeStatisticsShouldFollowGraphUpdates() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond(false);
+		DegreeStatistics<String> stats = graph.getDegreeStatistics();
+
+		assertEquals(4, graph.getLinkCount());
+		assertEquals(2, graph.getMaxOutDegree());
+		assertEquals(2, graph.getMaxInDegree());
+		assertEquals(0, stats.getMinInDegree());
+		assertEquals(1.0, stats.getAverageDegree());
+		assertArrayEquals(new int[] {1, 2, 1}, stats.getInDegreeDistribution());
+		assertArrayEquals(new int[] {1, 2, 1}, stats.getOutDegreeDistribution());
+
+		graph.removeNode("1");
+
+		assertEquals(2, graph.getLinkCount());
+		assertEquals(1, graph.getMaxOutDegree());
+		assertEquals(2, stats.inDegree("4"));
+		assertArrayEquals(new int[] {2, 0, 1}, stats.getInDegreeDistribution());
+		assertArrayEquals(new int[] {1, 2}, stats.getOutDegreeDistribution());
+	}
+
+	@Test
+	public void degreeStatisticsShouldFollowEdgeRedirection() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond(false);
+		DegreeStatistics<String> stats = graph.getDegreeStatistics();
+		ValueEdge<String, String, String> edge = graph.getVertex("1").getOutgoingEdges().iterator().next();
+
+		edge.setToVertex(graph.getVertex("4"));
+
+		assertEquals(4, graph.getLinkCount());
+		assertEquals(0, stats.inDegree("2"));
+		assertEquals(3, stats.inDegree("4"));
+		assertEquals(3, graph.getMaxInDegree());
+
+		graph.removeNode("4");
+
+		assertEquals(1, graph.getLinkCount());
+		assertEquals(1, graph.getMaxInDegree());
+		assertEquals(0, stats.inDegree("2"));
+	}
+
+	@Test
+	public void outgoingEdgesShouldBeReadInPlace() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond(true);
+		KeyValueVertex<String, String, String> v1 = graph.getVertex("1");
+		List<ValueEdge<String, String, String>> view = v1.getOutgoingEdges();
+		StringBuilder values = new StringBuilder();
+
+		v1.forEachEdge(edge -> values.append(edge.getUserValue()));
+
+		assertEquals("1213", values.toString());
+		assertEquals(2, v1.edgeCount());
+		assertEquals("13", v1.edgeAt(1).getUserValue());
+		assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+		v1.removeEdge(v1.edgeAt(0));
+		assertEquals(1, view.size());
+	}
+
+	@Test
+	public void idsShouldBeDenseAndRecycled() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond(true);
+		boolean[] vertexIds = new boolean[graph.maxVertexId()];
+		graph.getVertices(VertexType.ANY).forEach(v -> vertexIds[v.getId()] = true);
+		boolean[] edgeIds = new boolean[graph.maxEdgeId()];
+		graph.getVertex("1").forEachEdge(e -> edgeIds[e.getId()] = true);
+		graph.getVertex("2").forEachEdge(e -> edgeIds[e.getId()] = true);
+		graph.getVertex("3").forEachEdge(e -> edgeIds[e.getId()] = true);
+
+		assertEquals(4, graph.maxVertexId());
+		assertArrayEquals(new boolean[] {true, true, true, true}, vertexIds);
+		assertArrayEquals(new boolean[] {true, true, true, true}, edgeIds);
+
+		KeyValueVertex<String, String, String> removed = graph.getVertex("4");
+		int removedId = removed.getId();
+		graph.removeNode("4");
+		assertEquals(-1, removed.getId());
+		KeyValueVertex<String, String, String> v5 = new KeyValueVertex<>("5", "five");
+		graph.addRootVertex(v5, false);
+		assertEquals(removedId, v5.getId());
+		assertEquals(4, graph.maxVertexId());
+		ValueEdge<String, String, String> edge = new ValueEdge<>("15", v5);
+		graph.getVertex("1").tryAddEdge(edge);
+		assertTrue(edge.getId() < graph.maxEdgeId());
+		assertEquals(4, graph.maxEdgeId());
+	}
+
+	@Test
+	public void clearAllVisitCountsShouldResetVerticesAndEdges() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond(false);
+		KeyValueVertex<String, String, String> v4 = graph.getVertex("4");
+		ValueEdge<String, String, String> edge = graph.getVertex("2").getOutgoingEdges().iterator().next();
+		v4.incVisitCounts();
+		v4.incVisitCounts();
+		edge.incVisitCounts();
+
+		graph.clearAllVisitCounts();
+
+		assertEquals(0, v4.getVisitsCount());
+		assertEquals(0, edge.getVisitsCount());
+		assertEquals(1, v4.incVisitCounts());
+		edge.incVisitCounts();
+		assertEquals(1, edge.getVisitsCount());
+
+		// counts set before the vertex joins the graph are kept
+		KeyValueVertex<String, String, String> v5 = new KeyValueVertex<>("5", "five");
+		v5.setVisitCounts(3);
+		graph.addRootVertex(v5, false);
+		assertEquals(3, v5.getVisitsCount());
+		graph.clearAllVisitCounts();
+		assertEquals(0, v5.getVisitsCount());
+		assertEquals(0, v4.getVisitsCount());
+	}
+
+	@Test
+	public void streamsShouldBeSizedAndSplittable() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond(false);
+		graph.removeNode("2");
+
+		Spliterator<KeyValueVertex<String, String, String>> vertices = graph.vertexStream().spliterator();
+		assertTrue(vertices.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+		assertEquals(3, vertices.getExactSizeIfKnown());
+		Spliterator<KeyValueVertex<String, String, String>> prefix = vertices.trySplit();
+		assertEquals(3, prefix.getExactSizeIfKnown() + vertices.getExactSizeIfKnown());
+
+		assertEquals(Arrays.asList("1", "3", "4"), keys(graph.vertexStream().parallel().collect(Collectors.toList())));
+		assertEquals(2, graph.edgeStream().spliterator().getExactSizeIfKnown());
+		assertEquals(Arrays.asList("13", "34"), graph.edgeStream().parallel().map(ValueEdge::getUserValue).sorted().collect(Collectors.toList()));
+		assertEquals(Arrays.asList("1", "3", "4"), keys(graph.nodesKeySet().stream().map(graph::getVertex).collect(Collectors.toList())));
+	}
+}
@@ -4,7 +4,10 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
+import net.sf.yogl.exceptions.GraphException;
 import net.sf.yogl.exceptions.NodeNotFoundException;
+import net.sf.yogl.iterators.LinksIterator;
+import net.sf.yogl.types.VertexType;
 
 class VertexTest extends AdjListVertex<String, String>{
 	
@@ -243,4 +246,62 @@ public class AdjListGraphTest {
 		assertEquals(0, b.getVisitsCount());
 		assertEquals(0, c.getVisitsCount());
 	}
+
+	@Test
+	public void registryShouldFollowAttachedVerticesAndEdges() throws GraphException {
+		AdjListGraph<String, String> ndg = new AdjListGraph<>();
+		AdjListVertex<String, String> root = ndg.addRootVertex(new AdjListVertex<>("1"));
+		AdjListEdge<String, String> a = root.addEdgeLast(new AdjListEdge<>("A", new AdjListVertex<>("X")));
+		AdjListVertex<String, String> two = a.setNextNode("2");
+		AdjListEdge<String, String> b = two.addEdgeLast(new AdjListEdge<>("B", new AdjListVertex<>("X")));
+		AdjListVertex<String, String> three = b.setNextNode("3");
+		AdjListEdge<String, String> c = root.addEdgeLast(new AdjListEdge<>("C", new AdjListVertex<>("X")));
+		c.setNextVertex(three);
+
+		assertEquals(3, ndg.getNodeCount());
+		assertEquals(3, ndg.getLinkCount());
+		assertEquals(3, ndg.getVertices(VertexType.ANY).size());
+		assertEquals(2, ndg.getMaxInDegree());
+		assertEquals(2, ndg.getPredecessorVertices(three).size());
+		assertEquals(root, ndg.getPredecessorVertex(three, c));
+		assertEquals(VertexType.END, ndg.getVertexType(three));
+
+		root.removeEdge(c);
+
+		assertEquals(2, ndg.getLinkCount());
+		assertEquals(1, ndg.getPredecessorVertices(three).size());
+		int links = 0;
+		for (LinksIterator<AdjListVertex<String, String>, AdjListEdge<String, String>> iter = new LinksIterator<>(ndg); iter.hasNext(); iter.next()) {
+			links++;
+		}
+		assertEquals(2, links);
+	}
+
+	@Test
+	public void degreesShouldFollowEdgeUpdates() throws GraphException {
+		AdjListGraph<String, String> ndg = new AdjListGraph<>();
+		AdjListVertex<String, String> root = ndg.addRootVertex(new AdjListVertex<>("1"));
+		AdjListVertex<String, String> two = new AdjListVertex<>("2");
+		AdjListVertex<String, String> three = new AdjListVertex<>("3");
+		AdjListEdge<String, String> a = root.addEdgeLast(new AdjListEdge<>("A", two));
+		a.setNextVertex(two);
+		AdjListEdge<String, String> b = root.addEdgeLast(new AdjListEdge<>("B", two));
+		b.setNextVertex(two);
+		AdjListEdge<String, String> c = two.addEdgeLast(new AdjListEdge<>("C", three));
+		c.setNextVertex(three);
+
+		assertEquals(2, ndg.getMaxOutDegree());
+		assertEquals(2, ndg.getMaxInDegree());
+		assertEquals(0, ndg.getDegreeStatistics().getMinInDegree());
+
+		b.setNextVertex(three);
+		assertEquals(1, ndg.getDegreeStatistics().inDegree(two));
+		assertEquals(2, ndg.getDegreeStatistics().inDegree(three));
+
+		root.removeEdge(a);
+		root.removeEdge(b);
+		assertEquals(1, ndg.getMaxOutDegree());
+		assertEquals(1, ndg.getMaxInDegree());
+		assertEquals(0, ndg.getDegreeStatistics().outDegree(root));
+	}
 }
@@ -0,0 +1,141 @@
+package net.sf.yogl.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.types.DirectedAcyclicGraph;
+
+public class StronglyConnectedComponentsTest {
+
+	/** a -> b -> c -> a, c -> d, d -> e -> d, e -> f, b -> f, g alone
+	 */
+	private KeyValueGraph<String, String, String> createGraph() throws GraphException {
+		KeyValueGraph<String, String, String> graph = new KeyValueGraph<>();
+		for (String key : Arrays.asList("a", "b", "c", "d", "e", "f", "g")) {
+			graph.addRootVertex(new KeyValueVertex<>(key, key), key.equals("a"));
+		}
+		link(graph, "a", "b");
+		link(graph, "b", "c");
+		link(graph, "c", "a");
+		link(graph, "c", "d");
+		link(graph, "d", "e");
+		link(graph, "e", "d");
+		link(graph, "e", "f");
+		link(graph, "b", "f");
+		return graph;
+	}
+
+	private void link(KeyValueGraph<String, String, String> graph, String from, String to) throws GraphException {
+		graph.getVertex(from).tryAddEdge(new ValueEdge<>(from + to, graph.getVertex(to)));
+	}
+
+	private String keys(List<KeyValueVertex<String, String, String>> members) {
+		return members.stream().map(KeyValueVertex::getKey).sorted().collect(Collectors.joining());
+	}
+
+	@Test
+	public void verticesShouldBeGroupedByComponent() throws GraphException {
+		KeyValueGraph<String, String, String> graph = createGraph();
+
+		StronglyConnectedComponents<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> scc =
+				new StronglyConnectedComponents<>(graph);
+
+		assertEquals(4, scc.getComponentCount());
+		int abc = scc.getComponent(graph.getVertex("a"));
+		int de = scc.getComponent(graph.getVertex("d"));
+		int f = scc.getComponent(graph.getVertex("f"));
+		assertEquals("abc", keys(scc.getMembers(abc)));
+		assertEquals("de", keys(scc.getMembers(de)));
+		assertEquals("f", keys(scc.getMembers(f)));
+		assertNotEquals(abc, scc.getComponent(graph.getVertex("g")));
+		// reverse topological order
+		assertTrue(abc > de);
+		assertTrue(de > f);
+		assertEquals(abc, scc.getComponentIds()[graph.getVertex("c").getId()]);
+	}
+
+	@Test
+	public void longCycleShouldNotOverflowTheStack() throws GraphException {
+		int size = 200_000;
+		KeyValueGraph<Integer, String, String> graph = new KeyValueGraph<>();
+		for (int i = 0; i < size; i++) {
+			graph.addRootVertex(new KeyValueVertex<>(i, null), i == 0);
+		}
+		for (int i = 0; i < size; i++) {
+			graph.getVertex(i).tryAddEdge(new ValueEdge<>("e" + i, graph.getVertex((i + 1) % (size - 1))));
+		}
+
+		StronglyConnectedComponents<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> scc =
+				new StronglyConnectedComponents<>(graph);
+
+		// 0 .. size - 2 form a cycle, size - 1 only leads into it
+		assertEquals(2, scc.getComponentCount());
+		assertEquals(size - 1, scc.getMembers(scc.getComponent(graph.getVertex(0))).size());
+	}
+
+	@Test
+	public void condensationShouldLinkTheComponents() throws GraphException {
+		KeyValueGraph<String, String, String> graph = createGraph();
+		link(graph, "a", "d");
+		StronglyConnectedComponents<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> scc =
+				new StronglyConnectedComponents<>(graph);
+		int abc = scc.getComponent(graph.getVertex("a"));
+		int de = scc.getComponent(graph.getVertex("d"));
+		int f = scc.getComponent(graph.getVertex("f"));
+		int g = scc.getComponent(graph.getVertex("g"));
+
+		DirectedAcyclicGraph<Integer, List<KeyValueVertex<String, String, String>>, Integer, Integer> dag =
+				new CondensationBuilder<>(scc).build();
+
+		assertEquals(4, dag.getNodeCount());
+		assertEquals(3, dag.getLinkCount());
+		assertEquals("abc", keys(dag.getVertex(abc).getUserValue()));
+		List<ValueEdge<Integer, List<KeyValueVertex<String, String, String>>, Integer>> fromAbc =
+				dag.getVertex(abc).getOutgoingEdges().stream().collect(Collectors.toList());
+		assertEquals(2, fromAbc.size());
+		for (ValueEdge<Integer, List<KeyValueVertex<String, String, String>>, Integer> edge : fromAbc) {
+			// c -> d and a -> d are merged
+			int expected = (edge.getToVertex().getKey() == de) ? 2 : 1;
+			assertEquals(expected, (int) edge.getUserValue());
+		}
+		assertEquals(Arrays.asList(abc, g), dag.getRoots().stream().map(KeyValueVertex::getKey).sorted().collect(Collectors.toList()));
+		assertEquals(0, dag.getVertex(f).getOutgoingEdges().size());
+	}
+
+	@Test
+	public void condensationOfALongChainShouldBeBuiltInLinearTime() throws GraphException {
+		int size = 100_000;
+		KeyValueGraph<Integer, String, String> graph = new KeyValueGraph<>();
+		for (int i = 0; i < size; i++) {
+			graph.addRootVertex(new KeyValueVertex<>(i, null), i == 0);
+		}
+		for (int i = 0; i + 1 < size; i++) {
+			graph.getVertex(i).tryAddEdge(new ValueEdge<>("e" + i, graph.getVertex(i + 1)));
+		}
+
+		// every component is alone: adding the edges against the order of the
+		// condensation would reorder it for each edge, in quadratic time
+		DirectedAcyclicGraph<Integer, List<KeyValueVertex<Integer, String, String>>, Integer, Integer> dag =
+				assertTimeoutPreemptively(Duration.ofSeconds(10), () -> new CondensationBuilder<>(graph).build());
+
+		assertEquals(size, dag.getNodeCount());
+		assertEquals(size - 1, dag.getLinkCount());
+		List<KeyValueVertex<Integer, List<KeyValueVertex<Integer, String, String>>, Integer>> order = dag.getTopologicalOrder();
+		for (int i = 0; i < size; i++) {
+			assertEquals(i, (int) order.get(i).getUserValue().get(0).getKey());
+		}
+	}
+}
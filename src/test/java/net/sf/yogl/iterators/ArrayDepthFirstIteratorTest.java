@@ -0,0 +1,89 @@
+package net.sf.yogl.iterators;
+
+import static net.sf.yogl.TestGraphs.loopedDiamond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.csr.CsrEdge;
+import net.sf.yogl.adjacent.csr.CsrGraph;
+import net.sf.yogl.adjacent.csr.CsrVertex;
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+
+public class ArrayDepthFirstIteratorTest {
+
+	private String visit(ArrayDepthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> iter) {
+		StringBuilder visited = new StringBuilder();
+		while (iter.hasNext()) {
+			visited.append(iter.next().getKey());
+		}
+		return visited.toString();
+	}
+
+	@Test
+	public void verticesShouldBeReturnedInPreorder() throws GraphException {
+		KeyValueGraph<String, String, String> graph = loopedDiamond();
+
+		assertEquals("1243", visit(new ArrayDepthFirstIterator<>(graph.getRoots(), 1)));
+	}
+
+	@Test
+	public void maxCyclingShouldBoundTheVisitsOfEachVertex() throws GraphException {
+		KeyValueGraph<String, String, String> graph = loopedDiamond();
+
+		assertEquals("12412433", visit(new ArrayDepthFirstIterator<>(graph.getRoots(), 2)));
+	}
+
+	@Test
+	public void maxCyclingShouldBeReadAsAnUpperBoundUnlikeDepthFirstIterator() throws GraphException {
+		KeyValueGraph<String, String, String> graph = loopedDiamond();
+		DepthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> legacy =
+				graph.depthFirstIterator(graph.getRoots(), 1);
+
+		assertEquals("1243", visit(new ArrayDepthFirstIterator<>(graph.getRoots(), 1)));
+		assertFalse(legacy.hasNext());
+	}
+
+	@Test
+	public void pathShouldLeadToTheLastReturnedVertex() throws GraphException {
+		KeyValueGraph<String, String, String> graph = loopedDiamond();
+		ArrayDepthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> iter =
+				new ArrayDepthFirstIterator<>(Arrays.asList(graph.getVertex("3")), 1);
+
+		iter.next();
+		iter.next();
+		iter.next();
+
+		List<String> keys = new ArrayList<>();
+		iter.nodePath().forEach(v -> keys.add(v.getKey()));
+		assertEquals(Arrays.asList("3", "4", "1"), keys);
+		List<String> edges = new ArrayList<>();
+		iter.linkPath().forEach(e -> edges.add(e.getUserValue()));
+		assertEquals(Arrays.asList("34", "41"), edges);
+	}
+
+	@Test
+	public void frozenGraphShouldBeTraversedInPlace() throws GraphException {
+		CsrGraph<String, String, String> csr = loopedDiamond().freeze();
+		ArrayDepthFirstIterator<CsrVertex<String, String, String>, CsrEdge<String, String, String>> iter =
+				new ArrayDepthFirstIterator<>(csr.getRoots(), 1);
+		StringBuilder visited = new StringBuilder();
+		while (iter.hasNext()) {
+			visited.append(iter.next().getKey());
+		}
+
+		assertEquals("1243", visited.toString());
+		assertFalse(iter.hasNext());
+		assertThrows(NoSuchElementException.class, () -> iter.next());
+	}
+}
@@ -0,0 +1,90 @@
+package net.sf.yogl.iterators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+
+public class BreadthFirstIteratorTest {
+
+	/** 1 -> 2, 1 -> 3, 2 -> 4, 3 -> 4, 4 -> 5
+	 */
+	private KeyValueGraph<String, String, String> createGraph() throws GraphException {
+		KeyValueGraph<String, String, String> graph = new KeyValueGraph<>();
+		KeyValueVertex<String, String, String> v1 = new KeyValueVertex<>("1", "one");
+		KeyValueVertex<String, String, String> v2 = new KeyValueVertex<>("2", "two");
+		KeyValueVertex<String, String, String> v3 = new KeyValueVertex<>("3", "three");
+		KeyValueVertex<String, String, String> v4 = new KeyValueVertex<>("4", "four");
+		KeyValueVertex<String, String, String> v5 = new KeyValueVertex<>("5", "five");
+		graph.addRootVertex(v1, true);
+		graph.addRootVertex(v2, false);
+		graph.addRootVertex(v3, false);
+		graph.addRootVertex(v4, false);
+		graph.addRootVertex(v5, false);
+		v1.tryAddEdge(new ValueEdge<>("12", v2));
+		v1.tryAddEdge(new ValueEdge<>("13", v3));
+		v2.tryAddEdge(new ValueEdge<>("24", v4));
+		v3.tryAddEdge(new ValueEdge<>("34", v4));
+		v4.tryAddEdge(new ValueEdge<>("45", v5));
+		return graph;
+	}
+
+	private String keys(List<KeyValueVertex<String, String, String>> vertices) {
+		return vertices.stream().map(KeyValueVertex::getKey).collect(Collectors.joining());
+	}
+
+	@Test
+	public void nextLevelShouldReturnOneFrontierAtATime() throws GraphException {
+		KeyValueGraph<String, String, String> graph = createGraph();
+		BreadthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> iter = graph.breadthFirstIterator(1);
+
+		assertEquals("1", keys(iter.nextLevel()));
+		assertEquals(0, iter.getLevel());
+		assertEquals("23", keys(iter.nextLevel()));
+		assertEquals(1, iter.getLevel());
+		assertEquals("4", keys(iter.nextLevel()));
+		assertEquals("5", keys(iter.nextLevel()));
+		assertEquals(3, iter.getLevel());
+		assertFalse(iter.hasNext());
+		assertThrows(NoSuchElementException.class, () -> iter.nextLevel());
+	}
+
+	@Test
+	public void levelAndDepthShouldFollowNext() throws GraphException {
+		KeyValueGraph<String, String, String> graph = createGraph();
+		BreadthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> iter = graph.breadthFirstIterator(1);
+		StringBuilder visited = new StringBuilder();
+
+		while (iter.hasNext()) {
+			KeyValueVertex<String, String, String> vertex = iter.next();
+			assertEquals(iter.getDepth(vertex), iter.getLevel());
+			visited.append(vertex.getKey()).append(iter.getLevel());
+		}
+
+		assertEquals("1021314253", visited.toString());
+		assertEquals(2, iter.getDepth(graph.getVertex("4")));
+	}
+
+	@Test
+	public void nextAndNextLevelCanBeMixed() throws GraphException {
+		KeyValueGraph<String, String, String> graph = createGraph();
+		BreadthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> iter = graph.breadthFirstIterator(1);
+
+		iter.next();
+		assertEquals("2", iter.next().getKey());
+		assertEquals(-1, iter.getDepth(graph.getVertex("5")));
+		assertEquals("3", keys(iter.nextLevel()));
+		assertEquals("4", iter.next().getKey());
+		assertEquals(2, iter.getLevel());
+	}
+}
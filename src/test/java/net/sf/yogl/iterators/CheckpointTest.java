@@ -0,0 +1,117 @@
+package net.sf.yogl.iterators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphCorruptedException;
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.impl.ValueCodec;
+
+public class CheckpointTest {
+
+	/** 1 -> 2, 1 -> 3, 2 -> 4, 3 -> 4, 4 -> 5, 5 -> 2
+	 */
+	private KeyValueGraph<String, String, String> createGraph() throws GraphException {
+		KeyValueGraph<String, String, String> graph = new KeyValueGraph<>();
+		KeyValueVertex<String, String, String> v1 = new KeyValueVertex<>("1", "one");
+		KeyValueVertex<String, String, String> v2 = new KeyValueVertex<>("2", "two");
+		KeyValueVertex<String, String, String> v3 = new KeyValueVertex<>("3", "three");
+		KeyValueVertex<String, String, String> v4 = new KeyValueVertex<>("4", "four");
+		KeyValueVertex<String, String, String> v5 = new KeyValueVertex<>("5", "five");
+		graph.addRootVertex(v1, true);
+		graph.addRootVertex(v2, false);
+		graph.addRootVertex(v3, false);
+		graph.addRootVertex(v4, false);
+		graph.addRootVertex(v5, false);
+		v1.tryAddEdge(new ValueEdge<>("12", v2));
+		v1.tryAddEdge(new ValueEdge<>("13", v3));
+		v2.tryAddEdge(new ValueEdge<>("24", v4));
+		v3.tryAddEdge(new ValueEdge<>("34", v4));
+		v4.tryAddEdge(new ValueEdge<>("45", v5));
+		v5.tryAddEdge(new ValueEdge<>("52", v2));
+		return graph;
+	}
+
+	private String drain(Iterator<KeyValueVertex<String, String, String>> iter, int steps) {
+		StringBuilder keys = new StringBuilder();
+		for (int i = 0; i < steps && iter.hasNext(); i++) {
+			keys.append(iter.next().getKey());
+		}
+		return keys.toString();
+	}
+
+	@Test
+	public void resumedBreadthFirstIteratorShouldContinueTheTraversal() throws GraphException, IOException {
+		KeyValueGraph<String, String, String> graph = createGraph();
+		String expected = drain(graph.breadthFirstIterator(2), Integer.MAX_VALUE);
+
+		for (int steps = 0; steps <= expected.length(); steps++) {
+			BreadthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> iter = graph.breadthFirstIterator(2);
+			String before = drain(iter, steps);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			iter.writeCheckpoint(new DataOutputStream(bytes), KeyValueVertex::getKey, ValueCodec.STRING);
+
+			KeyValueGraph<String, String, String> copy = createGraph();
+			BreadthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> resumed = BreadthFirstIterator.resume(copy,
+					new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), copy::getVertex, ValueCodec.STRING);
+
+			assertEquals(iter.getLevel(), resumed.getLevel());
+			assertEquals(iter.getDepth(graph.getVertex("4")), resumed.getDepth(copy.getVertex("4")));
+			assertEquals(expected, before + drain(resumed, Integer.MAX_VALUE));
+		}
+	}
+
+	@Test
+	public void resumedDepthFirstIteratorShouldContinueTheTraversal() throws GraphException, IOException {
+		KeyValueGraph<String, String, String> graph = createGraph();
+		String expected = drain(graph.depthFirstIterator(Arrays.asList(graph.getVertex("1")), 1), Integer.MAX_VALUE);
+
+		for (int steps = 0; steps <= expected.length(); steps++) {
+			DepthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> iter = graph
+					.depthFirstIterator(Arrays.asList(graph.getVertex("1")), 1);
+			String before = drain(iter, steps);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			iter.writeCheckpoint(new DataOutputStream(bytes), KeyValueVertex::getKey, ValueCodec.STRING);
+
+			KeyValueGraph<String, String, String> copy = createGraph();
+			DepthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> resumed = DepthFirstIterator
+					.resume(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), copy::getVertex, ValueCodec.STRING);
+
+			assertEquals(expected, before + drain(resumed, Integer.MAX_VALUE));
+		}
+	}
+
+	@Test
+	public void resumeShouldRejectAnotherKindOfCheckpoint() throws GraphException, IOException {
+		KeyValueGraph<String, String, String> graph = createGraph();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		graph.breadthFirstIterator(1).writeCheckpoint(new DataOutputStream(bytes), KeyValueVertex::getKey, ValueCodec.STRING);
+
+		assertThrows(GraphCorruptedException.class, () -> DepthFirstIterator
+				.resume(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), graph::getVertex, ValueCodec.STRING));
+	}
+
+	@Test
+	public void resumeShouldRejectUnknownKeys() throws GraphException, IOException {
+		KeyValueGraph<String, String, String> graph = createGraph();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		graph.breadthFirstIterator(1).writeCheckpoint(new DataOutputStream(bytes), KeyValueVertex::getKey, ValueCodec.STRING);
+		KeyValueGraph<String, String, String> empty = new KeyValueGraph<>();
+
+		assertThrows(GraphCorruptedException.class, () -> BreadthFirstIterator.resume(empty,
+				new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), empty::getVertex, ValueCodec.STRING));
+	}
+}
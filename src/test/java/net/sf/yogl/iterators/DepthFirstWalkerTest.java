@@ -0,0 +1,112 @@
+package net.sf.yogl.iterators;
+
+import static net.sf.yogl.TestGraphs.loopedDiamond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.adjacent.list.AdjListEdge;
+import net.sf.yogl.adjacent.list.AdjListGraph;
+import net.sf.yogl.adjacent.list.AdjListVertex;
+import net.sf.yogl.exceptions.GraphException;
+
+public class DepthFirstWalkerTest {
+
+	/** Records the calls as "(key" for preVisit, "-value" for onEdge and
+	 * ")" for postVisit.
+	 */
+	private static class Recorder implements GraphVisitor<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> {
+
+		final StringBuilder calls = new StringBuilder();
+
+		@Override
+		public VisitResult preVisit(KeyValueVertex<String, String, String> vertex) {
+			calls.append('(').append(vertex.getKey());
+			return VisitResult.CONTINUE;
+		}
+
+		@Override
+		public VisitResult onEdge(KeyValueVertex<String, String, String> from, ValueEdge<String, String, String> edge) {
+			calls.append('-').append(edge.getUserValue());
+			return VisitResult.CONTINUE;
+		}
+
+		@Override
+		public VisitResult postVisit(KeyValueVertex<String, String, String> vertex) {
+			calls.append(')');
+			return VisitResult.CONTINUE;
+		}
+	}
+
+	@Test
+	public void eachVertexShouldBeVisitedOnce() throws GraphException {
+		Recorder recorder = new Recorder();
+
+		assertEquals(VisitResult.CONTINUE, loopedDiamond().walk(recorder));
+		assertEquals("(1-12(2-24(4-41))-13(3-34))", recorder.calls.toString());
+	}
+
+	@Test
+	public void skippedSubtreesShouldNotBeEntered() throws GraphException {
+		Recorder recorder = new Recorder() {
+			@Override
+			public VisitResult preVisit(KeyValueVertex<String, String, String> vertex) {
+				super.preVisit(vertex);
+				return vertex.getKey().equals("2") ? VisitResult.SKIP_SUBTREE : VisitResult.CONTINUE;
+			}
+
+			@Override
+			public VisitResult onEdge(KeyValueVertex<String, String, String> from, ValueEdge<String, String, String> edge) {
+				super.onEdge(from, edge);
+				return edge.getUserValue().equals("41") ? VisitResult.SKIP_SUBTREE : VisitResult.CONTINUE;
+			}
+		};
+
+		loopedDiamond().walk(recorder);
+
+		assertEquals("(1-12(2-13(3-34(4-41)))", recorder.calls.toString());
+	}
+
+	@Test
+	public void terminateShouldStopTheWalk() throws GraphException {
+		KeyValueGraph<String, String, String> graph = loopedDiamond();
+		Recorder recorder = new Recorder() {
+			@Override
+			public VisitResult preVisit(KeyValueVertex<String, String, String> vertex) {
+				super.preVisit(vertex);
+				return vertex.getKey().equals("4") ? VisitResult.TERMINATE : VisitResult.CONTINUE;
+			}
+		};
+		DepthFirstWalker<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> walker = new DepthFirstWalker<>();
+
+		assertEquals(VisitResult.TERMINATE, walker.walk(graph.getRoots(), recorder));
+		assertEquals("(1-12(2-24(4", recorder.calls.toString());
+
+		// the walker can be used again
+		Recorder second = new Recorder();
+		assertEquals(VisitResult.CONTINUE, walker.walk(Arrays.asList(graph.getVertex("3")), second));
+		assertEquals("(3-34(4-41(1-12(2-24)-13)))", second.calls.toString());
+	}
+
+	@Test
+	public void longChainsShouldNotOverflowTheStack() throws GraphException {
+		AdjListGraph<Integer, Integer> graph = new AdjListGraph<>();
+		AdjListVertex<Integer, Integer> last = graph.addRootVertex(new AdjListVertex<>(0));
+		for (int i = 1; i < 100_000; i++) {
+			AdjListVertex<Integer, Integer> next = new AdjListVertex<>(i);
+			last.addEdgeLast(new AdjListEdge<>(i, next)).setNextVertex(next);
+			last = next;
+		}
+		int[] counts = new int[2];
+
+		graph.traverse(value -> counts[0]++, value -> counts[1]++);
+
+		assertEquals(100_000, counts[0]);
+		assertEquals(99_999, counts[1]);
+	}
+}
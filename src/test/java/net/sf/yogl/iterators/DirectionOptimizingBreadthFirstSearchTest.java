@@ -0,0 +1,80 @@
+package net.sf.yogl.iterators;
+
+import static net.sf.yogl.TestGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+
+public class DirectionOptimizingBreadthFirstSearchTest {
+
+	private void assertSameDepths(KeyValueGraph<Integer, String, String> graph,
+			BreadthFirstTree<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> tree) throws GraphException {
+		BreadthFirstIterator<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> iter = graph.breadthFirstIterator(1);
+		while (iter.hasNext()) {
+			iter.nextLevel();
+		}
+		assertEquals(graph.getNodeCount(), tree.getReachedCount());
+		for (int i = 0; i < graph.getNodeCount(); i++) {
+			KeyValueVertex<Integer, String, String> vertex = graph.getVertex(i);
+			assertEquals(iter.getDepth(vertex), tree.getDepth(vertex));
+			KeyValueVertex<Integer, String, String> parent = tree.getParent(vertex);
+			if (i == 0) {
+				assertNull(parent);
+			} else {
+				assertEquals(tree.getDepth(vertex) - 1, tree.getDepth(parent));
+				assertTrue(graph.getSuccessorVertices(parent).contains(vertex));
+			}
+		}
+		for (int depth = 0; depth < tree.getLevelCount(); depth++) {
+			for (KeyValueVertex<Integer, String, String> vertex : tree.getLevel(depth)) {
+				assertEquals(depth, tree.getDepth(vertex));
+			}
+		}
+	}
+
+	@Test
+	public void defaultThresholdsShouldSwitchOnDenseFrontiers() throws GraphException {
+		KeyValueGraph<Integer, String, String> graph = randomGraph(2000, 8, 7);
+		DirectionOptimizingBreadthFirstSearch<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> search =
+				new DirectionOptimizingBreadthFirstSearch<>(graph);
+
+		assertSameDepths(graph, search.search());
+		assertTrue(search.getBottomUpSteps() > 0);
+	}
+
+	@Test
+	public void bothDirectionsShouldGiveTheSameDepths() throws GraphException {
+		KeyValueGraph<Integer, String, String> graph = randomGraph(500, 8, 3);
+		DirectionOptimizingBreadthFirstSearch<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> search =
+				new DirectionOptimizingBreadthFirstSearch<>(graph);
+
+		search.setAlpha(Double.MIN_VALUE);
+		assertSameDepths(graph, search.search());
+		// only the last level, once no edge leaves the unreached vertices
+		assertTrue(search.getBottomUpSteps() <= 1);
+
+		search.setAlpha(Double.MAX_VALUE);
+		search.setBeta(Double.MAX_VALUE);
+		BreadthFirstTree<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> tree = search.search();
+		assertSameDepths(graph, tree);
+		// every level but the first one, plus the step finding no new vertex
+		assertEquals(tree.getLevelCount(), search.getBottomUpSteps());
+	}
+
+	@Test
+	public void thresholdsShouldBePositive() {
+		DirectionOptimizingBreadthFirstSearch<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> search =
+				new DirectionOptimizingBreadthFirstSearch<>(new KeyValueGraph<>());
+
+		assertThrows(IllegalArgumentException.class, () -> search.setAlpha(0));
+		assertThrows(IllegalArgumentException.class, () -> search.setBeta(-1));
+	}
+}
@@ -0,0 +1,50 @@
+package net.sf.yogl.iterators;
+
+import static net.sf.yogl.TestGraphs.diamond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.csr.CsrGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+
+public class LinksIteratorTest {
+
+	@Test
+	public void linksShouldBeReadWithTheirEnds() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond();
+		LinksIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> iter = graph.linksKeysIterator();
+		assertNull(iter.getOriginator());
+		List<String> links = new ArrayList<>();
+
+		while (iter.hasNext()) {
+			ValueEdge<String, String, String> link = iter.next();
+			links.add(iter.getOriginator().getKey() + link.getUserValue() + iter.getDestination().getKey());
+		}
+
+		links.sort(null);
+		assertEquals(Arrays.asList("1122", "1133", "2244", "3344"), links);
+		assertFalse(iter.hasNext());
+		assertNull(iter.next());
+	}
+
+	@Test
+	public void forEachEdgeShouldGiveTheSameLinks() throws GraphException {
+		CsrGraph<String, String, String> csr = diamond().freeze();
+		List<String> links = new ArrayList<>();
+
+		csr.forEachEdge((from, edge, to) -> links.add(from.getKey() + edge.getUserValue() + to.getKey()));
+
+		assertEquals(Arrays.asList("1122", "1133", "2244", "3344"), links);
+		assertEquals(4, csr.getLinkCount());
+	}
+}
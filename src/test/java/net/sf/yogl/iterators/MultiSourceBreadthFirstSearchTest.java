@@ -0,0 +1,88 @@
+package net.sf.yogl.iterators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+
+public class MultiSourceBreadthFirstSearchTest {
+
+	/** 0 -> 1 -> 2 -> ... -> size - 1 -> 0, and i -> i + 2 for even i
+	 */
+	private KeyValueGraph<Integer, String, String> createRing(int size) throws GraphException {
+		KeyValueGraph<Integer, String, String> graph = new KeyValueGraph<>();
+		for (int i = 0; i < size; i++) {
+			graph.addRootVertex(new KeyValueVertex<>(i, "v" + i), i == 0);
+		}
+		for (int i = 0; i < size; i++) {
+			graph.getVertex(i).tryAddEdge(new ValueEdge<>("n" + i, graph.getVertex((i + 1) % size)));
+			if (i % 2 == 0)
+				graph.getVertex(i).tryAddEdge(new ValueEdge<>("s" + i, graph.getVertex((i + 2) % size)));
+		}
+		return graph;
+	}
+
+	private List<Integer> keys(List<KeyValueVertex<Integer, String, String>> vertices) {
+		return vertices.stream().map(KeyValueVertex::getKey).sorted().collect(Collectors.toList());
+	}
+
+	@Test
+	public void eachSourceShouldGetItsOwnNeighborhood() throws GraphException {
+		KeyValueGraph<Integer, String, String> graph = createRing(10);
+
+		KHopNeighborhoods<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> result =
+				new MultiSourceBreadthFirstSearch<>(graph).search(Arrays.asList(graph.getVertex(0), graph.getVertex(1)), 2);
+
+		assertEquals(Arrays.asList(1, 2), keys(result.getNeighbors(0, 1)));
+		assertEquals(Arrays.asList(3, 4), keys(result.getNeighbors(0, 2)));
+		assertEquals(Arrays.asList(1, 2, 3, 4), keys(result.getNeighbors(0)));
+		assertEquals(Arrays.asList(2), keys(result.getNeighbors(1, 1)));
+		assertEquals(Arrays.asList(3, 4), keys(result.getNeighbors(1, 2)));
+		assertEquals(Arrays.asList(1), keys(result.getNeighbors(1, 0)));
+		assertEquals(2, result.getDistance(0, graph.getVertex(4)));
+		assertEquals(-1, result.getDistance(1, graph.getVertex(5)));
+	}
+
+	@Test
+	public void sourcesShouldBeProcessedByBatches() throws GraphException {
+		KeyValueGraph<Integer, String, String> graph = createRing(150);
+		List<KeyValueVertex<Integer, String, String>> sources = new ArrayList<>();
+		for (int i = 0; i < 150; i++) {
+			sources.add(graph.getVertex(i));
+		}
+
+		KHopNeighborhoods<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> result =
+				new MultiSourceBreadthFirstSearch<>(graph).search(sources, 3);
+
+		assertEquals(150, result.getSourceCount());
+		for (int i = 0; i < 150; i++) {
+			KeyValueVertex<Integer, String, String> source = graph.getVertex(i);
+			BreadthFirstTree<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> tree =
+					new ParallelBreadthFirstSearch<>(graph).search(Arrays.asList(source));
+			for (int hops = 1; hops <= 3; hops++) {
+				assertEquals(keys(tree.getLevel(hops)), keys(result.getNeighbors(i, hops)));
+			}
+			for (int j = 0; j < 150; j++) {
+				int depth = tree.getDepth(graph.getVertex(j));
+				assertEquals(depth <= 3 ? depth : -1, result.getDistance(i, graph.getVertex(j)));
+			}
+		}
+	}
+
+	@Test
+	public void maxHopsShouldNotBeNegative() throws GraphException {
+		KeyValueGraph<Integer, String, String> graph = createRing(3);
+
+		assertThrows(IllegalArgumentException.class, () -> new MultiSourceBreadthFirstSearch<>(graph).search(Arrays.asList(graph.getVertex(0)), -1));
+	}
+}
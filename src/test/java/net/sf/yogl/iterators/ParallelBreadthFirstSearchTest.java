@@ -0,0 +1,79 @@
+package net.sf.yogl.iterators;
+
+import static net.sf.yogl.TestGraphs.randomGraph;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+
+public class ParallelBreadthFirstSearchTest {
+
+	@Test
+	public void depthsShouldMatchTheSequentialSearch() throws GraphException {
+		KeyValueGraph<Integer, String, String> graph = randomGraph(3000, 2, 42);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			BreadthFirstTree<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> tree =
+					new ParallelBreadthFirstSearch<>(graph, pool, 8).search();
+			BreadthFirstIterator<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> iter = graph.breadthFirstIterator(1);
+			while (iter.hasNext()) {
+				iter.nextLevel();
+			}
+
+			assertEquals(3000, tree.getReachedCount());
+			int reachedInLevels = 0;
+			for (int depth = 0; depth < tree.getLevelCount(); depth++) {
+				for (KeyValueVertex<Integer, String, String> vertex : tree.getLevel(depth)) {
+					assertEquals(depth, tree.getDepth(vertex));
+					reachedInLevels++;
+				}
+			}
+			assertEquals(3000, reachedInLevels);
+			for (int i = 0; i < 3000; i++) {
+				KeyValueVertex<Integer, String, String> vertex = graph.getVertex(i);
+				assertEquals(iter.getDepth(vertex), tree.getDepth(vertex));
+				KeyValueVertex<Integer, String, String> parent = tree.getParent(vertex);
+				if (i == 0) {
+					assertNull(parent);
+				} else {
+					assertEquals(tree.getDepth(vertex) - 1, tree.getDepth(parent));
+					assertTrue(graph.getSuccessorVertices(parent).contains(vertex));
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void searchShouldStartFromTheGivenSources() throws GraphException {
+		KeyValueGraph<Integer, String, String> graph = new KeyValueGraph<>();
+		for (int i = 0; i < 4; i++) {
+			graph.addRootVertex(new KeyValueVertex<>(i, "v" + i), i == 0);
+		}
+		// 0 -> 1 -> 2, 3 -> 2
+		graph.getVertex(0).tryAddEdge(new ValueEdge<>("01", graph.getVertex(1)));
+		graph.getVertex(1).tryAddEdge(new ValueEdge<>("12", graph.getVertex(2)));
+		graph.getVertex(3).tryAddEdge(new ValueEdge<>("32", graph.getVertex(2)));
+
+		BreadthFirstTree<KeyValueVertex<Integer, String, String>, ValueEdge<Integer, String, String>> tree =
+				new ParallelBreadthFirstSearch<>(graph).search(Arrays.asList(graph.getVertex(1), graph.getVertex(3)));
+
+		assertFalse(tree.isReached(graph.getVertex(0)));
+		assertEquals(-1, tree.getDepth(graph.getVertex(0)));
+		assertEquals(1, tree.getDepth(graph.getVertex(2)));
+		assertEquals(2, tree.getLevelCount());
+		assertEquals(2, tree.getLevel(0).size());
+		assertEquals(3, tree.getVertices().size());
+	}
+}
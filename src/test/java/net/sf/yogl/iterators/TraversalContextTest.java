@@ -0,0 +1,64 @@
+package net.sf.yogl.iterators;
+
+import static net.sf.yogl.TestGraphs.diamond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.adjacent.list.AdjListEdge;
+import net.sf.yogl.adjacent.list.AdjListGraph;
+import net.sf.yogl.adjacent.list.AdjListVertex;
+import net.sf.yogl.exceptions.GraphException;
+
+public class TraversalContextTest {
+
+	@Test
+	public void interleavedIteratorsShouldNotSeeEachOtherVisits() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond();
+		BreadthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> first = graph.breadthFirstIterator(1);
+		BreadthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> second = graph.breadthFirstIterator(1);
+		StringBuilder firstVisits = new StringBuilder();
+		StringBuilder secondVisits = new StringBuilder();
+
+		while (first.hasNext() || second.hasNext()) {
+			if (first.hasNext())
+				firstVisits.append(first.next().getKey());
+			if (second.hasNext())
+				secondVisits.append(second.next().getKey());
+		}
+
+		assertEquals("1234", firstVisits.toString());
+		assertEquals("1234", secondVisits.toString());
+		assertEquals(0, graph.getVertex("4").getVisitsCount());
+	}
+
+	@Test
+	public void sharedContextShouldUseVertexCounters() throws GraphException {
+		KeyValueGraph<String, String, String> graph = diamond();
+		BreadthFirstIterator<KeyValueVertex<String, String, String>, ValueEdge<String, String, String>> iter =
+				new BreadthFirstIterator<>(graph, 1, TraversalContext.shared(graph));
+
+		while (iter.hasNext()) {
+			iter.next();
+		}
+
+		assertEquals(1, graph.getVertex("4").getVisitsCount());
+	}
+
+	@Test
+	public void traverseShouldBeRepeatable() throws GraphException {
+		AdjListGraph<String, String> graph = new AdjListGraph<>();
+		AdjListVertex<String, String> root = graph.addRootVertex(new AdjListVertex<>("1"));
+		AdjListVertex<String, String> two = new AdjListVertex<>("2");
+		root.addEdgeLast(new AdjListEdge<>("A", two)).setNextVertex(two);
+		StringBuilder visits = new StringBuilder();
+
+		graph.traverse(visits::append, visits::append);
+		graph.traverse(visits::append, visits::append);
+
+		assertEquals("1A21A2", visits.toString());
+	}
+}
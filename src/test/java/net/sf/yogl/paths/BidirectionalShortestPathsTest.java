@@ -0,0 +1,142 @@
+package net.sf.yogl.paths;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.key.KeyEdge;
+import net.sf.yogl.adjacent.key.KeyVertex;
+import net.sf.yogl.adjacent.key.UniqueElementsGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.exceptions.NodeNotFoundException;
+
+public class BidirectionalShortestPathsTest {
+
+	class StringVertex extends KeyVertex<String, String, StringVertex, StringEdge> {
+
+		public StringVertex(String key) {
+			super(key);
+		}
+	}
+
+	class StringEdge extends KeyEdge<String, String, StringEdge, StringVertex> {
+
+		public StringEdge(String key, StringVertex v) throws NodeNotFoundException {
+			super(key, v);
+		}
+	}
+
+	/** side x side grid, each cell linked to its right and lower neighbours,
+	 * and with a probability of 1/2 to its left and upper ones. Weights are
+	 * random in [1, 10[, or 1 when 'random' is null.
+	 */
+	private KeyValueGraph<Integer, String, Double> createGrid(int side, Random random) throws GraphException {
+		KeyValueGraph<Integer, String, Double> graph = new KeyValueGraph<>();
+		for (int i = 0; i < side * side; i++) {
+			graph.addRootVertex(new KeyValueVertex<>(i, "v" + i), i == 0);
+		}
+		for (int row = 0; row < side; row++) {
+			for (int column = 0; column < side; column++) {
+				KeyValueVertex<Integer, String, Double> cell = graph.getVertex(row * side + column);
+				if (column + 1 < side)
+					cell.tryAddEdge(new ValueEdge<>(weight(random), graph.getVertex(row * side + column + 1)));
+				if (row + 1 < side)
+					cell.tryAddEdge(new ValueEdge<>(weight(random), graph.getVertex((row + 1) * side + column)));
+				if (random != null && column > 0 && random.nextBoolean())
+					cell.tryAddEdge(new ValueEdge<>(weight(random), graph.getVertex(row * side + column - 1)));
+				if (random != null && row > 0 && random.nextBoolean())
+					cell.tryAddEdge(new ValueEdge<>(weight(random), graph.getVertex((row - 1) * side + column)));
+			}
+		}
+		return graph;
+	}
+
+	private double weight(Random random) {
+		return (random == null) ? 1 : 1 + 9 * random.nextDouble();
+	}
+
+	@Test
+	public void distancesShouldMatchDijkstra() throws GraphException {
+		Random random = new Random(7);
+		KeyValueGraph<Integer, String, Double> graph = createGrid(12, random);
+		ShortestPaths<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> dijkstra =
+				new ShortestPaths<>(graph, ValueEdge::getUserValue);
+		BidirectionalShortestPaths<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> bidirectional =
+				new BidirectionalShortestPaths<>(graph, ValueEdge::getUserValue);
+
+		for (int query = 0; query < 100; query++) {
+			KeyValueVertex<Integer, String, Double> source = graph.getVertex(random.nextInt(144));
+			KeyValueVertex<Integer, String, Double> target = graph.getVertex(random.nextInt(144));
+			ShortestPathTree<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> expected = dijkstra.search(source, target);
+			ShortestPath<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> path = bidirectional.search(source, target);
+
+			assertEquals(expected.getDistance(target), path.getDistance(), 1e-9);
+			assertEquals(expected.isReached(target), path.isFound());
+			if (path.isFound()) {
+				assertEquals(source, path.getPath().get(0));
+				assertEquals(target, path.getPath().get(path.getPath().size() - 1));
+				double length = 0;
+				for (int i = 0; i + 1 < path.getPath().size(); i++) {
+					KeyValueVertex<Integer, String, Double> next = path.getPath().get(i + 1);
+					length += path.getPath().get(i).getOutgoingEdges().stream().filter(edge -> edge.getToVertex() == next)
+							.mapToDouble(ValueEdge::getUserValue).min().getAsDouble();
+				}
+				assertEquals(path.getDistance(), length, 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void bidirectionalSearchShouldSettleLessVertices() throws GraphException {
+		KeyValueGraph<Integer, String, Double> graph = createGrid(40, null);
+		KeyValueVertex<Integer, String, Double> source = graph.getVertex(0);
+		KeyValueVertex<Integer, String, Double> target = graph.getVertex(40 * 40 - 1);
+
+		ShortestPath<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> path =
+				new BidirectionalShortestPaths<>(graph, ValueEdge::getUserValue).search(source, target);
+		ShortestPathTree<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> tree =
+				new ShortestPaths<>(graph, ValueEdge::getUserValue).search(source, target);
+
+		assertEquals(78, path.getDistance());
+		assertEquals(79, path.getPath().size());
+		assertTrue(path.getSettledCount() < tree.getSettledCount());
+	}
+
+	@Test
+	public void unweightedSearchShouldWorkOnUniqueElementsGraph() throws NodeNotFoundException {
+		UniqueElementsGraph<StringVertex, StringEdge, String, String> graph = new UniqueElementsGraph<>();
+		StringVertex a = new StringVertex("a");
+		StringVertex b = new StringVertex("b");
+		StringVertex c = new StringVertex("c");
+		StringVertex d = new StringVertex("d");
+		StringVertex e = new StringVertex("e");
+		graph.addRootVertex(a, true);
+		graph.addRootVertex(b, false);
+		graph.addRootVertex(c, false);
+		graph.addRootVertex(d, false);
+		graph.addRootVertex(e, false);
+		a.tryAddEdge(new StringEdge("ab", b));
+		b.tryAddEdge(new StringEdge("bc", c));
+		c.tryAddEdge(new StringEdge("cd", d));
+		a.tryAddEdge(new StringEdge("ad", d));
+		BidirectionalShortestPaths<StringVertex, StringEdge> paths = BidirectionalShortestPaths.unweighted(graph);
+
+		ShortestPath<StringVertex, StringEdge> path = paths.search(a, d);
+		assertEquals(1, path.getDistance());
+		assertArrayEquals(new int[] { a.getId(), d.getId() }, path.getPathIds());
+
+		assertEquals(2, paths.search(b, d).getDistance());
+		assertEquals(0, paths.search(c, c).getDistance());
+		assertEquals(1, paths.search(c, c).getPath().size());
+		assertFalse(paths.search(d, a).isFound());
+		assertEquals(Double.POSITIVE_INFINITY, paths.search(a, e).getDistance());
+	}
+}
@@ -0,0 +1,146 @@
+package net.sf.yogl.paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphCorruptedException;
+import net.sf.yogl.exceptions.GraphException;
+
+public class ContractionHierarchyTest {
+
+	private static final int SIDE = 15;
+
+	/** SIDE x SIDE grid with random weights in [1, 10[, every cell linked to
+	 * its right and lower neighbours, and most of the time to its left and
+	 * upper ones. A few random long edges are added.
+	 */
+	private KeyValueGraph<Integer, String, Double> createGraph(long seed) throws GraphException {
+		Random random = new Random(seed);
+		KeyValueGraph<Integer, String, Double> graph = new KeyValueGraph<>();
+		for (int i = 0; i < SIDE * SIDE; i++) {
+			graph.addRootVertex(new KeyValueVertex<>(i, "v" + i), i == 0);
+		}
+		for (int row = 0; row < SIDE; row++) {
+			for (int column = 0; column < SIDE; column++) {
+				KeyValueVertex<Integer, String, Double> cell = graph.getVertex(row * SIDE + column);
+				if (column + 1 < SIDE)
+					cell.tryAddEdge(new ValueEdge<>(1 + 9 * random.nextDouble(), graph.getVertex(row * SIDE + column + 1)));
+				if (row + 1 < SIDE)
+					cell.tryAddEdge(new ValueEdge<>(1 + 9 * random.nextDouble(), graph.getVertex((row + 1) * SIDE + column)));
+				if (column > 0 && random.nextInt(4) > 0)
+					cell.tryAddEdge(new ValueEdge<>(1 + 9 * random.nextDouble(), graph.getVertex(row * SIDE + column - 1)));
+				if (row > 0 && random.nextInt(4) > 0)
+					cell.tryAddEdge(new ValueEdge<>(1 + 9 * random.nextDouble(), graph.getVertex((row - 1) * SIDE + column)));
+			}
+		}
+		for (int i = 0; i < 20; i++) {
+			graph.getVertex(random.nextInt(SIDE * SIDE))
+					.tryAddEdge(new ValueEdge<>(20 + 20 * random.nextDouble(), graph.getVertex(random.nextInt(SIDE * SIDE))));
+		}
+		return graph;
+	}
+
+	private void assertSameDistances(KeyValueGraph<Integer, String, Double> graph, ContractionHierarchy hierarchy, long seed) {
+		Random random = new Random(seed);
+		ShortestPaths<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> dijkstra =
+				new ShortestPaths<>(graph, ValueEdge::getUserValue);
+		ContractionHierarchy.Query query = hierarchy.query();
+		for (int i = 0; i < 20; i++) {
+			KeyValueVertex<Integer, String, Double> source = graph.getVertex(random.nextInt(SIDE * SIDE));
+			ShortestPathTree<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> tree = dijkstra.search(source);
+			for (int key = 0; key < SIDE * SIDE; key++) {
+				KeyValueVertex<Integer, String, Double> target = graph.getVertex(key);
+				assertEquals(tree.getDistance(target), query.distance(source, target), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void queriesShouldReturnTheDijkstraDistances() throws GraphException {
+		KeyValueGraph<Integer, String, Double> graph = createGraph(1);
+
+		ContractionHierarchy hierarchy = new ContractionHierarchyBuilder<>(graph, ValueEdge::getUserValue).build();
+
+		assertEquals(SIDE * SIDE, hierarchy.size());
+		assertSameDistances(graph, hierarchy, 2);
+	}
+
+	@Test
+	public void shortWitnessSearchesShouldOnlyAddShortcuts() throws GraphException {
+		KeyValueGraph<Integer, String, Double> graph = createGraph(3);
+		ContractionHierarchyBuilder<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> builder =
+				new ContractionHierarchyBuilder<>(graph, ValueEdge::getUserValue, new ForkJoinPool(2));
+		ContractionHierarchy thorough = builder.build();
+		builder.setWitnessLimit(1);
+
+		ContractionHierarchy hasty = builder.build();
+
+		assertTrue(hasty.getShortcutCount() >= thorough.getShortcutCount());
+		assertSameDistances(graph, hasty, 4);
+	}
+
+	@Test
+	public void queryShouldSettleLessVerticesThanDijkstra() throws GraphException {
+		KeyValueGraph<Integer, String, Double> graph = createGraph(5);
+		ContractionHierarchy hierarchy = new ContractionHierarchyBuilder<>(graph, ValueEdge::getUserValue).build();
+		ContractionHierarchy.Query query = hierarchy.query();
+		KeyValueVertex<Integer, String, Double> source = graph.getVertex(0);
+		KeyValueVertex<Integer, String, Double> target = graph.getVertex(SIDE * SIDE - 1);
+
+		double distance = query.distance(source, target);
+		ShortestPathTree<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> tree =
+				new ShortestPaths<>(graph, ValueEdge::getUserValue).search(source, target);
+
+		assertEquals(tree.getDistance(target), distance, 1e-9);
+		assertTrue(query.getSettledCount() < tree.getSettledCount());
+	}
+
+	@Test
+	public void hierarchyShouldBeReadBackFromItsBytes() throws GraphException, IOException {
+		KeyValueGraph<Integer, String, Double> graph = createGraph(6);
+		ContractionHierarchy hierarchy = new ContractionHierarchyBuilder<>(graph, ValueEdge::getUserValue).build();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		hierarchy.write(new DataOutputStream(bytes));
+
+		ContractionHierarchy copy = ContractionHierarchy.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		assertEquals(hierarchy.getShortcutCount(), copy.getShortcutCount());
+		assertEquals(hierarchy.getRank(7), copy.getRank(7));
+		assertSameDistances(graph, copy, 7);
+
+		byte[] corrupted = bytes.toByteArray();
+		corrupted[0] = 0;
+		assertThrows(GraphCorruptedException.class,
+				() -> ContractionHierarchy.read(new DataInputStream(new ByteArrayInputStream(corrupted))));
+	}
+
+	@Test
+	public void unreachableTargetShouldBeAtInfiniteDistance() throws GraphException {
+		KeyValueGraph<Integer, String, Double> graph = new KeyValueGraph<>();
+		graph.addRootVertex(new KeyValueVertex<>(0, "a"), true);
+		graph.addRootVertex(new KeyValueVertex<>(1, "b"), false);
+		graph.addRootVertex(new KeyValueVertex<>(2, "c"), false);
+		graph.getVertex(0).tryAddEdge(new ValueEdge<>(2.0, graph.getVertex(1)));
+		graph.getVertex(2).tryAddEdge(new ValueEdge<>(3.0, graph.getVertex(1)));
+		ContractionHierarchy.Query query = new ContractionHierarchyBuilder<>(graph, ValueEdge::getUserValue).build().query();
+
+		assertEquals(2.0, query.distance(graph.getVertex(0), graph.getVertex(1)));
+		assertEquals(Double.POSITIVE_INFINITY, query.distance(graph.getVertex(0), graph.getVertex(2)));
+		assertEquals(Double.POSITIVE_INFINITY, query.distance(graph.getVertex(1), graph.getVertex(0)));
+		assertEquals(0.0, query.distance(graph.getVertex(2), graph.getVertex(2)));
+	}
+}
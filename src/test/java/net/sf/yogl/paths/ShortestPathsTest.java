@@ -0,0 +1,177 @@
+package net.sf.yogl.paths;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueGraph;
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.GraphException;
+
+public class ShortestPathsTest {
+
+	private static final int SIDE = 20;
+
+	/** SIDE x SIDE grid, each cell linked to its 4 neighbours with a random
+	 * weight in [1, 10[. The key of a cell is row * SIDE + column.
+	 */
+	private KeyValueGraph<Integer, String, Double> createGrid(long seed) throws GraphException {
+		Random random = new Random(seed);
+		KeyValueGraph<Integer, String, Double> graph = new KeyValueGraph<>();
+		for (int i = 0; i < SIDE * SIDE; i++) {
+			graph.addRootVertex(new KeyValueVertex<>(i, "v" + i), i == 0);
+		}
+		for (int row = 0; row < SIDE; row++) {
+			for (int column = 0; column < SIDE; column++) {
+				KeyValueVertex<Integer, String, Double> cell = graph.getVertex(row * SIDE + column);
+				if (column + 1 < SIDE)
+					cell.tryAddEdge(new ValueEdge<>(1 + 9 * random.nextDouble(), graph.getVertex(row * SIDE + column + 1)));
+				if (column > 0)
+					cell.tryAddEdge(new ValueEdge<>(1 + 9 * random.nextDouble(), graph.getVertex(row * SIDE + column - 1)));
+				if (row + 1 < SIDE)
+					cell.tryAddEdge(new ValueEdge<>(1 + 9 * random.nextDouble(), graph.getVertex((row + 1) * SIDE + column)));
+				if (row > 0)
+					cell.tryAddEdge(new ValueEdge<>(1 + 9 * random.nextDouble(), graph.getVertex((row - 1) * SIDE + column)));
+			}
+		}
+		return graph;
+	}
+
+	/** Bellman-Ford distances from vertex 0, by key
+	 */
+	private double[] referenceDistances(KeyValueGraph<Integer, String, Double> graph) {
+		double[] distances = new double[SIDE * SIDE];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		distances[0] = 0;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int key = 0; key < distances.length; key++) {
+				for (ValueEdge<Integer, String, Double> edge : graph.getVertex(key).getOutgoingEdges()) {
+					int to = edge.getToVertex().getKey();
+					if (distances[key] + edge.getUserValue() < distances[to]) {
+						distances[to] = distances[key] + edge.getUserValue();
+						changed = true;
+					}
+				}
+			}
+		}
+		return distances;
+	}
+
+	@Test
+	public void dijkstraShouldFindAllShortestDistances() throws GraphException {
+		KeyValueGraph<Integer, String, Double> graph = createGrid(1);
+		double[] expected = referenceDistances(graph);
+
+		ShortestPathTree<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> tree =
+				new ShortestPaths<>(graph, ValueEdge::getUserValue).search(graph.getVertex(0));
+
+		for (int key = 0; key < expected.length; key++) {
+			assertEquals(expected[key], tree.getDistance(graph.getVertex(key)), 1e-9);
+		}
+		assertEquals(SIDE * SIDE, tree.getSettledCount());
+	}
+
+	@Test
+	public void pathShouldAddUpToTheDistance() throws GraphException {
+		KeyValueGraph<Integer, String, Double> graph = createGrid(2);
+		KeyValueVertex<Integer, String, Double> target = graph.getVertex(SIDE * SIDE - 1);
+
+		ShortestPathTree<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> tree =
+				new ShortestPaths<>(graph, ValueEdge::getUserValue).search(graph.getVertex(0), target);
+		List<KeyValueVertex<Integer, String, Double>> path = tree.getPath(target);
+
+		assertEquals(graph.getVertex(0), path.get(0));
+		assertEquals(target, path.get(path.size() - 1));
+		double length = 0;
+		for (int i = 0; i + 1 < path.size(); i++) {
+			KeyValueVertex<Integer, String, Double> next = path.get(i + 1);
+			length += path.get(i).getOutgoingEdges().stream().filter(edge -> edge.getToVertex() == next)
+					.mapToDouble(ValueEdge::getUserValue).min().getAsDouble();
+		}
+		assertEquals(tree.getDistance(target), length, 1e-9);
+		assertArrayEquals(path.stream().mapToInt(KeyValueVertex::getId).toArray(), tree.getPathIds(target));
+	}
+
+	@Test
+	public void searchShouldStopAtTheTarget() throws GraphException {
+		KeyValueGraph<Integer, String, Double> graph = createGrid(3);
+		double[] expected = referenceDistances(graph);
+		KeyValueVertex<Integer, String, Double> target = graph.getVertex(SIDE + 1);
+
+		ShortestPathTree<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> tree =
+				new ShortestPaths<>(graph, ValueEdge::getUserValue).search(graph.getVertex(0), target);
+
+		assertEquals(expected[SIDE + 1], tree.getDistance(target), 1e-9);
+		assertTrue(tree.getSettledCount() < SIDE * SIDE);
+		assertFalse(tree.isReached(graph.getVertex(SIDE * SIDE - 1)));
+		assertEquals(0, tree.getPath(graph.getVertex(SIDE * SIDE - 1)).size());
+	}
+
+	@Test
+	public void aStarShouldSettleLessVerticesForTheSameDistance() throws GraphException {
+		KeyValueGraph<Integer, String, Double> graph = createGrid(4);
+		double[] expected = referenceDistances(graph);
+		KeyValueVertex<Integer, String, Double> target = graph.getVertex(SIDE * SIDE - 1);
+		ShortestPaths<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> paths =
+				new ShortestPaths<>(graph, ValueEdge::getUserValue);
+
+		// each step costs at least 1: the manhattan distance is consistent
+		ShortestPathTree<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> aStar = paths.search(
+				graph.getVertex(0), target, vertex -> 2 * (SIDE - 1) - vertex.getKey() / SIDE - vertex.getKey() % SIDE);
+		ShortestPathTree<KeyValueVertex<Integer, String, Double>, ValueEdge<Integer, String, Double>> dijkstra = paths.search(graph.getVertex(0), target);
+
+		assertEquals(expected[SIDE * SIDE - 1], aStar.getDistance(target), 1e-9);
+		assertEquals(dijkstra.getDistance(target), aStar.getDistance(target), 1e-9);
+		assertTrue(aStar.getSettledCount() <= dijkstra.getSettledCount());
+	}
+
+	@Test
+	public void negativeWeightsShouldBeRejected() throws GraphException {
+		KeyValueGraph<Integer, String, Double> graph = new KeyValueGraph<>();
+		graph.addRootVertex(new KeyValueVertex<>(0, "a"), true);
+		graph.addRootVertex(new KeyValueVertex<>(1, "b"), false);
+		graph.getVertex(0).tryAddEdge(new ValueEdge<>(-1.0, graph.getVertex(1)));
+
+		assertThrows(IllegalArgumentException.class,
+				() -> new ShortestPaths<>(graph, ValueEdge::getUserValue).search(graph.getVertex(0)));
+	}
+
+	@Test
+	public void heapShouldPollInPriorityOrder() {
+		Random random = new Random(5);
+		IndexedHeap heap = new IndexedHeap(1000, 3);
+		double[] priorities = new double[1000];
+		for (int i = 0; i < priorities.length; i++) {
+			priorities[i] = random.nextDouble();
+			heap.offer(i, priorities[i] + 1);
+		}
+		for (int i = 0; i < priorities.length; i += 2) {
+			heap.offer(i, priorities[i]);
+		}
+		for (int i = 1; i < priorities.length; i += 2) {
+			priorities[i] += 1;
+			assertFalse(heap.offer(i, priorities[i] + 1));
+		}
+		List<Double> polled = new ArrayList<>();
+		while (!heap.isEmpty()) {
+			double key = heap.peekKey();
+			assertEquals(priorities[heap.poll()], key);
+			polled.add(key);
+		}
+		assertEquals(polled.stream().sorted().collect(Collectors.toList()), polled);
+		assertEquals(priorities.length, polled.size());
+	}
+}
@@ -0,0 +1,205 @@
+package net.sf.yogl.types;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.sf.yogl.adjacent.keyValue.KeyValueVertex;
+import net.sf.yogl.adjacent.keyValue.ValueEdge;
+import net.sf.yogl.exceptions.CycleDetectedException;
+import net.sf.yogl.exceptions.DuplicateLinkException;
+import net.sf.yogl.exceptions.GraphException;
+import net.sf.yogl.exceptions.LinkNotFoundException;
+import net.sf.yogl.exceptions.NodeNotFoundException;
+
+public class DirectedAcyclicGraphTest {
+
+	/** a -> b, a -> c, b -> d, c -> d, d -> e
+	 */
+	private DirectedAcyclicGraph<String, String, String, String> createGraph() throws GraphException {
+		DirectedAcyclicGraph<String, String, String, String> graph = new DirectedAcyclicGraph<>();
+		for (String key : new String[] {"a", "b", "c", "d", "e"}) {
+			graph.addRootVertex(new KeyValueVertex<>(key, key.toUpperCase()), key.equals("a"));
+		}
+		graph.getVertex("a").tryAddEdge(new ValueEdge<>("ab", graph.getVertex("b")));
+		graph.getVertex("a").tryAddEdge(new ValueEdge<>("ac", graph.getVertex("c")));
+		graph.getVertex("b").tryAddEdge(new ValueEdge<>("bd", graph.getVertex("d")));
+		graph.getVertex("c").tryAddEdge(new ValueEdge<>("cd", graph.getVertex("d")));
+		graph.getVertex("d").tryAddEdge(new ValueEdge<>("de", graph.getVertex("e")));
+		return graph;
+	}
+
+	@Test
+	public void successorsShouldBeFoundAtTheGivenDistance() throws GraphException {
+		DirectedAcyclicGraph<String, String, String, String> graph = createGraph();
+
+		Comparable<?>[] successors = graph.getSuccessorNodesKeys("a", 1);
+		Arrays.sort(successors);
+		assertArrayEquals(new String[] {"b", "c"}, successors);
+		assertArrayEquals(new String[] {"d"}, graph.getSuccessorNodesKeys("a", 2));
+		assertArrayEquals(new String[] {"e"}, graph.getSuccessorNodesKeys("b", 2));
+		assertArrayEquals(new String[0], graph.getSuccessorNodesKeys("e", 1));
+	}
+
+	@Test
+	public void unknownNodesAndStepsShouldBeRejected() throws GraphException {
+		DirectedAcyclicGraph<String, String, String, String> graph = createGraph();
+
+		assertThrows(NodeNotFoundException.class, () -> graph.getSuccessorNodesKeys("z", 1));
+		assertThrows(GraphException.class, () -> graph.getSuccessorNodesKeys("a", 0));
+	}
+
+	@Test
+	public void linksClosingACycleShouldBeRejected() throws GraphException {
+		DirectedAcyclicGraph<String, String, String, String> graph = createGraph();
+
+		CycleDetectedException e = assertThrows(CycleDetectedException.class, () -> graph.addLinkLast("e", "a", "ea", "ea"));
+		assertEquals("e", e.getNodeKeyFrom());
+		assertEquals("a", e.getNodeKeyTo());
+		assertThrows(CycleDetectedException.class, () -> graph.addLinkLast("d", "d", "dd", "dd"));
+		assertEquals(5, graph.getLinkCount());
+		assertTrue(graph.getVertex("e").getOutgoingEdges().isEmpty());
+	}
+
+	@Test
+	public void directLinksClosingACycleShouldBeRemoved() throws GraphException {
+		DirectedAcyclicGraph<String, String, String, String> graph = createGraph();
+
+		IllegalStateException e = assertThrows(IllegalStateException.class,
+				() -> graph.getVertex("d").tryAddEdge(new ValueEdge<>("db", graph.getVertex("b"))));
+		assertTrue(e.getCause() instanceof CycleDetectedException);
+		assertEquals(5, graph.getLinkCount());
+		assertEquals(1, graph.getVertex("d").getOutgoingEdges().size());
+		assertEquals(1, graph.getPredecessorVertices(graph.getVertex("b")).size());
+	}
+
+	@Test
+	public void redirectedLinksShouldKeepTheOrder() throws GraphException {
+		DirectedAcyclicGraph<String, String, String, String> graph = createGraph();
+		ValueEdge<String, String, String> de = graph.getVertex("d").getOutgoingEdges().iterator().next();
+		ValueEdge<String, String, String> cd = graph.getVertex("c").getOutgoingEdges().iterator().next();
+
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> de.setToVertex(graph.getVertex("b")));
+		assertTrue(e.getCause() instanceof CycleDetectedException);
+		assertEquals("e", de.getToVertex().getKey());
+		assertEquals(1, graph.getPredecessorVertices(graph.getVertex("b")).size());
+
+		cd.setToVertex(graph.getVertex("e"));
+		graph.getVertex("d").tryAddEdge(new ValueEdge<>("dc", graph.getVertex("c")));
+		assertEquals(6, graph.getLinkCount());
+		assertOrdered(graph);
+	}
+
+	@Test
+	public void linksOfAnAddedVertexClosingACycleShouldBeRemoved() throws GraphException {
+		DirectedAcyclicGraph<String, String, String, String> graph = createGraph();
+		KeyValueVertex<String, String, String> x = new KeyValueVertex<>("x", "X");
+		graph.getVertex("a").tryAddEdge(new ValueEdge<>("ax", x));
+		x.tryAddEdge(new ValueEdge<>("xe", graph.getVertex("e")));
+		x.tryAddEdge(new ValueEdge<>("xa", graph.getVertex("a")));
+		x.tryAddEdge(new ValueEdge<>("xd", graph.getVertex("d")));
+
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> graph.addRootVertex(x, false));
+		assertTrue(e.getCause() instanceof CycleDetectedException);
+		assertEquals(x, graph.getVertex("x"));
+		assertEquals(Arrays.asList("e", "d"), keys(graph.getSuccessorVertices(x)));
+		assertEquals(8, graph.getLinkCount());
+		assertOrdered(graph);
+	}
+
+	@Test
+	public void orderShouldFollowLinksAddedBackward() throws GraphException {
+		DirectedAcyclicGraph<String, String, String, String> graph = new DirectedAcyclicGraph<>();
+		for (String key : new String[] {"e", "d", "c", "b", "a"}) {
+			graph.addRootVertex(new KeyValueVertex<>(key, key), false);
+		}
+		graph.addLinkLast("d", "e", null, "de");
+		graph.addLinkLast("c", "d", null, "cd");
+		graph.addLinkLast("b", "c", null, "bc");
+		graph.addLinkLast("a", "b", null, "ab");
+
+		assertEquals(Arrays.asList("a", "b", "c", "d", "e"), keys(graph.getTopologicalOrder()));
+		assertThrows(CycleDetectedException.class, () -> graph.addLinkLast("e", "b", null, "eb"));
+		assertEquals(Arrays.asList("a", "b", "c", "d", "e"), keys(graph.getTopologicalOrder()));
+	}
+
+	@Test
+	public void randomLinksShouldBeAcceptedUnlessTheyCloseACycle() throws GraphException {
+		int n = 40;
+		Random random = new Random(25);
+		DirectedAcyclicGraph<Integer, Integer, Integer, Integer> graph = new DirectedAcyclicGraph<>();
+		for (int i = 0; i < n; i++) {
+			graph.addRootVertex(new KeyValueVertex<>(i, i), false);
+		}
+		boolean[][] reachable = new boolean[n][n];
+		for (int i = 0; i < n; i++) {
+			reachable[i][i] = true;
+		}
+		for (int k = 0; k < 300; k++) {
+			int from = random.nextInt(n);
+			int to = random.nextInt(n);
+			if (reachable[to][from]) {
+				assertThrows(CycleDetectedException.class, () -> graph.addLinkLast(from, to, null, 0));
+			} else {
+				graph.addLinkLast(from, to, null, 0);
+				for (int a = 0; a < n; a++) {
+					if (reachable[a][from]) {
+						for (int b = 0; b < n; b++) {
+							reachable[a][b] |= reachable[to][b];
+						}
+					}
+				}
+			}
+			Map<Integer, Integer> positions = new HashMap<>();
+			List<KeyValueVertex<Integer, Integer, Integer>> order = graph.getTopologicalOrder();
+			for (int i = 0; i < order.size(); i++) {
+				positions.put(order.get(i).getKey(), i);
+			}
+			graph.forEachEdge((vertex, edge, target) ->
+				assertTrue(positions.get(vertex.getKey()) < positions.get(target.getKey())));
+		}
+	}
+
+	@Test
+	public void linksShouldBeFoundByKey() throws GraphException {
+		DirectedAcyclicGraph<String, String, String, String> graph = createGraph();
+		graph.addLinkLast("a", "d", "x", "ad1");
+		graph.addLinkLast("a", "d", "y", "ad2");
+		graph.addLinkLast("b", "e", "x", "be");
+
+		assertThrows(DuplicateLinkException.class, () -> graph.addLinkLast("a", "d", "x", "ad3"));
+		Comparable<?>[] keys = graph.getLinksKeysBetween("a", "d");
+		Arrays.sort(keys);
+		assertArrayEquals(new String[] {"x", "y"}, keys);
+		assertArrayEquals(new String[] {"d"}, graph.getSuccessorNodesKeys("a", "x"));
+
+		graph.removeLink("a", "d", "x");
+		assertArrayEquals(new String[] {"y"}, graph.getLinksKeysBetween("a", "d"));
+		assertArrayEquals(new String[0], graph.getSuccessorNodesKeys("a", "x"));
+		assertThrows(LinkNotFoundException.class, () -> graph.removeLink("a", "d", "x"));
+		assertThrows(NodeNotFoundException.class, () -> graph.getLinksKeysBetween("a", "z"));
+	}
+
+	private static void assertOrdered(DirectedAcyclicGraph<String, String, String, String> graph) {
+		List<KeyValueVertex<String, String, String>> order = graph.getTopologicalOrder();
+		graph.forEachEdge((vertex, edge, target) -> assertTrue(order.indexOf(vertex) < order.indexOf(target)));
+	}
+
+	private static List<String> keys(List<KeyValueVertex<String, String, String>> vertices) {
+		List<String> keys = new ArrayList<>();
+		for (KeyValueVertex<String, String, String> vertex : vertices) {
+			keys.add(vertex.getKey());
+		}
+		return keys;
+	}
+}
@@ -1,9 +1,17 @@
 package net.sf.yogl.uniqueElements;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 import net.sf.yogl.adjacent.key.KeyEdge;
 import net.sf.yogl.adjacent.key.KeyVertex;
+import net.sf.yogl.adjacent.key.UniqueElementsGraph;
 import net.sf.yogl.exceptions.NodeNotFoundException;
 
 public class UniqueElementsGraphTest {
@@ -30,4 +38,49 @@ public class UniqueElementsGraphTest {
 		StringUniqueVertex v = new StringUniqueVertex("1");
 		
 	}
+
+	@Test
+	public void predecessorsShouldFollowEdgesUpdates() throws NodeNotFoundException {
+		UniqueElementsGraph<StringUniqueVertex, StringUniqueEdge, String, String> graph = new UniqueElementsGraph<>();
+		StringUniqueVertex v1 = new StringUniqueVertex("1");
+		StringUniqueVertex v2 = new StringUniqueVertex("2");
+		StringUniqueVertex v3 = new StringUniqueVertex("3");
+		graph.addRootVertex(v1, true);
+		graph.addRootVertex(v2, false);
+		graph.addRootVertex(v3, false);
+		StringUniqueEdge e13 = new StringUniqueEdge("13", v3);
+		v1.tryAddEdge(e13);
+		v2.tryAddEdge(new StringUniqueEdge("23", v3));
+
+		List<String> keys = new ArrayList<>();
+		graph.getPredecessorVertices(v3).forEach(v -> keys.add(v.getKey()));
+		assertEquals(Arrays.asList("1", "2"), keys);
+		assertEquals(v1, graph.getPredecessorVertex(v3, e13));
+
+		graph.removeVertex(v2);
+		v1.removeEdge(e13);
+		assertTrue(graph.getPredecessorVertices(v3).isEmpty());
+	}
+
+	@Test
+	public void predecessorsShouldFollowEdgeRedirection() throws NodeNotFoundException {
+		UniqueElementsGraph<StringUniqueVertex, StringUniqueEdge, String, String> graph = new UniqueElementsGraph<>();
+		StringUniqueVertex v1 = new StringUniqueVertex("1");
+		StringUniqueVertex v2 = new StringUniqueVertex("2");
+		StringUniqueVertex v3 = new StringUniqueVertex("3");
+		graph.addRootVertex(v1, true);
+		graph.addRootVertex(v2, false);
+		graph.addRootVertex(v3, false);
+		StringUniqueEdge e12 = new StringUniqueEdge("12", v2);
+		v1.tryAddEdge(e12);
+
+		e12.setToVertex(v3);
+
+		assertTrue(graph.getPredecessorVertices(v2).isEmpty());
+		assertEquals(v1, graph.getPredecessorVertex(v3, e12));
+		graph.removeVertex(v2);
+		assertEquals(1, v1.getOutgoingEdges().size());
+		assertEquals(1, graph.getDegreeStatistics().inDegree("3"));
+		assertEquals(1, graph.getMaxInDegree());
+	}
 }